@@ -0,0 +1,86 @@
+package com.magneto.benchmark;
+
+import java.util.Random;
+
+/**
+ * Deterministic DNA matrix generators shared by the benchmarks.
+ */
+public final class DnaMatrices {
+
+    private static final char[] BACKGROUND = {'A', 'C', 'T'};
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    /**
+     * Matrix shapes used to exercise the detector.
+     */
+    public enum Layout {
+        /** No sequence at all: the detector scans the whole matrix. */
+        HUMAN,
+        /** Two sequences in the first rows: exits almost immediately. */
+        EARLY,
+        /** Two sequences around the middle row. */
+        MIDDLE,
+        /** Two sequences in the last rows: exits at the very end. */
+        LATE,
+        /** Random two-letter matrix: many overlapping sequences everywhere. */
+        DENSE
+    }
+
+    private DnaMatrices() {
+    }
+
+    public static String[] generate(int size, Layout layout, long seed) {
+        if (layout == Layout.DENSE) {
+            return random(size, new Random(seed), 2);
+        }
+
+        char[][] grid = background(size);
+        int row = switch (layout) {
+            case EARLY -> 0;
+            case MIDDLE -> Math.max(0, size / 2 - 4);
+            case LATE -> size - 4;
+            default -> -1;
+        };
+        if (row >= 0) {
+            // Horizontal run plus vertical run, both of G (never in the background)
+            for (int i = 0; i < 4; i++) {
+                grid[row][i] = 'G';
+                grid[row + i][size - 1] = 'G';
+            }
+        }
+        return toStrings(grid);
+    }
+
+    public static String[] random(int size, Random random, int alphabet) {
+        String[] dna = new String[size];
+        char[] row = new char[size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                row[j] = BASES[random.nextInt(alphabet)];
+            }
+            dna[i] = new String(row);
+        }
+        return dna;
+    }
+
+    /**
+     * A/C/T grid with no run of four in any direction.
+     */
+    private static char[][] background(int size) {
+        char[][] grid = new char[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                grid[row][col] = BACKGROUND[(row + col + row / 2) % 3];
+            }
+        }
+        return grid;
+    }
+
+    private static String[] toStrings(char[][] grid) {
+        String[] dna = new String[grid.length];
+        for (int i = 0; i < grid.length; i++) {
+            dna[i] = new String(grid[i]);
+        }
+        return dna;
+    }
+}
@@ -0,0 +1,91 @@
+package com.magneto.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magneto.benchmark.DnaMatrices;
+import com.magneto.dto.DnaRequest;
+import com.magneto.service.DetectionPolicy;
+import com.magneto.service.DnaPreprocessor;
+import com.magneto.service.PackedDna;
+import com.magneto.service.PreparedDna;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Cost of turning a {@code /mutant} body into a prepared sample: Jackson and the fused
+ * validation pass for JSON, against the {@link PackedDnaHttpMessageConverter} and the hash for
+ * the packed format.
+ */
+@State(Scope.Benchmark)
+public class RequestFormatBenchmark {
+
+    @Param({"64", "1000", "4096"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private PackedDnaHttpMessageConverter converter;
+    private DnaPreprocessor dnaPreprocessor;
+    private byte[] json;
+    private byte[] packed;
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] dna = DnaMatrices.generate(size, DnaMatrices.Layout.HUMAN, 42L);
+        objectMapper = new ObjectMapper();
+        converter = new PackedDnaHttpMessageConverter();
+        dnaPreprocessor = new DnaPreprocessor();
+        json = objectMapper.writeValueAsBytes(new DnaRequest(dna));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.write(PackedDna.pack(dna), PackedDnaHttpMessageConverter.MEDIA_TYPE, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return out;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+        });
+        packed = out.toByteArray();
+    }
+
+    @Benchmark
+    public PreparedDna json() throws IOException {
+        return dnaPreprocessor.prepare(objectMapper.readValue(json, DnaRequest.class).getDna());
+    }
+
+    @Benchmark
+    public PreparedDna packed() throws IOException {
+        PackedDna packedDna = converter.read(PackedDna.class, message(packed));
+        return dnaPreprocessor.prepare(packedDna, DetectionPolicy.DEFAULT);
+    }
+
+    private static HttpInputMessage message(byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentLength(body.length);
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+}
@@ -0,0 +1,88 @@
+package com.magneto.service;
+
+import com.magneto.MutantDetectorApplication;
+import com.magneto.benchmark.DnaMatrices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end {@link MutantService#analyzeDna(String[])} against an in-memory H2 database,
+ * for first-time samples (hash + lookup + detection + insert) and replays (hash + lookup).
+ */
+@State(Scope.Benchmark)
+public class AnalyzeDnaBenchmark {
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+    private static final int UNIQUE_DIGITS = 24;
+
+    public enum Mode { NEW, REPLAY }
+
+    @Param({"6", "64", "1000"})
+    private int size;
+
+    @Param({"NEW", "REPLAY"})
+    private Mode mode;
+
+    private ConfigurableApplicationContext context;
+    private MutantService mutantService;
+    private String[] template;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MutantDetectorApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                    "spring.datasource.url=jdbc:h2:mem:jmh-" + size + "-" + mode + ";DB_CLOSE_DELAY=-1",
+                    "spring.jpa.show-sql=false",
+                    "logging.level.root=WARN",
+                    "logging.level.com.magneto=WARN",
+                    "logging.level.org.hibernate.SQL=WARN")
+                .run();
+        mutantService = context.getBean(MutantService.class);
+        template = DnaMatrices.generate(size, DnaMatrices.Layout.MIDDLE, 42L);
+        mutantService.analyzeDna(template);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean analyzeDna() {
+        return mutantService.analyzeDna(mode == Mode.NEW ? uniqueSample(counter++) : template);
+    }
+
+    /**
+     * Copy of the template whose leading cells encode {@code id} in base 4.
+     */
+    private String[] uniqueSample(long id) {
+        String[] dna = template.clone();
+        int cells = Math.min(UNIQUE_DIGITS, size * size);
+        char[] row = null;
+        int currentRow = -1;
+        for (int cell = 0; cell < cells; cell++) {
+            int r = cell / size;
+            if (r != currentRow) {
+                if (row != null) {
+                    dna[currentRow] = new String(row);
+                }
+                currentRow = r;
+                row = dna[r].toCharArray();
+            }
+            row[cell % size] = BASES[(int) (id & 3)];
+            id >>>= 2;
+        }
+        dna[currentRow] = new String(row);
+        return dna;
+    }
+}
@@ -0,0 +1,38 @@
+package com.magneto.service;
+
+import com.magneto.benchmark.DnaMatrices;
+import com.magneto.entity.DnaHashAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of preparing a request by matrix size and deduplication hash: the fused validation,
+ * packing and hashing done by {@link DnaPreprocessor}.
+ */
+@State(Scope.Benchmark)
+public class DnaHashBenchmark {
+
+    @Param({"6", "64", "1000", "10000"})
+    private int size;
+
+    @Param({"SHA_256", "MURMUR3_128"})
+    private DnaHashAlgorithm algorithm;
+
+    private String[] dna;
+    private DnaPreprocessor dnaPreprocessor;
+
+    @Setup
+    public void setUp() {
+        dna = DnaMatrices.generate(size, DnaMatrices.Layout.HUMAN, 42L);
+        dnaPreprocessor = new DnaPreprocessor(DetectionMetrics.noop(), DetectionPolicy.DEFAULT,
+                DnaHashStrategy.of(algorithm));
+    }
+
+    @Benchmark
+    public PreparedDna prepare() {
+        return dnaPreprocessor.prepare(dna);
+    }
+}
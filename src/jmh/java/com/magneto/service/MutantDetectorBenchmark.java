@@ -0,0 +1,59 @@
+package com.magneto.service;
+
+import com.magneto.benchmark.DnaMatrices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Detection cost by matrix size, mutant density and early-exit position.
+ */
+@State(Scope.Benchmark)
+public class MutantDetectorBenchmark {
+
+    @Param({"6", "64", "1000", "10000"})
+    private int size;
+
+    @Param({"HUMAN", "EARLY", "MIDDLE", "LATE", "DENSE"})
+    private DnaMatrices.Layout layout;
+
+    private String[] dna;
+    private PackedDna packedDna;
+    private MutantDetector referenceDetector;
+    private PackedMutantDetector packedDetector;
+
+    @Setup
+    public void setUp() {
+        dna = DnaMatrices.generate(size, layout, 42L);
+        packedDna = PackedDna.pack(dna);
+        referenceDetector = new MutantDetector();
+        packedDetector = new PackedMutantDetector();
+    }
+
+    @Benchmark
+    public boolean reference() {
+        return referenceDetector.isMutant(dna);
+    }
+
+    @Benchmark
+    public boolean packed() {
+        return packedDetector.isMutant(dna);
+    }
+
+    @Benchmark
+    public boolean packedScanOnly() {
+        return packedDetector.isMutant(packedDna);
+    }
+
+    /**
+     * Full scan reporting every run, the cost of the match report without the response.
+     */
+    @Benchmark
+    public long packedMatches(Blackhole blackhole) {
+        return packedDetector.findMatches(packedDna, DetectionPolicy.DEFAULT,
+                (row, column, direction, base) -> blackhole.consume(row + column));
+    }
+}
@@ -0,0 +1,33 @@
+package com.magneto.validation;
+
+import com.magneto.benchmark.DnaMatrices;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of validating a well-formed matrix (the common path) by size.
+ */
+@State(Scope.Benchmark)
+public class DnaSequenceValidatorBenchmark {
+
+    @Param({"6", "64", "1000", "10000"})
+    private int size;
+
+    private String[] dna;
+    private DnaSequenceValidator validator;
+
+    @Setup
+    public void setUp() {
+        dna = DnaMatrices.generate(size, DnaMatrices.Layout.HUMAN, 42L);
+        validator = new DnaSequenceValidator();
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        // The context is only touched on the error path
+        return validator.isValid(dna, null);
+    }
+}
@@ -0,0 +1,144 @@
+package com.magneto.loadtest;
+
+import com.magneto.loadtest.RequestPlan.Endpoint;
+import com.magneto.loadtest.RequestPlan.Request;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends a plan at a fixed arrival rate and records latencies per endpoint.
+ * <p>
+ * The load is open-loop: request i is scheduled at {@code start + i / rate} whatever happened to
+ * the previous ones, and sent asynchronously. Its latency is measured from that scheduled time,
+ * not from when it actually left, so a stall of the app or of the generator counts against every
+ * request that should have been sent meanwhile, as it would for real clients arriving at that
+ * rate. The time from the actual send, the service time, is recorded too: it is what a closed-loop
+ * client would report, and the gap between both shows how much coordinated omission would hide.
+ */
+final class LoadGenerator {
+
+    private static final long START_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final HttpClient client;
+    private final URI target;
+    private final LoadTestOptions options;
+
+    LoadGenerator(HttpClient client, URI target, LoadTestOptions options) {
+        this.client = client;
+        this.target = target;
+        this.options = options;
+    }
+
+    /**
+     * Latencies, status codes and errors of the requests sent to one endpoint after the warmup.
+     * Histograms are in microseconds.
+     */
+    static final class EndpointStats {
+
+        final Histogram latency = new ConcurrentHistogram(3);
+        final Histogram serviceTime = new ConcurrentHistogram(3);
+        final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+        final LongAdder errors = new LongAdder();
+
+        long requests() {
+            return latency.getTotalCount() + errors.sum();
+        }
+    }
+
+    /**
+     * Results of a run, for the requests scheduled after the warmup.
+     *
+     * @param measuredNanos from the first measured scheduled send to the last completion
+     * @param maxSendLagNanos largest delay between a scheduled send and the actual one
+     */
+    record Result(Map<Endpoint, EndpointStats> endpoints, long measuredNanos, long maxSendLagNanos, long unfinished) {
+    }
+
+    Result run(List<Request> requests, int warmupRequests) throws InterruptedException {
+        Map<Endpoint, EndpointStats> endpoints = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            endpoints.put(endpoint, new EndpointStats());
+        }
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        CountDownLatch completed = new CountDownLatch(requests.size());
+        AtomicLong lastCompletion = new AtomicLong();
+        LongAccumulator maxSendLag = new LongAccumulator(Math::max, 0);
+
+        double nanosPerRequest = TimeUnit.SECONDS.toNanos(1) / options.rate;
+        long start = System.nanoTime() + START_DELAY_NANOS;
+        long measuredStart = start + (long) (warmupRequests * nanosPerRequest);
+
+        for (int i = 0; i < requests.size(); i++) {
+            Request request = requests.get(i);
+            long scheduled = start + (long) (i * nanosPerRequest);
+            parkUntil(scheduled);
+            inFlight.acquire();
+
+            boolean measured = i >= warmupRequests;
+            EndpointStats stats = endpoints.get(request.endpoint());
+            long sent = System.nanoTime();
+            if (measured) {
+                maxSendLag.accumulate(sent - scheduled);
+            }
+            client.sendAsync(httpRequest(request), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long done = System.nanoTime();
+                        inFlight.release();
+                        if (measured) {
+                            record(stats, scheduled, sent, done, response, error);
+                            lastCompletion.accumulateAndGet(done, Math::max);
+                        }
+                        completed.countDown();
+                    });
+        }
+
+        completed.await(options.timeout.toMillis() + 1000, TimeUnit.MILLISECONDS);
+        long measuredNanos = Math.max(1, lastCompletion.get() - measuredStart);
+        return new Result(endpoints, measuredNanos, maxSendLag.get(), completed.getCount());
+    }
+
+    private static void record(EndpointStats stats, long scheduled, long sent, long done,
+                               HttpResponse<Void> response, Throwable error) {
+        if (error != null) {
+            stats.errors.increment();
+            return;
+        }
+        stats.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(done - scheduled));
+        stats.serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(done - sent));
+        stats.statusCodes.computeIfAbsent(response.statusCode(), code -> new LongAdder()).increment();
+    }
+
+    private HttpRequest httpRequest(Request request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target.resolve(request.endpoint().path))
+                .timeout(options.timeout);
+        if (request.body() == null) {
+            return builder.GET().build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(request.body()))
+                .build();
+    }
+
+    private static void parkUntil(long deadline) {
+        for (long remaining = deadline - System.nanoTime(); remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.magneto.loadtest;
+
+import com.magneto.loadtest.LoadGenerator.EndpointStats;
+import com.magneto.loadtest.RequestPlan.Endpoint;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Load test of {@code POST /mutant} and {@code GET /stats} against an app on this machine,
+ * optionally started from its jar for the run. Reports p50, p99, p99.9 and max latency and the
+ * throughput of each endpoint; see {@link LoadGenerator} for how latency is measured.
+ */
+public final class LoadTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+    private static final Path APP_LOG = Path.of("build", "loadtest", "app.log");
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(LoadTestOptions.USAGE);
+            return;
+        }
+
+        LoadTestOptions options;
+        URI target;
+        int warmupRequests;
+        int total;
+        RequestPlan plan;
+        try {
+            options = LoadTestOptions.parse(args);
+            target = localTarget(options.target);
+            warmupRequests = requestsFor(options.warmup, options.rate);
+            total = warmupRequests + requestsFor(options.duration, options.rate);
+            plan = options.replay != null
+                    ? RequestPlan.replay(options.replay, total, options)
+                    : RequestPlan.generate(total, options);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+        System.out.printf("Plan: %d requests (%d warmup), %d distinct samples, %s%n", total, warmupRequests,
+                plan.uniqueSamples(), options.replay != null ? "replayed from " + options.replay : "generated");
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout)
+                .build();
+        Process app = options.jar != null ? startApp(options.jar, target) : null;
+        int exitCode = 0;
+        try {
+            awaitHealthy(client, target, app);
+            System.out.printf("Sending %.0f req/s to %s for %ds after %ds of warmup%n", options.rate, target,
+                    options.duration.toSeconds(), options.warmup.toSeconds());
+
+            LoadGenerator.Result result = new LoadGenerator(client, target, options).run(plan.requests(), warmupRequests);
+            report(result, options, System.out);
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            exitCode = 1;
+        } finally {
+            if (app != null) {
+                app.destroy();
+                if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                    app.destroyForcibly();
+                }
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the target is not a loopback address
+     */
+    static URI localTarget(String url) {
+        URI target = URI.create(url.endsWith("/") ? url : url + "/");
+        boolean loopback;
+        try {
+            loopback = target.getHost() != null && InetAddress.getByName(target.getHost()).isLoopbackAddress();
+        } catch (IOException e) {
+            loopback = false;
+        }
+        if (!loopback) {
+            throw new IllegalArgumentException("Load tests only run against localhost, not " + url);
+        }
+        return target;
+    }
+
+    private static int requestsFor(Duration duration, double rate) {
+        return (int) Math.ceil(duration.toNanos() * rate / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Starts the app jar on the target port, with its output in build/loadtest/app.log.
+     */
+    private static Process startApp(Path jar, URI target) throws IOException {
+        Files.createDirectories(APP_LOG.getParent());
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        int port = target.getPort() > 0 ? target.getPort() : 80;
+        System.out.printf("Starting %s on port %d, log in %s%n", jar, port, APP_LOG);
+        return new ProcessBuilder(java.toString(), "-jar", jar.toString(), "--server.port=" + port)
+                .redirectErrorStream(true)
+                .redirectOutput(APP_LOG.toFile())
+                .start();
+    }
+
+    private static void awaitHealthy(HttpClient client, URI target, Process app) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(target.resolve("health")).timeout(Duration.ofSeconds(2)).build();
+        long deadline = System.nanoTime() + (app != null ? STARTUP_TIMEOUT : Duration.ofSeconds(5)).toNanos();
+        while (true) {
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            if (app != null && !app.isAlive()) {
+                throw new IllegalStateException("The app exited with " + app.exitValue() + ", see " + APP_LOG);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("No healthy app at " + target + "; start it or pass --jar");
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    private static void report(LoadGenerator.Result result, LoadTestOptions options, PrintStream out) throws IOException {
+        double seconds = result.measuredNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+
+        out.println();
+        out.printf("%-9s %9s %7s %12s %10s %10s %10s %10s%n",
+                "Endpoint", "Requests", "Errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, EndpointStats> entry : result.endpoints().entrySet()) {
+            EndpointStats stats = entry.getValue();
+            if (stats.requests() == 0) {
+                continue;
+            }
+            Histogram latency = stats.latency;
+            out.printf("%-9s %9d %7d %12.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    entry.getKey().path, stats.requests(), stats.errors.sum(), latency.getTotalCount() / seconds,
+                    millis(latency, 50), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / MICROS_PER_MILLI);
+        }
+
+        out.println();
+        out.println("Service time, from the actual send (what a closed-loop client would report):");
+        for (Map.Entry<Endpoint, EndpointStats> entry : result.endpoints().entrySet()) {
+            Histogram serviceTime = entry.getValue().serviceTime;
+            if (serviceTime.getTotalCount() > 0) {
+                out.printf("  %-9s p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms%n", entry.getKey().path,
+                        millis(serviceTime, 50), millis(serviceTime, 99), millis(serviceTime, 99.9));
+            }
+        }
+        for (Map.Entry<Endpoint, EndpointStats> entry : result.endpoints().entrySet()) {
+            Map<Integer, LongAdder> statusCodes = new TreeMap<>(entry.getValue().statusCodes);
+            if (!statusCodes.isEmpty()) {
+                out.printf("Status codes %s: %s%n", entry.getKey().path, statusCodes.entrySet().stream()
+                        .map(status -> status.getKey() + "=" + status.getValue().sum())
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+
+        double sendLagMillis = result.maxSendLagNanos() / 1e6;
+        if (sendLagMillis > 10) {
+            out.printf("Sends fell up to %.1f ms behind schedule (generator or max-in-flight limit); "
+                    + "latencies include that wait%n", sendLagMillis);
+        }
+        if (result.unfinished() > 0) {
+            out.printf("%d requests had not completed when the run ended%n", result.unfinished());
+        }
+
+        if (options.histogramDir != null) {
+            Files.createDirectories(options.histogramDir);
+            for (Map.Entry<Endpoint, EndpointStats> entry : result.endpoints().entrySet()) {
+                Path file = options.histogramDir.resolve(entry.getKey().name().toLowerCase() + ".hgrm");
+                try (PrintStream histogram = new PrintStream(Files.newOutputStream(file))) {
+                    entry.getValue().latency.outputPercentileDistribution(histogram, MICROS_PER_MILLI);
+                }
+            }
+            out.println("Percentile distributions (ms) written to " + options.histogramDir);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,125 @@
+package com.magneto.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line options of the load test, given as {@code --name=value}.
+ */
+final class LoadTestOptions {
+
+    static final String USAGE = """
+            Options (--name=value):
+              --target=URL            app under test, must be on localhost (default http://localhost:8080)
+              --jar=PATH              start this app jar on the target port first, stop it at the end
+              --rate=N                requests per second, fixed arrival rate (default 200)
+              --duration=D            measured phase, e.g. 30s or 2m (default 30s)
+              --warmup=D              unmeasured phase before it (default 10s)
+              --stats-ratio=R         share of requests sent to GET /stats (default 0.05)
+              --replay=PATH           JSONL file of POST /mutant bodies, one {"dna": [...]} per line, cycled
+              --duplicate-ratio=R     generated traffic: share of samples already sent before (default 0.3)
+              --sizes=N:W,...         generated traffic: matrix sizes and their weights (default 6:80,100:15,1000:5)
+              --seed=N                generated traffic: random seed (default 42)
+              --max-in-flight=N       outstanding requests before sends wait (default 10000)
+              --timeout=D             per request (default 30s)
+              --histogram-dir=PATH    also write each endpoint's percentile distribution (.hgrm) there
+            """;
+
+    String target = "http://localhost:8080";
+    Path jar;
+    double rate = 200;
+    Duration duration = Duration.ofSeconds(30);
+    Duration warmup = Duration.ofSeconds(10);
+    double statsRatio = 0.05;
+    Path replay;
+    double duplicateRatio = 0.3;
+    int[] sizes = {6, 100, 1000};
+    int[] sizeWeights = {80, 15, 5};
+    long seed = 42;
+    int maxInFlight = 10_000;
+    Duration timeout = Duration.ofSeconds(30);
+    Path histogramDir;
+
+    /**
+     * @throws IllegalArgumentException on an unknown option or a malformed value
+     */
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            try {
+                options.set(name, value);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid --" + name + ": " + value, e);
+            }
+        }
+        options.validate();
+        return options;
+    }
+
+    private void set(String name, String value) {
+        switch (name) {
+            case "target" -> target = value;
+            case "jar" -> jar = Path.of(value);
+            case "rate" -> rate = Double.parseDouble(value);
+            case "duration" -> duration = parseDuration(value);
+            case "warmup" -> warmup = parseDuration(value);
+            case "stats-ratio" -> statsRatio = Double.parseDouble(value);
+            case "replay" -> replay = Path.of(value);
+            case "duplicate-ratio" -> duplicateRatio = Double.parseDouble(value);
+            case "sizes" -> parseSizes(value);
+            case "seed" -> seed = Long.parseLong(value);
+            case "max-in-flight" -> maxInFlight = Integer.parseInt(value);
+            case "timeout" -> timeout = parseDuration(value);
+            case "histogram-dir" -> histogramDir = Path.of(value);
+            default -> throw new IllegalArgumentException("Unknown option --" + name);
+        }
+    }
+
+    private void validate() {
+        if (rate <= 0 || duration.isZero() || duration.isNegative() || warmup.isNegative() || maxInFlight < 1) {
+            throw new IllegalArgumentException("rate, duration and max-in-flight must be positive, warmup not negative");
+        }
+        if (statsRatio < 0 || statsRatio > 1 || duplicateRatio < 0 || duplicateRatio >= 1) {
+            throw new IllegalArgumentException("stats-ratio must be in [0, 1] and duplicate-ratio in [0, 1)");
+        }
+    }
+
+    /**
+     * Accepts {@code 500ms}, {@code 30s}, {@code 2m} or an ISO-8601 duration.
+     */
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+
+    private void parseSizes(String value) {
+        List<int[]> entries = new ArrayList<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            int size = Integer.parseInt(parts[0].trim());
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (size < 1 || weight < 1) {
+                throw new IllegalArgumentException("Sizes and weights must be positive");
+            }
+            entries.add(new int[]{size, weight});
+        }
+        sizes = entries.stream().mapToInt(entry -> entry[0]).toArray();
+        sizeWeights = entries.stream().mapToInt(entry -> entry[1]).toArray();
+    }
+}
@@ -0,0 +1,146 @@
+package com.magneto.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * The requests of a run, built before it starts so the send loop only schedules and sends.
+ * Samples come from a replay file or are generated with a size mix and a duplicate ratio; repeated
+ * samples share one body.
+ */
+final class RequestPlan {
+
+    private static final String BASES = "ACGT";
+    private static final byte[] BODY_PREFIX = "{\"dna\":[".getBytes(StandardCharsets.US_ASCII);
+
+    enum Endpoint {
+        MUTANT("/mutant"),
+        STATS("/stats");
+
+        final String path;
+
+        Endpoint(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * @param body JSON body of a {@code POST /mutant}, null for {@code GET /stats}
+     */
+    record Request(Endpoint endpoint, byte[] body) {
+    }
+
+    private final List<Request> requests;
+    private final int uniqueSamples;
+
+    private RequestPlan(List<Request> requests, int uniqueSamples) {
+        this.requests = requests;
+        this.uniqueSamples = uniqueSamples;
+    }
+
+    List<Request> requests() {
+        return requests;
+    }
+
+    int uniqueSamples() {
+        return uniqueSamples;
+    }
+
+    /**
+     * Cycles through the {@code /mutant} bodies of a JSONL file. Lines without a {@code dna} field
+     * are skipped.
+     *
+     * @throws IllegalArgumentException if the file holds no such body
+     */
+    static RequestPlan replay(Path file, int count, LoadTestOptions options) throws IOException {
+        List<byte[]> bodies;
+        try (Stream<String> lines = Files.lines(file)) {
+            bodies = lines.map(String::trim)
+                    .filter(line -> line.startsWith("{") && line.contains("\"dna\""))
+                    .map(line -> line.getBytes(StandardCharsets.UTF_8))
+                    .toList();
+        }
+        if (bodies.isEmpty()) {
+            throw new IllegalArgumentException(file + " has no {\"dna\": [...]} lines to replay");
+        }
+
+        Random random = new Random(options.seed);
+        List<Request> requests = new ArrayList<>(count);
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            if (random.nextDouble() < options.statsRatio) {
+                requests.add(new Request(Endpoint.STATS, null));
+            } else {
+                requests.add(new Request(Endpoint.MUTANT, bodies.get(next++ % bodies.size())));
+            }
+        }
+        return new RequestPlan(requests, Math.min(next, bodies.size()));
+    }
+
+    /**
+     * Random NxN matrices with sizes drawn from the configured mix. A share of the samples,
+     * given by the duplicate ratio, repeats one sent before.
+     */
+    static RequestPlan generate(int count, LoadTestOptions options) {
+        Random random = new Random(options.seed);
+        int totalWeight = 0;
+        for (int weight : options.sizeWeights) {
+            totalWeight += weight;
+        }
+
+        List<byte[]> samples = new ArrayList<>();
+        List<Request> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (random.nextDouble() < options.statsRatio) {
+                requests.add(new Request(Endpoint.STATS, null));
+            } else if (!samples.isEmpty() && random.nextDouble() < options.duplicateRatio) {
+                requests.add(new Request(Endpoint.MUTANT, samples.get(random.nextInt(samples.size()))));
+            } else {
+                byte[] sample = matrix(pickSize(random, options, totalWeight), random);
+                samples.add(sample);
+                requests.add(new Request(Endpoint.MUTANT, sample));
+            }
+        }
+        return new RequestPlan(requests, samples.size());
+    }
+
+    private static int pickSize(Random random, LoadTestOptions options, int totalWeight) {
+        int target = random.nextInt(totalWeight);
+        for (int i = 0; i < options.sizes.length; i++) {
+            target -= options.sizeWeights[i];
+            if (target < 0) {
+                return options.sizes[i];
+            }
+        }
+        return options.sizes[options.sizes.length - 1];
+    }
+
+    /**
+     * {@code {"dna":["ACGT...",...]}} of a random NxN matrix, encoded directly as ASCII.
+     */
+    static byte[] matrix(int size, Random random) {
+        // Quoted rows, the commas between them and the closing ]}
+        byte[] body = new byte[BODY_PREFIX.length + size * (size + 2) + (size - 1) + 2];
+        System.arraycopy(BODY_PREFIX, 0, body, 0, BODY_PREFIX.length);
+        int position = BODY_PREFIX.length;
+        for (int row = 0; row < size; row++) {
+            if (row > 0) {
+                body[position++] = ',';
+            }
+            body[position++] = '"';
+            for (int column = 0; column < size; column++) {
+                body[position++] = (byte) BASES.charAt(random.nextInt(BASES.length()));
+            }
+            body[position++] = '"';
+        }
+        body[position++] = ']';
+        body[position++] = '}';
+        return body;
+    }
+}
@@ -0,0 +1,65 @@
+package com.magneto.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the load test command line options.
+ */
+class LoadTestOptionsTest {
+
+    @Test
+    @DisplayName("No arguments keep the documented defaults")
+    void testDefaults() {
+        LoadTestOptions options = LoadTestOptions.parse(new String[0]);
+
+        assertEquals("http://localhost:8080", options.target);
+        assertEquals(200, options.rate);
+        assertEquals(Duration.ofSeconds(30), options.duration);
+        assertEquals(Duration.ofSeconds(10), options.warmup);
+        assertArrayEquals(new int[]{6, 100, 1000}, options.sizes);
+        assertArrayEquals(new int[]{80, 15, 5}, options.sizeWeights);
+        assertNull(options.replay);
+    }
+
+    @Test
+    @DisplayName("Every option is parsed into its field")
+    void testParseAll() {
+        LoadTestOptions options = LoadTestOptions.parse(new String[]{
+                "--target=http://127.0.0.1:9090", "--jar=app.jar", "--rate=500", "--duration=2m",
+                "--warmup=500ms", "--stats-ratio=0.1", "--replay=samples.jsonl", "--duplicate-ratio=0.5",
+                "--sizes=6:9, 50", "--seed=7", "--max-in-flight=100", "--timeout=PT5S", "--histogram-dir=out"});
+
+        assertEquals("http://127.0.0.1:9090", options.target);
+        assertEquals(Path.of("app.jar"), options.jar);
+        assertEquals(500, options.rate);
+        assertEquals(Duration.ofMinutes(2), options.duration);
+        assertEquals(Duration.ofMillis(500), options.warmup);
+        assertEquals(0.1, options.statsRatio);
+        assertEquals(Path.of("samples.jsonl"), options.replay);
+        assertEquals(0.5, options.duplicateRatio);
+        assertArrayEquals(new int[]{6, 50}, options.sizes);
+        assertArrayEquals(new int[]{9, 1}, options.sizeWeights);
+        assertEquals(7, options.seed);
+        assertEquals(100, options.maxInFlight);
+        assertEquals(Duration.ofSeconds(5), options.timeout);
+        assertEquals(Path.of("out"), options.histogramDir);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "rate=5", "--rate", "--unknown=1", "--rate=fast", "--duration=10h", "--rate=0", "--duration=0s",
+            "--warmup=-PT1S", "--max-in-flight=0", "--stats-ratio=1.5", "--duplicate-ratio=1", "--sizes=0:1",
+            "--sizes=6:0", "--sizes=6:x"})
+    @DisplayName("Malformed, unknown or out of range options are rejected")
+    void testRejectInvalid(String arg) {
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse(new String[]{arg}));
+    }
+}
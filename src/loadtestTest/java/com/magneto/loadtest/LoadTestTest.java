@@ -0,0 +1,32 @@
+package com.magneto.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the target check of the load test.
+ */
+class LoadTestTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http://localhost:8080", "http://127.0.0.1:8080/", "http://[::1]:8080"})
+    @DisplayName("Loopback targets are accepted with a trailing slash")
+    void testAcceptsLoopback(String url) {
+        URI target = LoadTest.localTarget(url);
+
+        assertTrue(target.toString().endsWith("/"));
+        assertEquals(URI.create(url.endsWith("/") ? url : url + "/"), target);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"http://10.0.0.1:8080", "http://192.168.1.20", "http://invalid.invalid:8080", "file:/tmp/x"})
+    @DisplayName("Targets off the loopback interface are rejected")
+    void testRejectsNonLoopback(String url) {
+        assertThrows(IllegalArgumentException.class, () -> LoadTest.localTarget(url));
+    }
+}
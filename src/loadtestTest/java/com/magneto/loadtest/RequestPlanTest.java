@@ -0,0 +1,158 @@
+package com.magneto.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magneto.loadtest.RequestPlan.Endpoint;
+import com.magneto.loadtest.RequestPlan.Request;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for building the requests of a load test run.
+ */
+class RequestPlanTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 6, 100})
+    @DisplayName("A generated matrix fills its array exactly and parses as an NxN DNA body")
+    void testMatrixIsValidJson(int size) throws IOException {
+        byte[] body = RequestPlan.matrix(size, new Random(7));
+
+        assertEquals('}', body[body.length - 1], "the array must not have unused trailing bytes");
+        JsonNode dna = objectMapper.readTree(body).get("dna");
+        assertEquals(size, dna.size());
+        for (JsonNode row : dna) {
+            assertTrue(row.asText().matches("[ACGT]{" + size + "}"), row.asText());
+        }
+    }
+
+    @Test
+    @DisplayName("Replay skips lines without a dna field and cycles through the rest")
+    void testReplayFiltersAndCycles() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("samples.jsonl"), """
+                {"dna":["AAAA","CCCC","TTTT","GGGG"]}
+
+                # comment
+                {"other":1}
+                  {"dna":["ATGC","CAGT","TTAT","AGAC"]}
+                """);
+        LoadTestOptions options = options();
+        options.statsRatio = 0;
+
+        RequestPlan plan = RequestPlan.replay(file, 5, options);
+
+        List<String> bodies = plan.requests().stream()
+                .map(request -> new String(request.body(), StandardCharsets.UTF_8))
+                .toList();
+        assertEquals(List.of(
+                "{\"dna\":[\"AAAA\",\"CCCC\",\"TTTT\",\"GGGG\"]}",
+                "{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}",
+                "{\"dna\":[\"AAAA\",\"CCCC\",\"TTTT\",\"GGGG\"]}",
+                "{\"dna\":[\"ATGC\",\"CAGT\",\"TTAT\",\"AGAC\"]}",
+                "{\"dna\":[\"AAAA\",\"CCCC\",\"TTTT\",\"GGGG\"]}"), bodies);
+        assertEquals(2, plan.uniqueSamples());
+    }
+
+    @Test
+    @DisplayName("Replay rejects a file without any dna line")
+    void testReplayRejectsEmptyFile() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("empty.jsonl"), "{\"other\":1}\n\n");
+
+        assertThrows(IllegalArgumentException.class, () -> RequestPlan.replay(file, 10, options()));
+    }
+
+    @Test
+    @DisplayName("Replay sends the configured share of requests to /stats")
+    void testReplayStatsRatio() throws IOException {
+        Path file = Files.writeString(tempDir.resolve("samples.jsonl"), "{\"dna\":[\"A\"]}\n");
+        LoadTestOptions options = options();
+        options.statsRatio = 0.2;
+
+        RequestPlan plan = RequestPlan.replay(file, 10_000, options);
+
+        long stats = plan.requests().stream().filter(request -> request.endpoint() == Endpoint.STATS).count();
+        assertEquals(0.2, stats / 10_000.0, 0.02);
+        plan.requests().stream()
+                .filter(request -> request.endpoint() == Endpoint.STATS)
+                .forEach(request -> assertNull(request.body()));
+    }
+
+    @Test
+    @DisplayName("Generated sizes follow the configured weights")
+    void testGenerateSizeMix() throws IOException {
+        LoadTestOptions options = options();
+        options.statsRatio = 0;
+        options.duplicateRatio = 0;
+        options.sizes = new int[]{4, 8};
+        options.sizeWeights = new int[]{3, 1};
+
+        RequestPlan plan = RequestPlan.generate(4_000, options);
+
+        int small = 0;
+        for (Request request : plan.requests()) {
+            int size = objectMapper.readTree(request.body()).get("dna").size();
+            assertTrue(size == 4 || size == 8, "unexpected size " + size);
+            if (size == 4) {
+                small++;
+            }
+        }
+        assertEquals(0.75, small / 4_000.0, 0.03);
+        assertEquals(4_000, plan.uniqueSamples());
+    }
+
+    @Test
+    @DisplayName("About the duplicate ratio of generated samples repeat an earlier body")
+    void testGenerateDuplicateRatio() {
+        LoadTestOptions options = options();
+        options.statsRatio = 0;
+        options.duplicateRatio = 0.3;
+        options.sizes = new int[]{6};
+        options.sizeWeights = new int[]{1};
+
+        RequestPlan plan = RequestPlan.generate(10_000, options);
+
+        Set<byte[]> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        plan.requests().forEach(request -> distinct.add(request.body()));
+        assertEquals(plan.uniqueSamples(), distinct.size(), "repeated samples must share one body");
+        assertEquals(0.3, 1 - plan.uniqueSamples() / 10_000.0, 0.02);
+    }
+
+    @Test
+    @DisplayName("The same seed builds the same plan")
+    void testGenerateIsDeterministic() {
+        List<Request> first = RequestPlan.generate(200, options()).requests();
+        List<Request> second = RequestPlan.generate(200, options()).requests();
+
+        for (int i = 0; i < 200; i++) {
+            assertEquals(first.get(i).endpoint(), second.get(i).endpoint());
+            assertArrayEquals(first.get(i).body(), second.get(i).body());
+        }
+    }
+
+    private static LoadTestOptions options() {
+        LoadTestOptions options = new LoadTestOptions();
+        options.sizes = new int[]{4, 6};
+        options.sizeWeights = new int[]{1, 1};
+        return options;
+    }
+}
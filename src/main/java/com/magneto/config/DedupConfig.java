@@ -0,0 +1,19 @@
+package com.magneto.config;
+
+import com.magneto.service.DnaHashStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the deduplication settings and exposes the hash as a {@link DnaHashStrategy} bean.
+ */
+@Configuration
+@EnableConfigurationProperties(DedupProperties.class)
+public class DedupConfig {
+
+    @Bean
+    public DnaHashStrategy dnaHashStrategy(DedupProperties properties) {
+        return DnaHashStrategy.of(properties.getHashAlgorithm());
+    }
+}
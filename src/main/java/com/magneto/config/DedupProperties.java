@@ -0,0 +1,34 @@
+package com.magneto.config;
+
+import com.magneto.entity.DnaHashAlgorithm;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Deduplication settings ({@code mutant.dedup.*}).
+ */
+@ConfigurationProperties(prefix = "mutant.dedup")
+@Getter
+@Setter
+public class DedupProperties {
+
+    /**
+     * Hash identifying a sample: {@code sha-256}, or {@code murmur3-128}, faster but not
+     * collision-resistant against crafted input. Changing it on a populated store analyzes every
+     * sample once more under the new hash.
+     */
+    private DnaHashAlgorithm hashAlgorithm = DnaHashAlgorithm.SHA_256;
+
+    /**
+     * Use of the {@code X-Dna-Hash} header of {@code POST /mutant}: {@code trust} answers a known
+     * hash without reading the body, {@code verify} always reads and hashes the body. In both
+     * modes a body whose hash does not match the header is rejected.
+     */
+    private ClientHashMode clientHash = ClientHashMode.TRUST;
+
+    public enum ClientHashMode {
+        TRUST,
+        VERIFY
+    }
+}
@@ -0,0 +1,19 @@
+package com.magneto.config;
+
+import com.magneto.service.DetectionPolicy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the deployment-wide detection rule and exposes it as a {@link DetectionPolicy} bean.
+ */
+@Configuration
+@EnableConfigurationProperties(DetectionProperties.class)
+public class DetectionConfig {
+
+    @Bean
+    public DetectionPolicy detectionPolicy(DetectionProperties properties) {
+        return properties.toPolicy();
+    }
+}
@@ -0,0 +1,36 @@
+package com.magneto.config;
+
+import com.magneto.service.DetectionPolicy;
+import com.magneto.service.DetectionPolicy.Direction;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Deployment-wide detection rule ({@code mutant.detection.*}), used by every request that does
+ * not send its own policy. The defaults are {@link DetectionPolicy#DEFAULT}.
+ */
+@ConfigurationProperties(prefix = "mutant.detection")
+@Getter
+@Setter
+public class DetectionProperties {
+
+    /** Number of equal bases in a run. */
+    private int sequenceLength = DetectionPolicy.DEFAULT.getSequenceLength();
+
+    /** Number of runs from which a matrix is mutant. */
+    private int minSequences = DetectionPolicy.DEFAULT.getMinSequences();
+
+    /** Directions searched for runs. */
+    private Set<Direction> directions = EnumSet.allOf(Direction.class);
+
+    /** Whether runs sharing bases along a line are counted separately. */
+    private boolean overlapping = DetectionPolicy.DEFAULT.isOverlapping();
+
+    public DetectionPolicy toPolicy() {
+        return new DetectionPolicy(sequenceLength, minSequences, directions, overlapping);
+    }
+}
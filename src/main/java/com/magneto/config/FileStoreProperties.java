@@ -0,0 +1,25 @@
+package com.magneto.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of the embedded file verdict store ({@code mutant.persistence.file.*}),
+ * used when {@code mutant.persistence.store=file}.
+ */
+@ConfigurationProperties(prefix = "mutant.persistence.file")
+@Getter
+@Setter
+public class FileStoreProperties {
+
+    /** Directory holding the log segments and the index snapshot. */
+    private String directory = "./data/verdicts";
+
+    /** Size of each memory-mapped log segment. Fixed once the store holds data. */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /** Flush the mapped pages to disk after every insert call, before it returns. */
+    private boolean forceOnWrite = true;
+}
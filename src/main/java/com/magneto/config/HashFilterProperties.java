@@ -0,0 +1,23 @@
+package com.magneto.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the known-hash Bloom filter in front of the verdict store ({@code mutant.hash-filter.*}).
+ */
+@ConfigurationProperties(prefix = "mutant.hash-filter")
+@Getter
+@Setter
+public class HashFilterProperties {
+
+    /** Skip the store lookup of hashes the filter has never seen. */
+    private boolean enabled = true;
+
+    /** New hashes expected after startup; the filter starts sized for the stored hashes plus these and grows past them. */
+    private long expectedInsertions = 1_000_000;
+
+    /** Bound on the rate of unknown hashes that still go to the store. */
+    private double falsePositiveRate = 0.01;
+}
@@ -0,0 +1,12 @@
+package com.magneto.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Binds the persistence settings (write-behind queue, embedded file store, known hash filter).
+ */
+@Configuration
+@EnableConfigurationProperties({WriteBehindProperties.class, FileStoreProperties.class, HashFilterProperties.class})
+public class PersistenceConfig {
+}
@@ -0,0 +1,12 @@
+package com.magneto.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables scheduled background tasks (e.g. persisting the verification counters).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
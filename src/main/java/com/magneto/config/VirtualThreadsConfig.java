@@ -0,0 +1,30 @@
+package com.magneto.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Reports the thread model when the 'virtual' profile is active.
+ * Spring Boot silently falls back to platform threads below Java 21, so the mismatch is logged.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadsConfig {
+
+    static final int MIN_JAVA_VERSION = 21;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadModel() {
+        int javaVersion = Runtime.version().feature();
+        if (javaVersion < MIN_JAVA_VERSION) {
+            log.warn("spring.threads.virtual.enabled is set but the JVM is Java {}; requests run on platform threads. "
+                    + "Build and run with Java {} (-PjavaVersion={})", javaVersion, MIN_JAVA_VERSION, MIN_JAVA_VERSION);
+        } else {
+            log.info("Serving requests on virtual threads (Java {})", javaVersion);
+        }
+    }
+}
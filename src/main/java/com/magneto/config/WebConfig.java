@@ -0,0 +1,22 @@
+package com.magneto.config;
+
+import com.magneto.controller.DnaHashInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the interceptor that answers replays of {@code POST /mutant} by hash.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final DnaHashInterceptor dnaHashInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(dnaHashInterceptor).addPathPatterns("/mutant");
+    }
+}
@@ -0,0 +1,58 @@
+package com.magneto.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the write-behind persistence mode ({@code mutant.persistence.write-behind.*}).
+ */
+@ConfigurationProperties(prefix = "mutant.persistence.write-behind")
+@Getter
+@Setter
+public class WriteBehindProperties {
+
+    /**
+     * What a request does when the queue is full.
+     */
+    public enum BackpressurePolicy {
+        /** Wait until the writer frees space. */
+        BLOCK,
+        /** Insert the records synchronously on the request thread. */
+        CALLER_RUNS,
+        /**
+         * Skip persisting the records. The verdict is still returned, but evicted from the cache, so
+         * the sample is analyzed again next time.
+         */
+        DROP
+    }
+
+    /**
+     * When a request returns relative to the insert of its record.
+     */
+    public enum Durability {
+        /** Right after queueing: records still queued are lost if the process dies. */
+        ASYNC,
+        /** After the batch holding the record commits: durable, one commit shared by the batch. */
+        GROUP_COMMIT
+    }
+
+    /** Queue new records to a background writer instead of inserting them in the request. */
+    private boolean enabled = false;
+
+    /** Maximum number of distinct records waiting to be written. */
+    private int queueCapacity = 10000;
+
+    /** Maximum number of records per insert batch. */
+    private int batchSize = 500;
+
+    /** How long the writer waits for a batch to fill before writing a partial one. */
+    private long lingerMs = 20;
+
+    private BackpressurePolicy backpressure = BackpressurePolicy.BLOCK;
+
+    private Durability durability = Durability.ASYNC;
+
+    /** How long shutdown waits for the queue to drain. */
+    private long shutdownTimeoutMs = 10000;
+}
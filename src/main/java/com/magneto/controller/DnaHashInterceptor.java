@@ -0,0 +1,65 @@
+package com.magneto.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magneto.config.DedupProperties;
+import com.magneto.config.DedupProperties.ClientHashMode;
+import com.magneto.dto.DnaResponse;
+import com.magneto.entity.DnaHash;
+import com.magneto.service.MutantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Answers a {@code POST /mutant} carrying a known {@value MutantController#DNA_HASH_HEADER}
+ * before the body is read: the interceptor runs ahead of argument resolution, so a replay costs a
+ * cache lookup instead of parsing, validating and hashing the whole matrix.
+ * <p>
+ * Unknown hashes, and every request in {@code verify} mode, go on to the controller, which
+ * rejects a body whose hash does not match the header. In {@code trust} mode a client sending the
+ * hash of another sample gets that sample's verdict, the same answer {@code GET /mutant/{hash}}
+ * gives; nothing is stored from the header.
+ */
+@Component
+public class DnaHashInterceptor implements HandlerInterceptor {
+
+    private final MutantService mutantService;
+    private final ObjectMapper objectMapper;
+    private final boolean trustClientHash;
+
+    public DnaHashInterceptor(MutantService mutantService, ObjectMapper objectMapper, DedupProperties properties) {
+        this.mutantService = mutantService;
+        this.objectMapper = objectMapper;
+        this.trustClientHash = properties.getClientHash() == ClientHashMode.TRUST;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        String claimedHash = request.getHeader(MutantController.DNA_HASH_HEADER);
+        if (!trustClientHash || claimedHash == null || !HttpMethod.POST.matches(request.getMethod())) {
+            return true;
+        }
+
+        DnaHash dnaHash = MutantController.parseHash(claimedHash, MutantController.DNA_HASH_HEADER);
+        Optional<Boolean> verdict = mutantService.replayVerdict(dnaHash);
+        if (verdict.isEmpty()) {
+            return true;
+        }
+
+        boolean isMutant = verdict.get();
+        response.setStatus(isMutant ? HttpStatus.OK.value() : HttpStatus.FORBIDDEN.value());
+        response.setHeader(MutantController.DNA_HASH_HEADER, dnaHash.toHex());
+        response.setHeader(HttpHeaders.ETAG, MutantController.etag(dnaHash));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), DnaResponse.of(isMutant));
+        return false;
+    }
+}
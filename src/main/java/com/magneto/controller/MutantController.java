@@ -1,9 +1,22 @@
 package com.magneto.controller;
 
+import com.magneto.dto.BatchDnaRequest;
+import com.magneto.dto.BatchDnaResponse;
+import com.magneto.dto.BatchItemResult;
+import com.magneto.dto.CacheStatsResponse;
 import com.magneto.dto.DnaRequest;
 import com.magneto.dto.DnaResponse;
 import com.magneto.dto.StatsResponse;
+import com.magneto.dto.StatsSeriesResponse;
+import com.magneto.entity.DnaHash;
+import com.magneto.exception.InvalidDnaException;
+import com.magneto.service.DetectionPolicy;
+import com.magneto.service.DnaMatchService;
+import com.magneto.service.DnaPreprocessor;
+import com.magneto.service.DnaStreamService;
 import com.magneto.service.MutantService;
+import com.magneto.service.PackedDna;
+import com.magneto.service.PreparedDna;
 import com.magneto.service.StatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,12 +24,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for mutant detection and statistics endpoints.
@@ -27,13 +50,22 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Mutant Detection API", description = "Endpoints for DNA analysis and statistics")
 public class MutantController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
+    /** Hash of a sample, returned by POST /mutant and accepted back to skip sending it again. */
+    public static final String DNA_HASH_HEADER = "X-Dna-Hash";
+
+    private final DnaPreprocessor dnaPreprocessor;
     private final MutantService mutantService;
     private final StatsService statsService;
+    private final DnaStreamService dnaStreamService;
+    private final DnaMatchService dnaMatchService;
 
     @PostMapping("/mutant")
     @Operation(
         summary = "Detect if DNA belongs to a mutant",
-        description = "Analyzes a DNA sequence to determine if it belongs to a mutant. " +
+        description = "Analyzes a DNA sequence to determine if it belongs to a mutant, under the deployment " +
+                      "detection rule or the policy sent with the request. " +
                       "Returns 200 OK for mutants, 403 Forbidden for humans."
     )
     @ApiResponses(value = {
@@ -52,18 +84,176 @@ public class MutantController {
             description = "Invalid DNA sequence format"
         )
     })
-    public ResponseEntity<DnaResponse> detectMutant(@Valid @RequestBody DnaRequest dnaRequest) {
+    public ResponseEntity<DnaResponse> detectMutant(
+            @Valid @RequestBody DnaRequest dnaRequest,
+            @RequestHeader(name = DNA_HASH_HEADER, required = false) String claimedHash) {
         log.info("Received mutant detection request");
 
-        boolean isMutant = mutantService.analyzeDna(dnaRequest.getDna());
+        DetectionPolicy policy = dnaPreprocessor.resolvePolicy(dnaRequest.getPolicy(), "policy");
+        PreparedDna dna = dnaPreprocessor.prepare(dnaRequest.getDna(), "dna", policy);
+        checkClaimedHash(claimedHash, dna);
+        return verdictResponse(dna.getDnaHash(), mutantService.analyzeDna(dna));
+    }
+
+    @PostMapping(value = "/mutant", consumes = PackedDnaHttpMessageConverter.MEDIA_TYPE_VALUE)
+    @Operation(
+        summary = "Detect if packed DNA belongs to a mutant",
+        description = "Same as the JSON form, for a body in the binary " + PackedDnaHttpMessageConverter.MEDIA_TYPE_VALUE +
+                      " format: the matrix size N as a 4-byte big-endian integer, then N rows of ceil(N/4) bytes " +
+                      "with four 2-bit bases each (A=0, C=1, G=2, T=3, first base in the lowest bits). " +
+                      "Analyzed under the deployment detection rule. " +
+                      "Returns 200 OK for mutants, 403 Forbidden for humans."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "DNA belongs to a mutant",
+            content = @Content(schema = @Schema(implementation = DnaResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "DNA belongs to a human",
+            content = @Content(schema = @Schema(implementation = DnaResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Malformed packed DNA"
+        )
+    })
+    public ResponseEntity<DnaResponse> detectMutantPacked(
+            @RequestBody PackedDna packedDna,
+            @RequestHeader(name = DNA_HASH_HEADER, required = false) String claimedHash) {
+        log.info("Received packed mutant detection request");
+
+        PreparedDna dna = dnaPreprocessor.prepare(packedDna, dnaPreprocessor.getDefaultPolicy());
+        checkClaimedHash(claimedHash, dna);
+        return verdictResponse(dna.getDnaHash(), mutantService.analyzeDna(dna));
+    }
+
+    @GetMapping("/mutant/{hash}")
+    @Operation(
+        summary = "Get the verdict of an analyzed DNA sample by its hash",
+        description = "Looks up the verdict of a sample analyzed before, by the hash returned in the " +
+                      DNA_HASH_HEADER + " header of POST /mutant. Nothing is analyzed or counted. " +
+                      "A stored verdict never changes, so the response carries the hash as ETag and a " +
+                      "request with a matching If-None-Match gets 304 Not Modified once the verdict is found."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "DNA belongs to a mutant",
+            content = @Content(schema = @Schema(implementation = DnaResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "DNA belongs to a human",
+            content = @Content(schema = @Schema(implementation = DnaResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Verdict already held by the client"
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Hash never analyzed"
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Malformed hash"
+        )
+    })
+    public ResponseEntity<DnaResponse> getVerdict(
+            @PathVariable String hash,
+            WebRequest webRequest) {
+        DnaHash dnaHash = parseHash(hash, "hash");
+        // Looked up first: a hash the client still holds may have been lost since, and gets a 404
+        Optional<Boolean> verdict = mutantService.findVerdict(dnaHash);
+        if (verdict.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (webRequest.checkNotModified(etag(dnaHash))) {
+            return null;
+        }
+        return verdictResponse(dnaHash, verdict.get());
+    }
+
+    @PostMapping("/mutant/batch")
+    @Operation(
+        summary = "Detect mutants in a batch of DNA sequences",
+        description = "Analyzes up to " + BatchDnaRequest.MAX_SAMPLES + " DNA sequences in one request. " +
+                      "Returns 200 OK with one verdict per sample, in request order."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Batch analyzed",
+            content = @Content(schema = @Schema(implementation = BatchDnaResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid DNA sequence format in one or more samples"
+        )
+    })
+    public ResponseEntity<BatchDnaResponse> detectMutantBatch(@Valid @RequestBody BatchDnaRequest batchRequest) {
+        log.info("Received batch mutant detection request with {} samples", batchRequest.getSamples().size());
+
+        List<DnaRequest> requests = batchRequest.getSamples();
+        DetectionPolicy batchPolicy = dnaPreprocessor.resolvePolicy(batchRequest.getPolicy(), "policy");
+        List<PreparedDna> samples = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            DnaRequest request = requests.get(i);
+            DetectionPolicy policy = request.getPolicy() != null
+                    ? dnaPreprocessor.resolvePolicy(request.getPolicy(), "samples[" + i + "].policy")
+                    : batchPolicy;
+            samples.add(dnaPreprocessor.prepare(request.getDna(), "samples[" + i + "].dna", policy));
+        }
+        boolean[] verdicts = mutantService.analyzeBatch(samples);
 
-        if (isMutant) {
-            DnaResponse response = new DnaResponse(true, "Mutant DNA detected successfully");
-            return ResponseEntity.ok(response);
-        } else {
-            DnaResponse response = new DnaResponse(false, "Human DNA detected");
-            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        List<BatchItemResult> results = new ArrayList<>(verdicts.length);
+        long mutantCount = 0;
+        for (int i = 0; i < verdicts.length; i++) {
+            results.add(new BatchItemResult(i, verdicts[i]));
+            if (verdicts[i]) {
+                mutantCount++;
+            }
         }
+
+        return ResponseEntity.ok(new BatchDnaResponse(results, mutantCount, verdicts.length - mutantCount));
+    }
+
+    @PostMapping(value = "/mutant/stream", consumes = NDJSON)
+    @Operation(
+        summary = "Detect mutants from a stream of DNA sequences",
+        description = "Reads newline-delimited JSON records ({\"dna\": [...]}) incrementally and streams back " +
+                      "one NDJSON line per record with its verdict or validation error."
+    )
+    @ApiResponse(responseCode = "200", description = "Stream processed")
+    public void detectMutantStream(InputStream body, HttpServletResponse response) throws IOException {
+        log.info("Received streaming mutant detection request");
+
+        response.setContentType(NDJSON);
+        dnaStreamService.process(body, response.getOutputStream());
+    }
+
+    @PostMapping("/mutant/matches")
+    @Operation(
+        summary = "List every matching run of a DNA sequence",
+        description = "Streams back one NDJSON line per run counted by the detection policy, with its start " +
+                      "row and column, direction, base and length, then a summary line with the match count " +
+                      "and the verdict. The verdict is not stored."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Matches streamed"),
+        @ApiResponse(responseCode = "400", description = "Invalid DNA sequence format or detection policy")
+    })
+    public void findMatches(@Valid @RequestBody DnaRequest dnaRequest, HttpServletResponse response) throws IOException {
+        log.info("Received match report request");
+
+        DetectionPolicy policy = dnaPreprocessor.resolvePolicy(dnaRequest.getPolicy(), "policy");
+        PreparedDna dna = dnaPreprocessor.prepare(dnaRequest.getDna(), "dna", policy);
+
+        response.setContentType(NDJSON);
+        dnaMatchService.writeMatches(dna, response.getOutputStream());
     }
 
     @GetMapping("/stats")
@@ -86,10 +276,88 @@ public class MutantController {
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping(value = "/stats", params = "from")
+    @Operation(
+        summary = "Get DNA verification statistics over a time range",
+        description = "Returns mutant and human counts and ratios per minute, hour or day bucket of the range " +
+                      "[from, to), read from pre-aggregated rollups. Empty buckets are included."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Statistics retrieved successfully",
+            content = @Content(schema = @Schema(implementation = StatsSeriesResponse.class))
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid range or granularity"
+        )
+    })
+    public ResponseEntity<StatsSeriesResponse> getStatisticsSeries(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "hour") String granularity) {
+        log.info("Received ranged statistics request");
+
+        StatsSeriesResponse stats = statsService.getVerificationStats(
+                granularity, from, to != null ? to : LocalDateTime.now());
+
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/stats/cache")
+    @Operation(
+        summary = "Get verdict cache statistics",
+        description = "Returns hit, miss and eviction counters of the in-memory verdict cache"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Cache statistics retrieved successfully",
+            content = @Content(schema = @Schema(implementation = CacheStatsResponse.class))
+        )
+    })
+    public ResponseEntity<CacheStatsResponse> getCacheStatistics() {
+        return ResponseEntity.ok(statsService.getCacheStats());
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check endpoint", description = "Checks if the service is running")
     @ApiResponse(responseCode = "200", description = "Service is healthy")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Mutant Detection API is running");
     }
+
+    /**
+     * @param field request part reported on errors
+     * @throws InvalidDnaException if the value is not 64 hexadecimal characters
+     */
+    static DnaHash parseHash(String hex, String field) {
+        try {
+            return DnaHash.fromHex(hex);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDnaException(field, "DNA hash must be " + DnaHash.BYTES * 2 + " hexadecimal characters");
+        }
+    }
+
+    /**
+     * Rejects a body whose hash is not the one the client sent with it, so a client computing
+     * hashes wrongly finds out instead of getting verdicts of other samples on later replays.
+     */
+    private static void checkClaimedHash(String claimedHash, PreparedDna dna) {
+        if (claimedHash != null && !parseHash(claimedHash, DNA_HASH_HEADER).equals(dna.getDnaHash())) {
+            throw new InvalidDnaException(DNA_HASH_HEADER, "Does not match the body, whose hash is " + dna.getDnaHash().toHex());
+        }
+    }
+
+    static String etag(DnaHash dnaHash) {
+        return "\"" + dnaHash.toHex() + "\"";
+    }
+
+    private static ResponseEntity<DnaResponse> verdictResponse(DnaHash dnaHash, boolean isMutant) {
+        return ResponseEntity.status(isMutant ? HttpStatus.OK : HttpStatus.FORBIDDEN)
+                .header(DNA_HASH_HEADER, dnaHash.toHex())
+                .eTag(etag(dnaHash))
+                .body(DnaResponse.of(isMutant));
+    }
 }
@@ -0,0 +1,139 @@
+package com.magneto.controller;
+
+import com.magneto.exception.InvalidDnaException;
+import com.magneto.service.PackedDna;
+import com.magneto.validation.DnaSequenceChecks;
+import com.magneto.validation.DnaValidationMessages;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Reads and writes {@link PackedDna} as {@value #MEDIA_TYPE_VALUE}, a quarter of the size of the
+ * JSON form, decoded straight into the packed words with no intermediate strings.
+ * <p>
+ * Format: the matrix size N as a 4-byte big-endian integer, then N rows of {@code ceil(N / 4)}
+ * bytes. Each byte holds four bases of 2 bits (A=0, C=1, G=2, T=3), the first base in the lowest
+ * bits, so a row is the little-endian layout of its {@link PackedDna} words. The unused bits of
+ * the last byte of a row must be zero.
+ */
+@Component
+public class PackedDnaHttpMessageConverter extends AbstractHttpMessageConverter<PackedDna> {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-dna-packed";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    /** Largest matrix size accepted, the same as for JSON requests. */
+    public static final int MAX_SIZE = DnaSequenceChecks.MAX_SIZE;
+
+    private static final int BASES_PER_BYTE = 4;
+    private static final VarHandle LITTLE_ENDIAN_LONG =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final String FIELD = "dna";
+
+    // Words allocated before any row is read; the array grows with the rows actually received
+    private static final int INITIAL_WORDS = 1 << 16;
+
+    public PackedDnaHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    /**
+     * @return bytes of a matrix of the given size in this format, header included
+     */
+    public static long encodedLength(int size) {
+        return Integer.BYTES + (long) size * rowBytes(size);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PackedDna.class == clazz;
+    }
+
+    @Override
+    protected PackedDna readInternal(Class<? extends PackedDna> clazz, HttpInputMessage inputMessage) throws IOException {
+        InputStream in = inputMessage.getBody();
+
+        byte[] header = in.readNBytes(Integer.BYTES);
+        if (header.length < Integer.BYTES) {
+            throw new InvalidDnaException(FIELD, "Packed DNA must start with the 4-byte matrix size");
+        }
+        int n = (header[0] & 0xff) << 24 | (header[1] & 0xff) << 16 | (header[2] & 0xff) << 8 | (header[3] & 0xff);
+        if (n < 1 || n > MAX_SIZE) {
+            throw new InvalidDnaException(FIELD, DnaValidationMessages.sizeOutOfRange(MAX_SIZE, n));
+        }
+        long contentLength = inputMessage.getHeaders().getContentLength();
+        if (contentLength >= 0 && contentLength != encodedLength(n)) {
+            throw new InvalidDnaException(FIELD, "Packed DNA of size " + n + " must be " + encodedLength(n)
+                    + " bytes, found " + contentLength);
+        }
+
+        int rowBytes = rowBytes(n);
+        int wordsPerRow = PackedDna.wordsFor(n);
+        int totalWords = n * wordsPerRow;
+        long[] words = new long[Math.min(totalWords, INITIAL_WORDS)];
+        // Whole words, so the tail of a row is read as zero padding
+        byte[] row = new byte[wordsPerRow * Long.BYTES];
+        int paddingShift = (n % BASES_PER_BYTE) * 2;
+
+        for (int r = 0; r < n; r++) {
+            if (in.readNBytes(row, 0, rowBytes) < rowBytes) {
+                throw new InvalidDnaException(FIELD, "Packed DNA is truncated at row " + r + " of " + n);
+            }
+            if (paddingShift != 0 && (row[rowBytes - 1] & 0xff) >>> paddingShift != 0) {
+                throw new InvalidDnaException(FIELD, "Packed DNA row " + r + " has bits set past column " + (n - 1));
+            }
+
+            int rowOffset = r * wordsPerRow;
+            if (rowOffset + wordsPerRow > words.length) {
+                words = Arrays.copyOf(words, (int) Math.min(totalWords, 2L * words.length + wordsPerRow));
+            }
+            for (int w = 0; w < wordsPerRow; w++) {
+                words[rowOffset + w] = (long) LITTLE_ENDIAN_LONG.get(row, w * Long.BYTES);
+            }
+        }
+        if (in.read() != -1) {
+            throw new InvalidDnaException(FIELD, "Packed DNA has bytes past row " + (n - 1));
+        }
+
+        return new PackedDna(n, words.length == totalWords ? words : Arrays.copyOf(words, totalWords));
+    }
+
+    @Override
+    protected void writeInternal(PackedDna packedDna, HttpOutputMessage outputMessage) throws IOException {
+        int n = packedDna.getSize();
+        int rowBytes = rowBytes(n);
+        int wordsPerRow = packedDna.getWordsPerRow();
+        long[] words = packedDna.getWords();
+        byte[] row = new byte[wordsPerRow * Long.BYTES];
+
+        DataOutputStream out = new DataOutputStream(outputMessage.getBody());
+        out.writeInt(n);
+        for (int r = 0; r < n; r++) {
+            for (int w = 0; w < wordsPerRow; w++) {
+                LITTLE_ENDIAN_LONG.set(row, w * Long.BYTES, words[r * wordsPerRow + w]);
+            }
+            out.write(row, 0, rowBytes);
+        }
+        out.flush();
+    }
+
+    @Override
+    protected Long getContentLength(PackedDna packedDna, MediaType contentType) {
+        return encodedLength(packedDna.getSize());
+    }
+
+    private static int rowBytes(int size) {
+        return (size + BASES_PER_BYTE - 1) / BASES_PER_BYTE;
+    }
+}
@@ -0,0 +1,37 @@
+package com.magneto.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for verifying many DNA sequences in a single request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Batch of DNA sequences for mutant verification")
+public class BatchDnaRequest {
+
+    public static final int MAX_SAMPLES = 10000;
+
+    @NotEmpty(message = "Batch cannot be empty")
+    @Size(max = MAX_SAMPLES, message = "Batch cannot contain more than " + MAX_SAMPLES + " samples")
+    @Valid
+    @Schema(description = "DNA samples to verify, each one an NxN matrix", required = true)
+    private List<DnaRequest> samples;
+
+    @Valid
+    @Schema(description = "Detection rule for samples that do not send their own; the deployment default when omitted")
+    private DetectionPolicyRequest policy;
+
+    public BatchDnaRequest(List<DnaRequest> samples) {
+        this.samples = samples;
+    }
+}
@@ -0,0 +1,31 @@
+package com.magneto.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for batch DNA verification response.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Per-sample verdicts of a batch verification")
+public class BatchDnaResponse {
+
+    @JsonProperty("results")
+    @Schema(description = "Verdicts in the same order as the submitted samples")
+    private List<BatchItemResult> results;
+
+    @JsonProperty("count_mutant_dna")
+    @Schema(description = "Number of samples in the batch detected as mutant", example = "3")
+    private long countMutantDna;
+
+    @JsonProperty("count_human_dna")
+    @Schema(description = "Number of samples in the batch detected as human", example = "7")
+    private long countHumanDna;
+}
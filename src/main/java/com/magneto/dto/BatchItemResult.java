@@ -0,0 +1,22 @@
+package com.magneto.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Verdict of a single sample within a batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Verdict of one sample of a batch")
+public class BatchItemResult {
+
+    @Schema(description = "Position of the sample in the request", example = "0")
+    private int index;
+
+    @Schema(description = "Indicates if the DNA belongs to a mutant", example = "true")
+    private boolean isMutant;
+}
@@ -0,0 +1,37 @@
+package com.magneto.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for verdict cache statistics.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Statistics of the in-memory verdict cache")
+public class CacheStatsResponse {
+
+    @JsonProperty("hit_count")
+    @Schema(description = "Lookups answered by the cache", example = "600")
+    private long hitCount;
+
+    @JsonProperty("miss_count")
+    @Schema(description = "Lookups that went to the database", example = "400")
+    private long missCount;
+
+    @JsonProperty("eviction_count")
+    @Schema(description = "Entries evicted because the cache was full", example = "0")
+    private long evictionCount;
+
+    @JsonProperty("hit_rate")
+    @Schema(description = "Ratio of hits to total lookups", example = "0.6")
+    private double hitRate;
+
+    @JsonProperty("size")
+    @Schema(description = "Approximate number of cached verdicts", example = "400")
+    private long size;
+}
@@ -0,0 +1,46 @@
+package com.magneto.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.magneto.service.DetectionPolicy;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a detection rule sent with a request. Omitted fields keep the deployment default.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Detection rule overriding the deployment default; omitted fields keep the default")
+public class DetectionPolicyRequest {
+
+    @JsonProperty("sequence_length")
+    @Min(value = DetectionPolicy.MIN_SEQUENCE_LENGTH,
+         message = "Sequence length must be at least " + DetectionPolicy.MIN_SEQUENCE_LENGTH)
+    @Max(value = DetectionPolicy.MAX_SEQUENCE_LENGTH,
+         message = "Sequence length must be at most " + DetectionPolicy.MAX_SEQUENCE_LENGTH)
+    @Schema(description = "Number of equal bases in a run", example = "4")
+    private Integer sequenceLength;
+
+    @JsonProperty("min_sequences")
+    @Min(value = 1, message = "Minimum sequence count must be at least 1")
+    @Schema(description = "Number of runs from which the DNA is mutant", example = "2")
+    private Integer minSequences;
+
+    @JsonProperty("directions")
+    @Size(min = 1, message = "At least one direction must be enabled")
+    @Schema(description = "Directions searched for runs: horizontal, vertical, diagonal, anti-diagonal",
+            example = "[\"horizontal\",\"vertical\"]")
+    private List<String> directions;
+
+    @JsonProperty("overlapping")
+    @Schema(description = "Whether runs sharing bases along a line are counted separately", example = "true")
+    private Boolean overlapping;
+}
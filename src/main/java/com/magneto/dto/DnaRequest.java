@@ -1,7 +1,7 @@
 package com.magneto.dto;
 
-import com.magneto.validation.ValidDnaSequence;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -10,6 +10,8 @@ import lombok.NoArgsConstructor;
 
 /**
  * DTO for DNA sequence verification request.
+ * The matrix contents (NxN, A/T/C/G) are validated by {@link com.magneto.service.DnaPreprocessor}
+ * in the same pass that packs and hashes them.
  */
 @Data
 @NoArgsConstructor
@@ -19,11 +21,18 @@ public class DnaRequest {
 
     @NotNull(message = "DNA sequence cannot be null")
     @NotEmpty(message = "DNA sequence cannot be empty")
-    @ValidDnaSequence
     @Schema(
         description = "Array of DNA sequences representing NxN matrix",
         example = "[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]",
         required = true
     )
     private String[] dna;
+
+    @Valid
+    @Schema(description = "Detection rule for this sample; the deployment default when omitted")
+    private DetectionPolicyRequest policy;
+
+    public DnaRequest(String[] dna) {
+        this.dna = dna;
+    }
 }
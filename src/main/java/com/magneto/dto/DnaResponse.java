@@ -19,4 +19,10 @@ public class DnaResponse {
 
     @Schema(description = "Additional message about the verification", example = "Mutant DNA detected successfully")
     private String message;
+
+    public static DnaResponse of(boolean isMutant) {
+        return isMutant
+                ? new DnaResponse(true, "Mutant DNA detected successfully")
+                : new DnaResponse(false, "Human DNA detected");
+    }
 }
@@ -0,0 +1,35 @@
+package com.magneto.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the verification counts of one time bucket.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Verification counts of one time bucket")
+public class StatsBucket {
+
+    @JsonProperty("bucket_start")
+    @Schema(description = "Start of the bucket", example = "2024-05-01T10:00:00")
+    private LocalDateTime bucketStart;
+
+    @JsonProperty("count_mutant_dna")
+    @Schema(description = "Mutant DNA sequences verified in the bucket", example = "4")
+    private long countMutantDna;
+
+    @JsonProperty("count_human_dna")
+    @Schema(description = "Human DNA sequences verified in the bucket", example = "10")
+    private long countHumanDna;
+
+    @JsonProperty("ratio")
+    @Schema(description = "Ratio of mutant DNA to human DNA in the bucket", example = "0.4")
+    private double ratio;
+}
@@ -0,0 +1,48 @@
+package com.magneto.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for DNA verification statistics over a time range, split in buckets.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Statistics of DNA verifications over a time range")
+public class StatsSeriesResponse {
+
+    @JsonProperty("granularity")
+    @Schema(description = "Bucket width", example = "hour", allowableValues = {"minute", "hour", "day"})
+    private String granularity;
+
+    @JsonProperty("from")
+    @Schema(description = "Start of the range, inclusive", example = "2024-05-01T00:00:00")
+    private LocalDateTime from;
+
+    @JsonProperty("to")
+    @Schema(description = "End of the range, exclusive", example = "2024-05-02T00:00:00")
+    private LocalDateTime to;
+
+    @JsonProperty("count_mutant_dna")
+    @Schema(description = "Mutant DNA sequences verified in the range", example = "40")
+    private long countMutantDna;
+
+    @JsonProperty("count_human_dna")
+    @Schema(description = "Human DNA sequences verified in the range", example = "100")
+    private long countHumanDna;
+
+    @JsonProperty("ratio")
+    @Schema(description = "Ratio of mutant DNA to human DNA in the range", example = "0.4")
+    private double ratio;
+
+    @JsonProperty("buckets")
+    @Schema(description = "One entry per bucket of the range, empty buckets included")
+    private List<StatsBucket> buckets;
+}
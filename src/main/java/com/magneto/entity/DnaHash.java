@@ -0,0 +1,126 @@
+package com.magneto.entity;
+
+import java.util.HexFormat;
+
+/**
+ * Deduplication key of a DNA sample, held as four longs instead of a 64-char hex string.
+ * <p>
+ * Stored as a 32-byte binary column through {@link DnaHashConverter}. {@link #equals(Object)}
+ * compares the four words and {@link #hashCode()} folds the first one: every
+ * {@link DnaHashAlgorithm} fills the first words with uniformly distributed output, so any
+ * 32 bits of it are as good as a full hash.
+ */
+public final class DnaHash {
+
+    public static final int BYTES = 32;
+
+    private final long h0;
+    private final long h1;
+    private final long h2;
+    private final long h3;
+
+    private DnaHash(long h0, long h1, long h2, long h3) {
+        this.h0 = h0;
+        this.h1 = h1;
+        this.h2 = h2;
+        this.h3 = h3;
+    }
+
+    /**
+     * @param digest 32-byte hash, read big-endian
+     */
+    public static DnaHash of(byte[] digest) {
+        if (digest == null || digest.length != BYTES) {
+            throw new IllegalArgumentException("DNA hash must be " + BYTES + " bytes");
+        }
+        return new DnaHash(word(digest, 0), word(digest, 8), word(digest, 16), word(digest, 24));
+    }
+
+    /**
+     * @param h0 first word, the most significant 8 bytes of {@link #toBytes()}
+     */
+    public static DnaHash of(long h0, long h1, long h2, long h3) {
+        return new DnaHash(h0, h1, h2, h3);
+    }
+
+    /**
+     * @param hex 64 hexadecimal characters, as stored before the binary column
+     */
+    public static DnaHash fromHex(String hex) {
+        if (hex == null || hex.length() != BYTES * 2) {
+            throw new IllegalArgumentException("DNA hash must be " + BYTES * 2 + " hex characters");
+        }
+        return of(HexFormat.of().parseHex(hex));
+    }
+
+    /**
+     * First 64 bits of the hash, used as a fingerprint by tables keyed by it.
+     */
+    public long prefix() {
+        return h0;
+    }
+
+    /**
+     * One of the four 64-bit words of the hash, for structures that need several independent hashes.
+     *
+     * @param index word index, 0 to 3; word 0 is {@link #prefix()}
+     */
+    public long word(int index) {
+        return switch (index) {
+            case 0 -> h0;
+            case 1 -> h1;
+            case 2 -> h2;
+            case 3 -> h3;
+            default -> throw new IndexOutOfBoundsException(index);
+        };
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[BYTES];
+        putWord(bytes, 0, h0);
+        putWord(bytes, 8, h1);
+        putWord(bytes, 16, h2);
+        putWord(bytes, 24, h3);
+        return bytes;
+    }
+
+    public String toHex() {
+        return HexFormat.of().formatHex(toBytes());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof DnaHash other)) {
+            return false;
+        }
+        return h0 == other.h0 && h1 == other.h1 && h2 == other.h2 && h3 == other.h3;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (h0 ^ (h0 >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+
+    private static long word(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xffL);
+        }
+        return value;
+    }
+
+    private static void putWord(byte[] bytes, int offset, long value) {
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+}
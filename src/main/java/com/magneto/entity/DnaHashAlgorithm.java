@@ -0,0 +1,38 @@
+package com.magneto.entity;
+
+/**
+ * Function that produced a {@link DnaHash}, stored with each verdict.
+ * <p>
+ * Hashes of different algorithms never match, so switching the deployment algorithm starts
+ * deduplication over: samples stored under the old one are detected and stored again once.
+ */
+public enum DnaHashAlgorithm {
+
+    /** SHA-256 over the UTF-8 bytes of the joined rows, the original key. */
+    SHA_256(0),
+
+    /** 128-bit MurmurHash3 (x64) over the packed 2-bit bases; the last 16 bytes of the key are zero. */
+    MURMUR3_128(1);
+
+    private final int code;
+
+    DnaHashAlgorithm(int code) {
+        this.code = code;
+    }
+
+    /**
+     * @return compact code used by binary formats, 0 for {@link #SHA_256}
+     */
+    public int code() {
+        return code;
+    }
+
+    public static DnaHashAlgorithm fromCode(int code) {
+        for (DnaHashAlgorithm algorithm : values()) {
+            if (algorithm.code == code) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown DNA hash algorithm code: " + code);
+    }
+}
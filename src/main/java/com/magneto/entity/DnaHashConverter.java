@@ -0,0 +1,21 @@
+package com.magneto.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps {@link DnaHash} to its 32-byte binary column.
+ */
+@Converter(autoApply = true)
+public class DnaHashConverter implements AttributeConverter<DnaHash, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(DnaHash dnaHash) {
+        return dnaHash != null ? dnaHash.toBytes() : null;
+    }
+
+    @Override
+    public DnaHash convertToEntityAttribute(byte[] bytes) {
+        return bytes != null ? DnaHash.of(bytes) : null;
+    }
+}
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 
 /**
  * Entity representing a DNA verification record in the database.
- * Uses SHA-256 hash for deduplication strategy.
+ * Uses a content hash for deduplication, stored as a 32-byte binary key with the algorithm that
+ * produced it.
  */
 @Entity
 @Table(name = "dna_verifications")
@@ -24,8 +25,12 @@ public class DnaRecord {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "dna_hash", unique = true, nullable = false, length = 64)
-    private String dnaHash;
+    @Column(name = "dna_hash", unique = true, nullable = false, length = DnaHash.BYTES)
+    private DnaHash dnaHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "hash_algorithm", nullable = false, length = 16)
+    private DnaHashAlgorithm hashAlgorithm = DnaHashAlgorithm.SHA_256;
 
     @Column(name = "is_mutant", nullable = false)
     private Boolean isMutant;
@@ -33,6 +38,18 @@ public class DnaRecord {
     @Column(name = "verified_at", nullable = false)
     private LocalDateTime verifiedAt;
 
+    /**
+     * A new record, verified now.
+     */
+    public static DnaRecord of(DnaHash dnaHash, DnaHashAlgorithm hashAlgorithm, boolean isMutant) {
+        DnaRecord record = new DnaRecord();
+        record.setDnaHash(dnaHash);
+        record.setHashAlgorithm(hashAlgorithm);
+        record.setIsMutant(isMutant);
+        record.setVerifiedAt(LocalDateTime.now());
+        return record;
+    }
+
     @PrePersist
     protected void onCreate() {
         if (verifiedAt == null) {
@@ -0,0 +1,51 @@
+package com.magneto.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Verification counts of one time bucket, pre-aggregated per granularity so that ranged stats
+ * never scan dna_verifications. Maintained incrementally by {@code StatsRollup}.
+ */
+@Entity
+@Table(name = "dna_stats_rollup")
+@IdClass(DnaStatsRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DnaStatsRollup {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "granularity", nullable = false, length = 8)
+    private StatsGranularity granularity;
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "mutant_count", nullable = false)
+    private Long mutantCount;
+
+    @Column(name = "human_count", nullable = false)
+    private Long humanCount;
+
+    /**
+     * Composite primary key: granularity and bucket start.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private StatsGranularity granularity;
+        private LocalDateTime bucketStart;
+    }
+}
@@ -0,0 +1,37 @@
+package com.magneto.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single-row summary of verification counts, periodically persisted from the in-memory counters.
+ * Written with {@code cleanShutdown} set only on shutdown, once every record has been counted.
+ */
+@Entity
+@Table(name = "dna_stats_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DnaStatsSummary {
+
+    @Id
+    private Long id;
+
+    @Column(name = "mutant_count", nullable = false)
+    private Long mutantCount;
+
+    @Column(name = "human_count", nullable = false)
+    private Long humanCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "clean_shutdown", nullable = false)
+    private boolean cleanShutdown;
+}
@@ -0,0 +1,51 @@
+package com.magneto.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * Width of a stats rollup bucket. Buckets start at the truncated verification time.
+ */
+public enum StatsGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    StatsGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * @return start of the bucket containing the given time
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * @return start of the bucket following the one starting at {@code bucketStart}
+     */
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * @return number of buckets overlapping {@code [from, to)}
+     */
+    public long bucketsBetween(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime first = truncate(from);
+        return to.isAfter(first) ? unit.between(first, to.minusNanos(1)) + 1 : 0;
+    }
+
+    /**
+     * Parses a granularity name, case-insensitively.
+     *
+     * @throws IllegalArgumentException if the name is not a granularity
+     */
+    public static StatsGranularity parse(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -1,11 +1,14 @@
 package com.magneto.exception;
 
+import com.magneto.validation.InvalidNucleotides;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -20,21 +23,34 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException ex) {
-        Map<String, Object> errorResponse = new HashMap<>();
-        Map<String, String> fieldErrors = new HashMap<>();
+        return validationErrors(ex.getBindingResult());
+    }
 
-        ex.getBindingResult().getAllErrors().forEach(error -> {
-            String fieldName = ((FieldError) error).getField();
-            String errorMessage = error.getDefaultMessage();
-            fieldErrors.put(fieldName, errorMessage);
-        });
 
-        errorResponse.put("timestamp", LocalDateTime.now());
-        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
-        errorResponse.put("error", "Validation Failed");
-        errorResponse.put("errors", fieldErrors);
+    @ExceptionHandler(InvalidDnaException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidDnaException(InvalidDnaException ex) {
+        ResponseEntity<Map<String, Object>> response = fieldError(ex.getField(), ex.getMessage());
+        InvalidNucleotides invalidNucleotides = ex.getInvalidNucleotides();
+        if (invalidNucleotides != null) {
+            response.getBody().put("invalidNucleotideCount", invalidNucleotides.count());
+            response.getBody().put("invalidNucleotides", invalidNucleotides.positions());
+        }
+        return response;
+    }
 
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    @ExceptionHandler(InvalidStatsQueryException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidStatsQueryException(InvalidStatsQueryException ex) {
+        return fieldError(ex.getField(), ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidDetectionPolicyException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidDetectionPolicyException(InvalidDetectionPolicyException ex) {
+        return fieldError(ex.getField(), ex.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleTypeMismatchException(MethodArgumentTypeMismatchException ex) {
+        return fieldError(ex.getName(), "Invalid value: " + ex.getValue());
     }
 
     @ExceptionHandler(DnaProcessingException.class)
@@ -58,4 +74,38 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
+
+    /**
+     * Bean validation failures of a request body, one message per field.
+     */
+    protected static ResponseEntity<Map<String, Object>> validationErrors(BindingResult bindingResult) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        Map<String, String> fieldErrors = new HashMap<>();
+
+        bindingResult.getAllErrors().forEach(error -> {
+            String fieldName = ((FieldError) error).getField();
+            String errorMessage = error.getDefaultMessage();
+            fieldErrors.put(fieldName, errorMessage);
+        });
+
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
+        errorResponse.put("error", "Validation Failed");
+        errorResponse.put("errors", fieldErrors);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    private static ResponseEntity<Map<String, Object>> fieldError(String field, String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        Map<String, String> fieldErrors = new HashMap<>();
+        fieldErrors.put(field, message);
+
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.BAD_REQUEST.value());
+        errorResponse.put("error", "Validation Failed");
+        errorResponse.put("errors", fieldErrors);
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
 }
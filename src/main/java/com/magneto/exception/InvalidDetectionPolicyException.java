@@ -0,0 +1,18 @@
+package com.magneto.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception for a detection policy sent with a request that cannot be applied.
+ * Rendered as a 400 with the same body as a field validation error.
+ */
+@Getter
+public class InvalidDetectionPolicyException extends RuntimeException {
+
+    private final String field;
+
+    public InvalidDetectionPolicyException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+}
@@ -0,0 +1,29 @@
+package com.magneto.exception;
+
+import com.magneto.validation.InvalidNucleotides;
+import lombok.Getter;
+
+/**
+ * Exception for DNA sequences that fail validation outside of Bean Validation.
+ * Rendered as a 400 with the same body as a field validation error.
+ */
+@Getter
+public class InvalidDnaException extends DnaProcessingException {
+
+    private final String field;
+
+    /** Positions of the invalid characters; null when the matrix is rejected for its shape. */
+    private final InvalidNucleotides invalidNucleotides;
+
+    public InvalidDnaException(String field, String message) {
+        super(message);
+        this.field = field;
+        this.invalidNucleotides = null;
+    }
+
+    public InvalidDnaException(String field, InvalidNucleotides invalidNucleotides) {
+        super(invalidNucleotides.message());
+        this.field = field;
+        this.invalidNucleotides = invalidNucleotides;
+    }
+}
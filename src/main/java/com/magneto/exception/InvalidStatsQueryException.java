@@ -0,0 +1,18 @@
+package com.magneto.exception;
+
+import lombok.Getter;
+
+/**
+ * Exception for stats range queries with an invalid parameter.
+ * Rendered as a 400 with the same body as a field validation error.
+ */
+@Getter
+public class InvalidStatsQueryException extends RuntimeException {
+
+    private final String field;
+
+    public InvalidStatsQueryException(String field, String message) {
+        super(message);
+        this.field = field;
+    }
+}
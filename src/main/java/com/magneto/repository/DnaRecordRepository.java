@@ -1,24 +1,41 @@
 package com.magneto.repository;
 
+import com.magneto.entity.DnaHash;
 import com.magneto.entity.DnaRecord;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for DNA record persistence operations.
  */
 @Repository
-public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long> {
+public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long>, DnaRecordRepositoryCustom {
 
     /**
      * Find a DNA record by its hash.
      *
-     * @param dnaHash SHA-256 hash of the DNA sequence
+     * @param dnaHash deduplication hash of the DNA sequence
      * @return Optional containing the DNA record if found
      */
-    Optional<DnaRecord> findByDnaHash(String dnaHash);
+    Optional<DnaRecord> findByDnaHash(DnaHash dnaHash);
+
+    /**
+     * Find all DNA records whose hash is in the given set, with a single IN query.
+     *
+     * @param dnaHashes deduplication hashes to look up
+     * @return records found, in no particular order
+     */
+    List<DnaRecord> findByDnaHashIn(Collection<DnaHash> dnaHashes);
 
     /**
      * Count DNA records by mutant status.
@@ -27,4 +44,23 @@ public interface DnaRecordRepository extends JpaRepository<DnaRecord, Long> {
      * @return count of records matching the status
      */
     long countByIsMutant(Boolean isMutant);
+
+    /**
+     * Stream all stored hashes, fetched in chunks. Must be consumed inside a transaction and closed.
+     *
+     * @return stream of every stored hash
+     */
+    @Query("SELECT r.dnaHash FROM DnaRecord r")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<DnaHash> streamAllHashes();
+
+    /**
+     * Stream the verdict and verification time of every record, fetched in chunks. Must be
+     * consumed inside a transaction and closed.
+     *
+     * @return stream of {@code [isMutant, verifiedAt]} pairs
+     */
+    @Query("SELECT r.isMutant, r.verifiedAt FROM DnaRecord r")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamAllVerifications();
 }
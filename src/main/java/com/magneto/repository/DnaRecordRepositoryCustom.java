@@ -0,0 +1,30 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaRecord;
+
+import java.util.List;
+
+/**
+ * Bulk persistence operations not covered by Spring Data JPA.
+ * Inserts skip hashes that are already stored instead of failing on the unique key, so
+ * concurrent requests for the same DNA never surface a constraint violation.
+ */
+public interface DnaRecordRepositoryCustom {
+
+    /**
+     * Inserts a DNA record unless its hash is already stored.
+     *
+     * @param record record to insert
+     * @return true if the row was inserted, false if the hash already existed
+     */
+    boolean insertIfAbsent(DnaRecord record);
+
+    /**
+     * Inserts new DNA records using JDBC batching, skipping hashes that are already stored.
+     * Hibernate cannot batch inserts for IDENTITY keys, so this bypasses the entity manager.
+     *
+     * @param records records to insert
+     * @return the records that were actually inserted, in input order
+     */
+    List<DnaRecord> insertAllIfAbsent(List<DnaRecord> records);
+}
@@ -0,0 +1,99 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link DnaRecordRepositoryCustom}.
+ * Runs inside the caller's JPA transaction.
+ * <p>
+ * The insert is guarded by {@code NOT EXISTS}, so a stored hash yields an update count of 0. Two
+ * transactions inserting the same new hash at once can still both pass the guard; the unique key
+ * then rejects the second one, which is reported as not inserted as well.
+ */
+@RequiredArgsConstructor
+public class DnaRecordRepositoryCustomImpl implements DnaRecordRepositoryCustom {
+
+    private static final String INSERT_IF_ABSENT_SQL =
+            "INSERT INTO dna_verifications (dna_hash, hash_algorithm, is_mutant, verified_at) "
+                    + "SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM dna_verifications WHERE dna_hash = ?)";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean insertIfAbsent(DnaRecord record) {
+        try {
+            return jdbcTemplate.update(INSERT_IF_ABSENT_SQL, statement -> bind(statement, record)) > 0;
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent transaction inserted the same hash first
+            return false;
+        }
+    }
+
+    @Override
+    public List<DnaRecord> insertAllIfAbsent(List<DnaRecord> records) {
+        List<DnaRecord> inserted = new ArrayList<>(records.size());
+
+        for (int from = 0; from < records.size(); from += BATCH_SIZE) {
+            List<DnaRecord> chunk = records.subList(from, Math.min(from + BATCH_SIZE, records.size()));
+            int[] counts = executeBatch(chunk);
+
+            for (int i = 0; i < chunk.size(); i++) {
+                // Rows the driver did not report on after a failure are retried one by one
+                boolean rowInserted = i < counts.length
+                        ? counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO
+                        : insertIfAbsent(chunk.get(i));
+                if (rowInserted) {
+                    inserted.add(chunk.get(i));
+                }
+            }
+        }
+        return inserted;
+    }
+
+    private int[] executeBatch(List<DnaRecord> chunk) {
+        try {
+            return jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement statement, int i) throws SQLException {
+                    bind(statement, chunk.get(i));
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return chunk.size();
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race on some hash: keep the counts the driver reported (failed rows are EXECUTE_FAILED)
+            if (e.getCause() instanceof BatchUpdateException batchFailure) {
+                return batchFailure.getUpdateCounts();
+            }
+            return new int[0];
+        }
+    }
+
+    private static void bind(PreparedStatement statement, DnaRecord record) throws SQLException {
+        LocalDateTime verifiedAt = record.getVerifiedAt() != null ? record.getVerifiedAt() : LocalDateTime.now();
+        byte[] dnaHash = record.getDnaHash().toBytes();
+        statement.setBytes(1, dnaHash);
+        statement.setString(2, record.getHashAlgorithm().name());
+        statement.setBoolean(3, record.getIsMutant());
+        statement.setTimestamp(4, Timestamp.valueOf(verifiedAt));
+        statement.setBytes(5, dnaHash);
+    }
+}
@@ -0,0 +1,34 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaStatsRollup;
+import com.magneto.entity.StatsGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for the pre-aggregated stats buckets.
+ */
+@Repository
+public interface DnaStatsRollupRepository
+        extends JpaRepository<DnaStatsRollup, DnaStatsRollup.Key>, DnaStatsRollupRepositoryCustom {
+
+    /**
+     * Find the stored buckets of a granularity starting in {@code [from, to)}.
+     * Buckets without verifications have no row.
+     *
+     * @param granularity bucket width
+     * @param from first bucket start, inclusive
+     * @param to end of the range, exclusive
+     * @return buckets ordered by start
+     */
+    @Query("SELECT r FROM DnaStatsRollup r WHERE r.granularity = :granularity "
+            + "AND r.bucketStart >= :from AND r.bucketStart < :to ORDER BY r.bucketStart")
+    List<DnaStatsRollup> findRange(@Param("granularity") StatsGranularity granularity,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,19 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaStatsRollup;
+
+import java.util.Collection;
+
+/**
+ * Incremental maintenance of the stats buckets, not covered by Spring Data JPA.
+ */
+public interface DnaStatsRollupRepositoryCustom {
+
+    /**
+     * Adds the counts of each delta to its bucket, creating the buckets that do not exist yet.
+     * Must run in a transaction: a failure leaves no bucket partially incremented.
+     *
+     * @param deltas counts to add, at most one per bucket
+     */
+    void incrementAll(Collection<DnaStatsRollup> deltas);
+}
@@ -0,0 +1,51 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaStatsRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link DnaStatsRollupRepositoryCustom}.
+ * <p>
+ * Missing buckets are created empty with a {@code NOT EXISTS} guarded insert, then every bucket is
+ * incremented in place, both with JDBC batching. Two instances creating the same bucket at once
+ * make one transaction fail on the primary key; its caller keeps the deltas for the next attempt.
+ */
+@RequiredArgsConstructor
+public class DnaStatsRollupRepositoryCustomImpl implements DnaStatsRollupRepositoryCustom {
+
+    private static final String CREATE_IF_ABSENT_SQL =
+            "INSERT INTO dna_stats_rollup (granularity, bucket_start, mutant_count, human_count) "
+                    + "SELECT ?, ?, 0, 0 WHERE NOT EXISTS "
+                    + "(SELECT 1 FROM dna_stats_rollup WHERE granularity = ? AND bucket_start = ?)";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE dna_stats_rollup SET mutant_count = mutant_count + ?, human_count = human_count + ? "
+                    + "WHERE granularity = ? AND bucket_start = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void incrementAll(Collection<DnaStatsRollup> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> keys = new ArrayList<>(deltas.size());
+        List<Object[]> increments = new ArrayList<>(deltas.size());
+        for (DnaStatsRollup delta : deltas) {
+            String granularity = delta.getGranularity().name();
+            Timestamp bucketStart = Timestamp.valueOf(delta.getBucketStart());
+            keys.add(new Object[]{granularity, bucketStart, granularity, bucketStart});
+            increments.add(new Object[]{delta.getMutantCount(), delta.getHumanCount(), granularity, bucketStart});
+        }
+
+        jdbcTemplate.batchUpdate(CREATE_IF_ABSENT_SQL, keys);
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, increments);
+    }
+}
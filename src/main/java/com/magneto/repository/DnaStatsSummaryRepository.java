@@ -0,0 +1,12 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaStatsSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the persisted verification summary row.
+ */
+@Repository
+public interface DnaStatsSummaryRepository extends JpaRepository<DnaStatsSummary, Long> {
+}
@@ -0,0 +1,306 @@
+package com.magneto.repository;
+
+import com.magneto.config.FileStoreProperties;
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Embedded verdict store ({@code mutant.persistence.store=file}): durable across restarts
+ * without a database server.
+ * <p>
+ * Verdicts are appended to a memory-mapped {@link VerdictLog} and located through an in-memory
+ * {@link VerdictIndex}. On shutdown the index and the counters are written to a snapshot
+ * ({@code index.snap}) with the log size it covers. On startup the snapshot is loaded and only
+ * the records appended after it are scanned; without a valid snapshot, after a crash for
+ * instance, the whole log is scanned and torn records at its end are discarded.
+ * <p>
+ * Reads run concurrently under a read lock, inserts are serialized under the write lock.
+ * <p>
+ * The stats rollups stay in the JPA datasource, which is in memory by default, so they are rebuilt
+ * from the log at startup ({@link #sharesRollupDatabase()} is false).
+ */
+@Component
+@ConditionalOnProperty(prefix = "mutant.persistence", name = "store", havingValue = "file")
+@Slf4j
+public class FileVerdictStore implements VerdictStore {
+
+    private static final String SNAPSHOT_FILE = "index.snap";
+    private static final int SNAPSHOT_MAGIC = 0x56444958;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final Path directory;
+    private final boolean forceOnWrite;
+    private final VerdictLog verdictLog;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private VerdictIndex index = new VerdictIndex(0);
+    private long mutantCount;
+    private long humanCount;
+
+    public FileVerdictStore(FileStoreProperties properties) {
+        this.directory = Path.of(properties.getDirectory());
+        this.forceOnWrite = properties.isForceOnWrite();
+        this.verdictLog = new VerdictLog(directory, properties.getSegmentSize().toBytes());
+    }
+
+    /**
+     * Loads the index snapshot, if any, and recovers the log records appended after it.
+     */
+    @PostConstruct
+    public void open() {
+        lock.writeLock().lock();
+        try {
+            long trusted = readSnapshot();
+            if (!verdictLog.open(trusted, this::recover)) {
+                log.warn("Verdict index snapshot is ahead of the log, rebuilding it from the log");
+                resetIndex();
+                verdictLog.open(0, this::recover);
+            }
+            log.info("File verdict store opened at {} - records: {}, replayed: {}",
+                    directory.toAbsolutePath(), verdictLog.size(), verdictLog.size() - trusted);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to open the verdict store at " + directory, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes the log and writes the index snapshot, so the next start does not scan the log.
+     */
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            verdictLog.force();
+            writeSnapshot();
+            log.info("File verdict store closed - records: {}", verdictLog.size());
+        } catch (IOException e) {
+            log.warn("Failed to write the verdict index snapshot, the log will be scanned on next start", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<DnaRecord> findByDnaHash(DnaHash dnaHash) {
+        lock.readLock().lock();
+        try {
+            long position = find(dnaHash);
+            return position < 0 ? Optional.empty() : Optional.of(toRecord(position, dnaHash));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<DnaRecord> findByDnaHashIn(Collection<DnaHash> dnaHashes) {
+        List<DnaRecord> found = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (DnaHash dnaHash : dnaHashes) {
+                long position = find(dnaHash);
+                if (position >= 0) {
+                    found.add(toRecord(position, dnaHash));
+                }
+            }
+            return found;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean insertIfAbsent(DnaRecord record) {
+        return !insertAllIfAbsent(List.of(record)).isEmpty();
+    }
+
+    @Override
+    public List<DnaRecord> insertAllIfAbsent(List<DnaRecord> records) {
+        List<DnaRecord> inserted = new ArrayList<>(records.size());
+        lock.writeLock().lock();
+        try {
+            for (DnaRecord record : records) {
+                if (find(record.getDnaHash()) < 0) {
+                    append(record);
+                    inserted.add(record);
+                }
+            }
+            if (forceOnWrite) {
+                verdictLog.force();
+            }
+            return inserted;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to append to the verdict store", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long countByIsMutant(boolean isMutant) {
+        lock.readLock().lock();
+        try {
+            return isMutant ? mutantCount : humanCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachHash(Consumer<DnaHash> action) {
+        lock.readLock().lock();
+        try {
+            for (long position = 0, size = verdictLog.size(); position < size; position++) {
+                action.accept(verdictLog.hashAt(position));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean sharesRollupDatabase() {
+        return false;
+    }
+
+    @Override
+    public void forEachVerification(VerificationVisitor action) {
+        lock.readLock().lock();
+        try {
+            for (long position = 0, size = verdictLog.size(); position < size; position++) {
+                action.visit(verdictLog.isMutantAt(position), LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(verdictLog.verifiedAtMillis(position)), ZoneOffset.UTC));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long find(DnaHash dnaHash) {
+        return index.find(dnaHash.prefix(), position -> verdictLog.hashAt(position).equals(dnaHash));
+    }
+
+    private void append(DnaRecord record) throws IOException {
+        LocalDateTime verifiedAt = record.getVerifiedAt() != null ? record.getVerifiedAt() : LocalDateTime.now();
+        long position = verdictLog.append(record.getDnaHash(), record.getHashAlgorithm(), record.getIsMutant(),
+                verifiedAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+        index.add(record.getDnaHash().prefix(), position);
+        count(record.getIsMutant());
+    }
+
+    private void recover(long position, DnaHash dnaHash, boolean isMutant) {
+        // An insert never appends a stored hash; a repeated one can only come from a damaged log
+        if (find(dnaHash) < 0) {
+            index.add(dnaHash.prefix(), position);
+            count(isMutant);
+        }
+    }
+
+    private void count(boolean isMutant) {
+        if (isMutant) {
+            mutantCount++;
+        } else {
+            humanCount++;
+        }
+    }
+
+    private DnaRecord toRecord(long position, DnaHash dnaHash) {
+        LocalDateTime verifiedAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(verdictLog.verifiedAtMillis(position)), ZoneOffset.UTC);
+        return new DnaRecord(position + 1, dnaHash, verdictLog.algorithmAt(position),
+                verdictLog.isMutantAt(position), verifiedAt);
+    }
+
+    private void resetIndex() {
+        index = new VerdictIndex(0);
+        mutantCount = 0;
+        humanCount = 0;
+    }
+
+    /**
+     * Loads the index snapshot.
+     *
+     * @return number of log records it covers, 0 if there is no valid snapshot
+     */
+    private long readSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+
+        CRC32C crc = new CRC32C();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), crc))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Unrecognized verdict index snapshot {}, ignoring it", file);
+                return 0;
+            }
+            long logSize = in.readLong();
+            long mutants = in.readLong();
+            long humans = in.readLong();
+            VerdictIndex snapshot = VerdictIndex.readFrom(in);
+            int expected = (int) crc.getValue();
+            if (in.readInt() != expected || snapshot.size() != mutants + humans) {
+                log.warn("Corrupt verdict index snapshot {}, ignoring it", file);
+                return 0;
+            }
+
+            index = snapshot;
+            mutantCount = mutants;
+            humanCount = humans;
+            return logSize;
+        } catch (IOException e) {
+            log.warn("Unreadable verdict index snapshot {}, ignoring it", file, e);
+            resetIndex();
+            return 0;
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+
+        CRC32C crc = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)), crc))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(verdictLog.size());
+            out.writeLong(mutantCount);
+            out.writeLong(humanCount);
+            index.writeTo(out);
+            out.writeInt((int) crc.getValue());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,76 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Verdict store backed by the {@code dna_verifications} table ({@code mutant.persistence.store=jpa}).
+ */
+@Component
+@ConditionalOnProperty(prefix = "mutant.persistence", name = "store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaVerdictStore implements VerdictStore {
+
+    private final DnaRecordRepository dnaRecordRepository;
+
+    @Override
+    public Optional<DnaRecord> findByDnaHash(DnaHash dnaHash) {
+        return dnaRecordRepository.findByDnaHash(dnaHash);
+    }
+
+    @Override
+    public List<DnaRecord> findByDnaHashIn(Collection<DnaHash> dnaHashes) {
+        return dnaRecordRepository.findByDnaHashIn(dnaHashes);
+    }
+
+    @Override
+    public boolean insertIfAbsent(DnaRecord record) {
+        return dnaRecordRepository.insertIfAbsent(record);
+    }
+
+    /**
+     * Inserts the chunks of a batch in one transaction of its own, so callers do not need to hold one.
+     */
+    @Override
+    @Transactional
+    public List<DnaRecord> insertAllIfAbsent(List<DnaRecord> records) {
+        return dnaRecordRepository.insertAllIfAbsent(records);
+    }
+
+    @Override
+    public long countByIsMutant(boolean isMutant) {
+        return dnaRecordRepository.countByIsMutant(isMutant);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachHash(Consumer<DnaHash> action) {
+        try (Stream<DnaHash> hashes = dnaRecordRepository.streamAllHashes()) {
+            hashes.forEach(action);
+        }
+    }
+
+    @Override
+    public boolean sharesRollupDatabase() {
+        return true;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachVerification(VerificationVisitor action) {
+        try (Stream<Object[]> verifications = dnaRecordRepository.streamAllVerifications()) {
+            verifications.forEach(row -> action.visit((Boolean) row[0], (LocalDateTime) row[1]));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.magneto.repository;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing hash table from hash fingerprint to log position, two parallel {@code long}
+ * arrays and no per-entry objects (16 bytes per slot).
+ * <p>
+ * The fingerprint is the first 64 bits of the hash, so equal fingerprints are almost always the
+ * same hash; a lookup confirms the candidate against the full hash stored in the log. Not
+ * thread-safe.
+ */
+final class VerdictIndex {
+
+    private static final int MIN_CAPACITY = 1024;
+    private static final long EMPTY = 0L;
+
+    private long[] fingerprints;
+    // Position + 1, so that 0 marks an empty slot
+    private long[] slots;
+    private int size;
+
+    VerdictIndex(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        fingerprints = new long[capacity];
+        slots = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param fingerprint first 64 bits of the hash
+     * @param matches confirms that the hash stored at a candidate position is the one looked up
+     * @return log position of the hash, or -1 if absent
+     */
+    long find(long fingerprint, LongPredicate matches) {
+        int mask = slots.length - 1;
+        for (int slot = slotOf(fingerprint, mask); slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (fingerprints[slot] == fingerprint && matches.test(slots[slot] - 1)) {
+                return slots[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds an entry. The caller checks with {@link #find} that the hash is absent.
+     */
+    void add(long fingerprint, long position) {
+        if (size + 1 > slots.length * 3L / 4) {
+            resize();
+        }
+        insert(fingerprints, slots, fingerprint, position + 1);
+        size++;
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot] != EMPTY) {
+                out.writeLong(fingerprints[slot]);
+                out.writeLong(slots[slot] - 1);
+            }
+        }
+    }
+
+    static VerdictIndex readFrom(DataInput in) throws IOException {
+        int entries = in.readInt();
+        VerdictIndex index = new VerdictIndex(entries);
+        for (int i = 0; i < entries; i++) {
+            index.add(in.readLong(), in.readLong());
+        }
+        return index;
+    }
+
+    private void resize() {
+        long[] newFingerprints = new long[slots.length * 2];
+        long[] newSlots = new long[slots.length * 2];
+        for (int slot = 0; slot < slots.length; slot++) {
+            if (slots[slot] != EMPTY) {
+                insert(newFingerprints, newSlots, fingerprints[slot], slots[slot]);
+            }
+        }
+        fingerprints = newFingerprints;
+        slots = newSlots;
+    }
+
+    private static void insert(long[] fingerprints, long[] slots, long fingerprint, long value) {
+        int mask = slots.length - 1;
+        int slot = slotOf(fingerprint, mask);
+        while (slots[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        fingerprints[slot] = fingerprint;
+        slots[slot] = value;
+    }
+
+    private static int slotOf(long fingerprint, int mask) {
+        // Fibonacci hashing spreads fingerprints that are not uniformly distributed
+        return (int) ((fingerprint * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+}
@@ -0,0 +1,262 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaHashAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of fixed-size verdict records, split in memory-mapped segment files.
+ * <p>
+ * A record is 48 bytes: the 32-byte hash, the verification time in epoch millis, a flags byte,
+ * the {@link DnaHashAlgorithm#code() hash algorithm code}, two bytes of padding and a CRC32C of
+ * the first 44 bytes. Logs written before the algorithm byte have 0 there, which is SHA-256.
+ * A position is the record number, so segment and offset are plain arithmetic. New segments are
+ * zero-filled, and a zeroed record never passes the CRC check, so the end of the log is the first
+ * invalid record.
+ * <p>
+ * Not thread-safe: {@link FileVerdictStore} guards it with a read-write lock.
+ */
+@Slf4j
+final class VerdictLog {
+
+    static final int RECORD_BYTES = 48;
+
+    private static final int TIME_OFFSET = DnaHash.BYTES;
+    private static final int FLAGS_OFFSET = TIME_OFFSET + Long.BYTES;
+    private static final int ALGORITHM_OFFSET = FLAGS_OFFSET + 1;
+    private static final int CRC_OFFSET = 44;
+
+    private static final byte FLAG_PRESENT = (byte) 0x80;
+    private static final byte FLAG_MUTANT = 0x01;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("verdicts-(\\d{6})\\.seg");
+
+    /**
+     * Receives the records found while recovering the log.
+     */
+    @FunctionalInterface
+    interface RecordVisitor {
+        void visit(long position, DnaHash dnaHash, boolean isMutant);
+    }
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    private long size;
+    // First segment written since the last force
+    private int dirtySegment = -1;
+
+    VerdictLog(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.recordsPerSegment = (int) Math.min(Integer.MAX_VALUE / RECORD_BYTES, segmentBytes / RECORD_BYTES);
+        if (recordsPerSegment < 1) {
+            throw new IllegalArgumentException("Segment size must hold at least one record");
+        }
+    }
+
+    /**
+     * Maps the existing segments and finds the end of the log, scanning from {@code trusted}.
+     * Records before it are known valid (covered by the index snapshot); the ones after it are
+     * passed to the visitor. Everything from the first invalid record on is a torn write of a
+     * crash and is cleared.
+     *
+     * @param trusted number of leading records not to scan, 0 to scan the whole log
+     * @param visitor receives every scanned valid record
+     * @return false if {@code trusted} is beyond the end of the log, in which case nothing was
+     *         scanned and the caller should retry from 0
+     */
+    boolean open(long trusted, RecordVisitor visitor) throws IOException {
+        Files.createDirectories(directory);
+        if (segments.isEmpty()) {
+            mapExistingSegments();
+        }
+
+        if (trusted > 0 && (trusted > capacity() || !isValid(trusted - 1))) {
+            return false;
+        }
+
+        long position = trusted;
+        while (position < capacity() && isValid(position)) {
+            visitor.visit(position, hashAt(position), isMutantAt(position));
+            position++;
+        }
+        size = position;
+        clearTail();
+        return true;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Appends a record, mapping a new segment when the current one is full.
+     *
+     * @return position of the record
+     */
+    long append(DnaHash dnaHash, DnaHashAlgorithm algorithm, boolean isMutant, long verifiedAtMillis) throws IOException {
+        long position = size;
+        int segment = segmentOf(position);
+        if (segment == segments.size()) {
+            segments.add(map(segment));
+        }
+
+        MappedByteBuffer buffer = segments.get(segment);
+        int offset = offsetOf(position);
+        buffer.put(offset, dnaHash.toBytes());
+        buffer.putLong(offset + TIME_OFFSET, verifiedAtMillis);
+        buffer.put(offset + FLAGS_OFFSET, isMutant ? (byte) (FLAG_PRESENT | FLAG_MUTANT) : FLAG_PRESENT);
+        buffer.put(offset + ALGORITHM_OFFSET, (byte) algorithm.code());
+        buffer.putInt(offset + CRC_OFFSET, checksum(buffer, offset));
+
+        if (dirtySegment < 0) {
+            dirtySegment = segment;
+        }
+        size = position + 1;
+        return position;
+    }
+
+    DnaHash hashAt(long position) {
+        byte[] bytes = new byte[DnaHash.BYTES];
+        segments.get(segmentOf(position)).get(offsetOf(position), bytes);
+        return DnaHash.of(bytes);
+    }
+
+    boolean isMutantAt(long position) {
+        return (segments.get(segmentOf(position)).get(offsetOf(position) + FLAGS_OFFSET) & FLAG_MUTANT) != 0;
+    }
+
+    DnaHashAlgorithm algorithmAt(long position) {
+        return DnaHashAlgorithm.fromCode(segments.get(segmentOf(position)).get(offsetOf(position) + ALGORITHM_OFFSET));
+    }
+
+    long verifiedAtMillis(long position) {
+        return segments.get(segmentOf(position)).getLong(offsetOf(position) + TIME_OFFSET);
+    }
+
+    /**
+     * Flushes the segments written since the last call to disk.
+     */
+    void force() {
+        if (dirtySegment < 0) {
+            return;
+        }
+        for (int segment = dirtySegment; segment < segments.size(); segment++) {
+            segments.get(segment).force();
+        }
+        dirtySegment = -1;
+    }
+
+    private void mapExistingSegments() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+
+        for (int segment = 0; segment < files.size(); segment++) {
+            Matcher matcher = SEGMENT_NAME.matcher(files.get(segment).getFileName().toString());
+            if (!matcher.matches() || Integer.parseInt(matcher.group(1)) != segment) {
+                log.warn("Verdict log segment {} missing, ignoring the {} segments after it",
+                        segment, files.size() - segment);
+                break;
+            }
+            if (Files.size(files.get(segment)) != segmentBytes()) {
+                throw new IllegalStateException("Verdict log segment " + files.get(segment)
+                        + " does not match the configured segment size of " + segmentBytes() + " bytes");
+            }
+            segments.add(map(segment));
+        }
+    }
+
+    /**
+     * Zeroes the records after the end of the log up to the first empty one, and drops the
+     * segments after it. Once the pages of a crashed run are flushed out of order, a valid record
+     * can follow a torn one; left in place it would resurface after a later crash.
+     */
+    private void clearTail() throws IOException {
+        for (long position = size; position < capacity() && !isEmpty(position); position++) {
+            MappedByteBuffer buffer = segments.get(segmentOf(position));
+            buffer.put(offsetOf(position), new byte[RECORD_BYTES]);
+            if (dirtySegment < 0 || dirtySegment > segmentOf(position)) {
+                dirtySegment = segmentOf(position);
+            }
+        }
+        force();
+
+        int usedSegments = (int) ((size + recordsPerSegment - 1) / recordsPerSegment);
+        while (segments.size() > Math.max(usedSegments, 1)) {
+            int last = segments.size() - 1;
+            segments.remove(last);
+            Files.deleteIfExists(segmentFile(last));
+        }
+    }
+
+    private boolean isValid(long position) {
+        MappedByteBuffer buffer = segments.get(segmentOf(position));
+        int offset = offsetOf(position);
+        return (buffer.get(offset + FLAGS_OFFSET) & FLAG_PRESENT) != 0
+                && buffer.getInt(offset + CRC_OFFSET) == checksum(buffer, offset);
+    }
+
+    private boolean isEmpty(long position) {
+        MappedByteBuffer buffer = segments.get(segmentOf(position));
+        int offset = offsetOf(position);
+        for (int i = 0; i < RECORD_BYTES; i += Long.BYTES) {
+            if (buffer.getLong(offset + i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int offset) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, CRC_OFFSET));
+        return (int) crc.getValue();
+    }
+
+    private MappedByteBuffer map(int segment) throws IOException {
+        // Mapping past the end grows the file with zeroes; the mapping outlives the channel
+        try (FileChannel channel = FileChannel.open(segmentFile(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes());
+        }
+    }
+
+    private Path segmentFile(int segment) {
+        return directory.resolve(String.format("verdicts-%06d.seg", segment));
+    }
+
+    private long segmentBytes() {
+        return (long) recordsPerSegment * RECORD_BYTES;
+    }
+
+    private long capacity() {
+        return (long) segments.size() * recordsPerSegment;
+    }
+
+    private int segmentOf(long position) {
+        return (int) (position / recordsPerSegment);
+    }
+
+    private int offsetOf(long position) {
+        return (int) (position % recordsPerSegment) * RECORD_BYTES;
+    }
+}
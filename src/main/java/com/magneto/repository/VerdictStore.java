@@ -0,0 +1,92 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaRecord;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage of analyzed DNA verdicts, keyed by hash.
+ * <p>
+ * The backend is chosen with {@code mutant.persistence.store}: {@code jpa} (default, the
+ * {@code dna_verifications} table through {@link DnaRecordRepository}) or {@code file} (the
+ * embedded {@link FileVerdictStore}). Inserts never overwrite: a hash is stored once and later
+ * inserts of it are skipped.
+ */
+public interface VerdictStore {
+
+    /**
+     * Find a DNA record by its hash.
+     *
+     * @param dnaHash deduplication hash of the DNA sequence
+     * @return Optional containing the DNA record if found
+     */
+    Optional<DnaRecord> findByDnaHash(DnaHash dnaHash);
+
+    /**
+     * Find all DNA records whose hash is in the given set.
+     *
+     * @param dnaHashes deduplication hashes to look up
+     * @return records found, in no particular order
+     */
+    List<DnaRecord> findByDnaHashIn(Collection<DnaHash> dnaHashes);
+
+    /**
+     * Stores a DNA record unless its hash is already stored.
+     *
+     * @param record record to store
+     * @return true if the record was stored, false if the hash already existed
+     */
+    boolean insertIfAbsent(DnaRecord record);
+
+    /**
+     * Stores new DNA records, skipping hashes that are already stored or repeated in the list.
+     *
+     * @param records records to store
+     * @return the records that were actually stored, in input order
+     */
+    List<DnaRecord> insertAllIfAbsent(List<DnaRecord> records);
+
+    /**
+     * Count DNA records by mutant status.
+     *
+     * @param isMutant true to count mutants, false to count humans
+     * @return count of records matching the status
+     */
+    long countByIsMutant(boolean isMutant);
+
+    /**
+     * Passes every stored hash to the action, streaming them without loading all records.
+     *
+     * @param action receives each stored hash
+     */
+    void forEachHash(Consumer<DnaHash> action);
+
+    /**
+     * Whether the records are kept in the JPA datasource next to the stats rollups and the summary
+     * row, so all are kept or lost together. For a store that is not, the rollups are rebuilt from
+     * {@link #forEachVerification} at startup and the summary row is not trusted.
+     */
+    boolean sharesRollupDatabase();
+
+    /**
+     * Passes the verdict and verification time of every stored record to the action, streaming
+     * them without loading all records.
+     *
+     * @param action receives each stored verification
+     */
+    void forEachVerification(VerificationVisitor action);
+
+    /**
+     * Receives one stored verification.
+     */
+    @FunctionalInterface
+    interface VerificationVisitor {
+
+        void visit(boolean isMutant, LocalDateTime verifiedAt);
+    }
+}
@@ -0,0 +1,107 @@
+package com.magneto.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the detection pipeline.
+ * <p>
+ * Every stage of a request is timed under {@code mutant.pipeline.stage} with a {@code stage} tag,
+ * verdicts are counted under {@code mutant.verdicts} and the matrix size of every prepared sample
+ * is recorded in {@code mutant.dna.size}. All of them are published as histograms on
+ * {@code /actuator/prometheus}.
+ */
+@Component
+public class DetectionMetrics {
+
+    /**
+     * Pipeline stages, in request order.
+     */
+    public enum Stage {
+        /** Validation, 2-bit packing and hashing (fused in {@link DnaPreprocessor}). */
+        PREPARE,
+        /** Database lookup of known verdicts by hash, after a verdict cache miss. */
+        LOOKUP,
+        /** Mutant detection on the packed matrix. */
+        DETECT,
+        /** Insert of the new verification records. */
+        PERSIST
+    }
+
+    /**
+     * Outcome of one analyzed sample.
+     */
+    public enum Verdict {
+        MUTANT,
+        HUMAN,
+        /** Hash already analyzed: answered from the cache or the database. */
+        DUPLICATE
+    }
+
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Verdict, Counter> verdictCounters = new EnumMap<>(Verdict.class);
+    private final DistributionSummary matrixSize;
+
+    public DetectionMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("mutant.pipeline.stage")
+                    .description("Time spent in each stage of the detection pipeline")
+                    .tag("stage", stage.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        for (Verdict verdict : Verdict.values()) {
+            verdictCounters.put(verdict, Counter.builder("mutant.verdicts")
+                    .description("Analyzed DNA samples by verdict")
+                    .tag("verdict", verdict.name().toLowerCase())
+                    .register(registry));
+        }
+        this.matrixSize = DistributionSummary.builder("mutant.dna.size")
+                .description("Size (N) of the analyzed NxN matrices")
+                .baseUnit("rows")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Metrics bound to an empty composite registry, so every meter is a no-op.
+     * Used by components created outside of the Spring context (tests, benchmarks).
+     */
+    public static DetectionMetrics noop() {
+        return new DetectionMetrics(new CompositeMeterRegistry());
+    }
+
+    public <T> T time(Stage stage, Supplier<T> action) {
+        return stageTimers.get(stage).record(action);
+    }
+
+    public void time(Stage stage, Runnable action) {
+        stageTimers.get(stage).record(action);
+    }
+
+    public void recordVerdict(Verdict verdict) {
+        verdictCounters.get(verdict).increment();
+    }
+
+    public void recordVerdicts(Verdict verdict, long count) {
+        if (count > 0) {
+            verdictCounters.get(verdict).increment(count);
+        }
+    }
+
+    public void recordVerdict(boolean isMutant) {
+        recordVerdict(isMutant ? Verdict.MUTANT : Verdict.HUMAN);
+    }
+
+    public void recordMatrixSize(int size) {
+        matrixSize.record(size);
+    }
+}
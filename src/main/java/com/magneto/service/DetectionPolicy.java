@@ -0,0 +1,120 @@
+package com.magneto.service;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Rule deciding whether a DNA matrix is mutant: at least {@code minSequences} runs of
+ * {@code sequenceLength} equal bases along the enabled directions.
+ * <p>
+ * With {@code overlapping} runs every start position counts, so five equal bases hold two runs
+ * of four. Otherwise a line of equal bases is cut into consecutive, disjoint runs and five equal
+ * bases hold one. {@link #DEFAULT} is the original rule: more than one overlapping run of four in
+ * any direction.
+ */
+@Getter
+@EqualsAndHashCode
+public final class DetectionPolicy {
+
+    public static final int MIN_SEQUENCE_LENGTH = 2;
+    // A run must fit in two adjacent 32-base words of the packed grid
+    public static final int MAX_SEQUENCE_LENGTH = 32;
+
+    public static final DetectionPolicy DEFAULT = new DetectionPolicy(4, 2, EnumSet.allOf(Direction.class), true);
+
+    /**
+     * Direction of a run, as the step from one base to the next one.
+     */
+    @Getter
+    public enum Direction {
+        /** → */
+        HORIZONTAL(0, 1),
+        /** ↓ */
+        VERTICAL(1, 0),
+        /** ↘ */
+        DIAGONAL(1, 1),
+        /** ↙ */
+        ANTI_DIAGONAL(1, -1);
+
+        private final int rowStep;
+        private final int columnStep;
+
+        Direction(int rowStep, int columnStep) {
+            this.rowStep = rowStep;
+            this.columnStep = columnStep;
+        }
+
+        /**
+         * Lowercase name with {@code -} as separator, as accepted by {@link #parse(String)}.
+         */
+        public String label() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        /**
+         * Parses a direction name, case-insensitively and with {@code -} or {@code _} as separator.
+         *
+         * @throws IllegalArgumentException if the name is not a direction
+         */
+        public static Direction parse(String name) {
+            return valueOf(name.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final int sequenceLength;
+    private final int minSequences;
+    private final Set<Direction> directions;
+    private final boolean overlapping;
+
+    /**
+     * @throws IllegalArgumentException if a setting is out of range or no direction is enabled
+     */
+    public DetectionPolicy(int sequenceLength, int minSequences, Collection<Direction> directions, boolean overlapping) {
+        if (sequenceLength < MIN_SEQUENCE_LENGTH || sequenceLength > MAX_SEQUENCE_LENGTH) {
+            throw new IllegalArgumentException("Sequence length must be between "
+                    + MIN_SEQUENCE_LENGTH + " and " + MAX_SEQUENCE_LENGTH);
+        }
+        if (minSequences < 1) {
+            throw new IllegalArgumentException("Minimum sequence count must be at least 1");
+        }
+        if (directions == null || directions.isEmpty()) {
+            throw new IllegalArgumentException("At least one direction must be enabled");
+        }
+        this.sequenceLength = sequenceLength;
+        this.minSequences = minSequences;
+        this.directions = Collections.unmodifiableSet(EnumSet.copyOf(directions));
+        this.overlapping = overlapping;
+    }
+
+    public boolean isDefault() {
+        return equals(DEFAULT);
+    }
+
+    public boolean isEnabled(Direction direction) {
+        return directions.contains(direction);
+    }
+
+    /**
+     * Canonical description of the policy, appended to the hashed bases of samples analyzed under
+     * a policy other than {@link #DEFAULT} so that their verdicts are stored apart. Starts with a
+     * character that is not a base, so it cannot be confused with the bases of another sample.
+     */
+    public String key() {
+        return "|length=" + sequenceLength
+                + ";min=" + minSequences
+                + ";directions=" + directions.stream().map(Direction::name).collect(Collectors.joining(","))
+                + ";overlapping=" + overlapping;
+    }
+
+    @Override
+    public String toString() {
+        return key().substring(1);
+    }
+}
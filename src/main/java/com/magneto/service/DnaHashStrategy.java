@@ -0,0 +1,45 @@
+package com.magneto.service;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaHashAlgorithm;
+
+/**
+ * Deduplication hash of a DNA sample, computed by {@link DnaPreprocessor} in the same pass that
+ * validates and packs it: each row is handed over as soon as it is validated and packed. A sample
+ * gets the same hash whether it arrived as rows of text or already packed.
+ */
+public interface DnaHashStrategy {
+
+    DnaHashAlgorithm getAlgorithm();
+
+    /**
+     * Starts hashing a sample. The hasher is only valid on the calling thread, until
+     * {@link Hasher#finish(DetectionPolicy)} returns.
+     *
+     * @param n matrix size
+     */
+    Hasher newHasher(int n);
+
+    static DnaHashStrategy of(DnaHashAlgorithm algorithm) {
+        return switch (algorithm) {
+            case SHA_256 -> Sha256HashStrategy.INSTANCE;
+            case MURMUR3_128 -> Murmur3HashStrategy.INSTANCE;
+        };
+    }
+
+    interface Hasher {
+
+        /**
+         * @param sequence validated row, ASCII only, or null if the sample arrived packed
+         * @param words packed matrix, with the row already packed
+         * @param rowOffset index of the first word of the row
+         * @param rowWords words per row
+         */
+        void putRow(String sequence, long[] words, int rowOffset, int rowWords);
+
+        /**
+         * @param policy rule of the sample; a non-default one is covered by the hash
+         */
+        DnaHash finish(DetectionPolicy policy);
+    }
+}
@@ -0,0 +1,73 @@
+package com.magneto.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Service for the full-match analysis mode.
+ * Every run counted by the detection policy is written as one NDJSON line as soon as the scan
+ * finds it, so neither the runs nor the response are held in memory. Verdicts are not persisted
+ * nor counted in the stats: the mode reports how a sample matches, it does not verify it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DnaMatchService {
+
+    private final PackedMutantDetector mutantDetector;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes one line per run, {@code {"row":r,"column":c,"direction":"...","base":"A","length":4}},
+     * followed by a summary line {@code {"matches":n,"mutant":true|false}}.
+     *
+     * @param dna validated and packed DNA sample, with the policy defining the runs
+     * @param output NDJSON response body
+     * @return number of runs written
+     * @throws IOException if the response cannot be written, which also stops the scan
+     */
+    public long writeMatches(PreparedDna dna, OutputStream output) throws IOException {
+        DetectionPolicy policy = dna.getPolicy();
+        int length = policy.getSequenceLength();
+        long matches;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+
+            try {
+                matches = mutantDetector.findMatches(dna.getPackedDna(), policy, (row, column, direction, base) -> {
+                    try {
+                        generator.writeStartObject();
+                        generator.writeNumberField("row", row);
+                        generator.writeNumberField("column", column);
+                        generator.writeStringField("direction", direction.label());
+                        generator.writeStringField("base", String.valueOf(base));
+                        generator.writeNumberField("length", length);
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            generator.writeStartObject();
+            generator.writeNumberField("matches", matches);
+            generator.writeBooleanField("mutant", matches >= policy.getMinSequences());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        log.info("Match report written. Size: {}, matches: {}", dna.getSize(), matches);
+        return matches;
+    }
+}
@@ -0,0 +1,173 @@
+package com.magneto.service;
+
+import com.magneto.dto.DetectionPolicyRequest;
+import com.magneto.entity.DnaHashAlgorithm;
+import com.magneto.exception.InvalidDetectionPolicyException;
+import com.magneto.exception.InvalidDnaException;
+import com.magneto.validation.DnaSequenceChecks;
+import com.magneto.validation.DnaValidationMessages;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Single pass over a raw DNA request.
+ * Each base is validated with a lookup table and packed into 2-bit lanes, and each row is fed to
+ * the {@link DnaHashStrategy} while it is still in cache, replacing the separate validation,
+ * {@code toCharArray} and {@code String.join} passes. Detection then scans the packed form only
+ * on a cache miss.
+ */
+@Component
+@Slf4j
+public class DnaPreprocessor {
+
+    static final String DNA_FIELD = "dna";
+
+    private final DetectionMetrics metrics;
+    private final DetectionPolicy defaultPolicy;
+    private final DnaHashStrategy hashStrategy;
+
+    public DnaPreprocessor() {
+        this(DetectionMetrics.noop());
+    }
+
+    public DnaPreprocessor(DetectionMetrics metrics) {
+        this(metrics, DetectionPolicy.DEFAULT);
+    }
+
+    public DnaPreprocessor(DetectionMetrics metrics, DetectionPolicy defaultPolicy) {
+        this(metrics, defaultPolicy, DnaHashStrategy.of(DnaHashAlgorithm.SHA_256));
+    }
+
+    /**
+     * @param defaultPolicy rule applied to requests that do not send their own
+     * @param hashStrategy deduplication hash of every sample
+     */
+    @Autowired
+    public DnaPreprocessor(DetectionMetrics metrics, DetectionPolicy defaultPolicy, DnaHashStrategy hashStrategy) {
+        this.metrics = metrics;
+        this.defaultPolicy = defaultPolicy;
+        this.hashStrategy = hashStrategy;
+    }
+
+    public DetectionPolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    /**
+     * Builds the policy a request asks for, taking the omitted fields from the deployment default.
+     *
+     * @param request policy sent with the request, or null to use the default
+     * @param field request field reported on errors
+     * @throws InvalidDetectionPolicyException if a direction is unknown or a setting out of range
+     */
+    public DetectionPolicy resolvePolicy(DetectionPolicyRequest request, String field) {
+        if (request == null) {
+            return defaultPolicy;
+        }
+
+        Set<DetectionPolicy.Direction> directions = defaultPolicy.getDirections();
+        if (request.getDirections() != null) {
+            directions = EnumSet.noneOf(DetectionPolicy.Direction.class);
+            for (String name : request.getDirections()) {
+                try {
+                    directions.add(DetectionPolicy.Direction.parse(String.valueOf(name)));
+                } catch (IllegalArgumentException e) {
+                    throw new InvalidDetectionPolicyException(field + ".directions", "Unknown direction: " + name);
+                }
+            }
+        }
+
+        try {
+            return new DetectionPolicy(
+                    request.getSequenceLength() != null ? request.getSequenceLength() : defaultPolicy.getSequenceLength(),
+                    request.getMinSequences() != null ? request.getMinSequences() : defaultPolicy.getMinSequences(),
+                    directions,
+                    request.getOverlapping() != null ? request.getOverlapping() : defaultPolicy.isOverlapping());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDetectionPolicyException(field, e.getMessage());
+        }
+    }
+
+    public PreparedDna prepare(String[] dnaSequence) {
+        return prepare(dnaSequence, DNA_FIELD);
+    }
+
+    public PreparedDna prepare(String[] dnaSequence, String field) {
+        return prepare(dnaSequence, field, defaultPolicy);
+    }
+
+    /**
+     * Validates, packs and hashes a DNA matrix.
+     *
+     * @param dnaSequence array of strings representing DNA matrix
+     * @param field request field reported on validation errors
+     * @param policy rule the sample is analyzed under
+     * @return the hash and packed bases of the sample
+     * @throws InvalidDnaException with the same messages as the Bean Validation constraint
+     */
+    public PreparedDna prepare(String[] dnaSequence, String field, DetectionPolicy policy) {
+        return metrics.time(DetectionMetrics.Stage.PREPARE, () -> doPrepare(dnaSequence, field, policy));
+    }
+
+    /**
+     * Hashes a sample that arrived already packed, as in the binary request format. The packing
+     * is valid by construction, so there is nothing to validate; the hash is the same as for the
+     * rows it encodes.
+     *
+     * @param packedDna packed matrix, with zero padding lanes
+     * @param policy rule the sample is analyzed under
+     */
+    public PreparedDna prepare(PackedDna packedDna, DetectionPolicy policy) {
+        return metrics.time(DetectionMetrics.Stage.PREPARE, () -> {
+            int n = packedDna.getSize();
+            metrics.recordMatrixSize(n);
+            int wordsPerRow = packedDna.getWordsPerRow();
+            long[] words = packedDna.getWords();
+            DnaHashStrategy.Hasher hasher = hashStrategy.newHasher(n);
+            for (int row = 0; row < n; row++) {
+                hasher.putRow(null, words, row * wordsPerRow, wordsPerRow);
+            }
+            return new PreparedDna(hasher.finish(policy), packedDna, policy, hashStrategy.getAlgorithm());
+        });
+    }
+
+    private PreparedDna doPrepare(String[] dnaSequence, String field, DetectionPolicy policy) {
+        if (dnaSequence == null || dnaSequence.length == 0) {
+            throw new InvalidDnaException(field, DnaValidationMessages.EMPTY_SEQUENCE);
+        }
+
+        int n = dnaSequence.length;
+        metrics.recordMatrixSize(n);
+        // Before anything is sized after n: a long list of short rows must not allocate n * n
+        String shapeError = DnaSequenceChecks.shapeError(dnaSequence);
+        if (shapeError != null) {
+            throw new InvalidDnaException(field, shapeError);
+        }
+
+        int wordsPerRow = PackedDna.wordsFor(n);
+        long[] words = new long[Math.multiplyExact(n, wordsPerRow)];
+        DnaHashStrategy.Hasher hasher = hashStrategy.newHasher(n);
+
+        for (int row = 0; row < n; row++) {
+            String sequence = dnaSequence[row];
+            int rowOffset = row * wordsPerRow;
+            // Invalid bases encode to -1: OR them up and test once per row, keeping the loop branch-free
+            int invalid = 0;
+            for (int col = 0; col < n; col++) {
+                int code = PackedDna.encode(sequence.charAt(col));
+                invalid |= code;
+                words[rowOffset + (col >>> 5)] |= (long) (code & 3) << ((col & 31) << 1);
+            }
+            if (invalid < 0) {
+                throw new InvalidDnaException(field, DnaSequenceChecks.findInvalid(dnaSequence, row));
+            }
+            hasher.putRow(sequence, words, rowOffset, wordsPerRow);
+        }
+
+        return new PreparedDna(hasher.finish(policy), new PackedDna(n, words), policy, hashStrategy.getAlgorithm());
+    }
+}
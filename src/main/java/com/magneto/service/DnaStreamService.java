@@ -0,0 +1,172 @@
+package com.magneto.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.exc.InputCoercionException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magneto.dto.DnaRequest;
+import com.magneto.exception.InvalidDetectionPolicyException;
+import com.magneto.exception.InvalidDnaException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for streaming NDJSON ingestion of DNA samples.
+ * Records are parsed one at a time with the Jackson streaming parser, validated and packed as
+ * they arrive and analyzed in bounded batches, so heap use does not depend on the upload size.
+ */
+@Service
+@Slf4j
+public class DnaStreamService {
+
+    private final DnaPreprocessor dnaPreprocessor;
+    private final MutantService mutantService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+
+    public DnaStreamService(DnaPreprocessor dnaPreprocessor,
+                            MutantService mutantService,
+                            ObjectMapper objectMapper,
+                            Validator validator,
+                            @Value("${mutant.stream.batch-size:500}") int batchSize) {
+        this.dnaPreprocessor = dnaPreprocessor;
+        this.mutantService = mutantService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads newline-delimited {@code {"dna": [...]}} records and writes one NDJSON line per record:
+     * {@code {"index":n,"mutant":true|false}} or {@code {"index":n,"error":"..."}}.
+     * Results are written and flushed after each batch is persisted.
+     *
+     * @param input NDJSON request body
+     * @param output NDJSON response body
+     * @return number of records read
+     * @throws IOException if reading the input or writing the output fails
+     */
+    public long process(InputStream input, OutputStream output) throws IOException {
+        List<Long> pendingIndexes = new ArrayList<>(batchSize);
+        List<PreparedDna> pendingSamples = new ArrayList<>(batchSize);
+        long index = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.setRootValueSeparator(null);
+
+            try {
+                while (parser.nextToken() != null) {
+                    long current = index++;
+                    if (parser.currentToken() != JsonToken.START_OBJECT) {
+                        writeError(generator, current, "Each line must be a JSON object");
+                        parser.skipChildren();
+                        continue;
+                    }
+
+                    DnaRequest record;
+                    try {
+                        record = objectMapper.readValue(parser, DnaRequest.class);
+                    } catch (JsonMappingException | InputCoercionException e) {
+                        // Well-formed but wrongly typed: the rest of the object can still be parsed
+                        skipToEndOfRecord(parser);
+                        writeError(generator, current, "Invalid record: " + e.getOriginalMessage());
+                        continue;
+                    }
+                    String error = validate(record);
+                    if (error != null) {
+                        writeError(generator, current, error);
+                        continue;
+                    }
+
+                    PreparedDna sample;
+                    try {
+                        DetectionPolicy policy = dnaPreprocessor.resolvePolicy(record.getPolicy(), "policy");
+                        sample = dnaPreprocessor.prepare(record.getDna(), "dna", policy);
+                    } catch (InvalidDnaException | InvalidDetectionPolicyException e) {
+                        writeError(generator, current, e.getMessage());
+                        continue;
+                    }
+
+                    pendingIndexes.add(current);
+                    pendingSamples.add(sample);
+                    if (pendingSamples.size() >= batchSize) {
+                        flush(generator, pendingIndexes, pendingSamples);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                // The parser cannot resynchronize after malformed input: report and stop reading
+                log.warn("Malformed NDJSON record at index {}: {}", index - 1, e.getOriginalMessage());
+                flush(generator, pendingIndexes, pendingSamples);
+                writeError(generator, index - 1, "Malformed JSON: " + e.getOriginalMessage());
+                generator.flush();
+                return index;
+            }
+
+            flush(generator, pendingIndexes, pendingSamples);
+        }
+
+        log.info("NDJSON stream processed. Records: {}", index);
+        return index;
+    }
+
+    /**
+     * Advances past the end of the top-level record whose mapping failed, wherever inside it the
+     * deserializer stopped.
+     */
+    private static void skipToEndOfRecord(JsonParser parser) throws IOException {
+        while (!parser.getParsingContext().inRoot() && parser.nextToken() != null) {
+            // Each token moves the context; it is back at the root once the record's END_OBJECT is read
+        }
+    }
+
+    private void flush(JsonGenerator generator, List<Long> indexes, List<PreparedDna> samples) throws IOException {
+        if (!samples.isEmpty()) {
+            boolean[] verdicts = mutantService.analyzeBatch(List.copyOf(samples));
+            for (int i = 0; i < verdicts.length; i++) {
+                generator.writeStartObject();
+                generator.writeNumberField("index", indexes.get(i));
+                generator.writeBooleanField("mutant", verdicts[i]);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            indexes.clear();
+            samples.clear();
+        }
+        generator.flush();
+    }
+
+    private void writeError(JsonGenerator generator, long index, String message) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("index", index);
+        generator.writeStringField("error", message);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private String validate(DnaRequest record) {
+        Set<ConstraintViolation<DnaRequest>> violations = validator.validate(record);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,117 @@
+package com.magneto.service;
+
+import com.magneto.config.HashFilterProperties;
+import com.magneto.entity.DnaHash;
+import com.magneto.repository.VerdictStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bloom filter over every stored DNA hash, so that the verdict store is only asked about hashes
+ * that may be stored. Most submissions are new, and a definite miss skips the lookup entirely.
+ * <p>
+ * The filter is rebuilt from the store at startup, before requests are served, and every new
+ * verdict is added to it. If the rebuild fails, or when disabled, it answers "maybe" for every hash.
+ * A false positive only costs the lookup it would have skipped. A hash stored by another instance
+ * is unknown here: it is detected again and its insert is skipped as a duplicate, so verdicts and
+ * counters stay correct. Lookups are published as {@code mutant.hash.filter.lookups}, tagged
+ * {@code result=negative} (lookup skipped) or {@code result=positive}.
+ */
+@Component
+@Slf4j
+public class KnownHashFilter implements MeterBinder {
+
+    private final VerdictStore verdictStore;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    // Null until loaded
+    private volatile ScalableBloomFilter filter;
+
+    private final AtomicLong negatives = new AtomicLong();
+    private final AtomicLong positives = new AtomicLong();
+
+    public KnownHashFilter(VerdictStore verdictStore, HashFilterProperties properties) {
+        this.verdictStore = verdictStore;
+        this.enabled = properties.isEnabled();
+        this.expectedInsertions = properties.getExpectedInsertions();
+        this.falsePositiveRate = properties.getFalsePositiveRate();
+    }
+
+    /**
+     * Builds the filter from every stored hash, sized for them plus the expected insertions.
+     */
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            long stored = verdictStore.countByIsMutant(true) + verdictStore.countByIsMutant(false);
+            ScalableBloomFilter loading = new ScalableBloomFilter(stored + expectedInsertions, falsePositiveRate);
+            verdictStore.forEachHash(dnaHash -> add(loading, dnaHash));
+            filter = loading;
+            log.info("Known hash filter loaded - hashes: {}, time: {} ms",
+                    loading.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Failed to load the known hash filter, every hash will be looked up", e);
+        }
+    }
+
+    /**
+     * @return false if the hash is definitely not stored, true if it may be
+     */
+    public boolean mightContain(DnaHash dnaHash) {
+        ScalableBloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        boolean positive = current.mightContain(dnaHash.word(0), dnaHash.word(1));
+        (positive ? positives : negatives).incrementAndGet();
+        return positive;
+    }
+
+    /**
+     * Records a hash whose verdict is stored or about to be.
+     */
+    public void add(DnaHash dnaHash) {
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            add(current, dnaHash);
+        }
+    }
+
+    private static void add(ScalableBloomFilter target, DnaHash dnaHash) {
+        // The first 128 bits, the only ones a Murmur3 hash fills
+        target.add(dnaHash.word(0), dnaHash.word(1));
+    }
+
+    public boolean isLoaded() {
+        return filter != null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("mutant.hash.filter.lookups", negatives, AtomicLong::get)
+                .description("Store lookups answered by the known hash filter")
+                .tag("result", "negative")
+                .register(registry);
+        FunctionCounter.builder("mutant.hash.filter.lookups", positives, AtomicLong::get)
+                .description("Store lookups answered by the known hash filter")
+                .tag("result", "positive")
+                .register(registry);
+        Gauge.builder("mutant.hash.filter.size", this, known -> known.isLoaded() ? known.filter.size() : 0)
+                .description("Approximate number of hashes in the known hash filter")
+                .register(registry);
+    }
+}
@@ -0,0 +1,153 @@
+package com.magneto.service;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaHashAlgorithm;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 128-bit MurmurHash3 (x64 variant, seed 0) over the little-endian bytes of the packed words.
+ * <p>
+ * The packed form is a quarter of the size of the rows and already in memory, so the hash reads
+ * {@code n * ceil(n / 32)} words instead of {@code n * n} characters and copies nothing. The
+ * byte length fixes the matrix size, and the padding lanes past the last column are always zero,
+ * so equal matrices and only equal matrices give equal input. Not cryptographic: a client could
+ * craft two matrices with the same hash, and the second would get the verdict of the first.
+ */
+final class Murmur3HashStrategy implements DnaHashStrategy {
+
+    static final Murmur3HashStrategy INSTANCE = new Murmur3HashStrategy();
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private Murmur3HashStrategy() {
+    }
+
+    @Override
+    public DnaHashAlgorithm getAlgorithm() {
+        return DnaHashAlgorithm.MURMUR3_128;
+    }
+
+    @Override
+    public Hasher newHasher(int n) {
+        return new Murmur3Hasher();
+    }
+
+    /**
+     * 128-bit hash of arbitrary bytes, used to fold the policy key into a sample hash.
+     *
+     * @return the two 64-bit halves
+     */
+    static long[] hash(byte[] bytes) {
+        Murmur3Hasher hasher = new Murmur3Hasher();
+        int blocksEnd = bytes.length & ~15;
+        for (int offset = 0; offset < blocksEnd; offset += Long.BYTES) {
+            hasher.putLong(littleEndian(bytes, offset, Long.BYTES));
+        }
+        int tail = bytes.length - blocksEnd;
+        if (tail > 0) {
+            hasher.putLong(littleEndian(bytes, blocksEnd, Math.min(tail, Long.BYTES)));
+        }
+        if (tail > Long.BYTES) {
+            hasher.h2 ^= mixK2(littleEndian(bytes, blocksEnd + Long.BYTES, tail - Long.BYTES));
+        }
+        hasher.length = bytes.length;
+        hasher.finishBlocks();
+        return new long[]{hasher.h1, hasher.h2};
+    }
+
+    private static long littleEndian(byte[] bytes, int offset, int count) {
+        long word = 0;
+        for (int i = count - 1; i >= 0; i--) {
+            word = (word << 8) | (bytes[offset + i] & 0xffL);
+        }
+        return word;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static final class Murmur3Hasher implements Hasher {
+
+        private long h1;
+        private long h2;
+        private long pending;
+        private boolean hasPending;
+        private long length;
+
+        @Override
+        public void putRow(String sequence, long[] words, int rowOffset, int rowWords) {
+            for (int i = rowOffset, end = rowOffset + rowWords; i < end; i++) {
+                putLong(words[i]);
+            }
+            length += (long) rowWords * Long.BYTES;
+        }
+
+        @Override
+        public DnaHash finish(DetectionPolicy policy) {
+            if (!policy.isDefault()) {
+                // One extra block holding the hash of the key, so each policy has its own verdicts
+                long[] key = hash(policy.key().getBytes(StandardCharsets.US_ASCII));
+                putLong(key[0]);
+                putLong(key[1]);
+                length += 2 * Long.BYTES;
+            }
+            finishBlocks();
+            return DnaHash.of(h1, h2, 0, 0);
+        }
+
+        void putLong(long word) {
+            if (!hasPending) {
+                pending = word;
+                hasPending = true;
+                return;
+            }
+            hasPending = false;
+
+            h1 ^= mixK1(pending);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(word);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        void finishBlocks() {
+            if (hasPending) {
+                // Tail of up to 8 bytes: only k1
+                h1 ^= mixK1(pending);
+                hasPending = false;
+            }
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix64(h1);
+            h2 = fmix64(h2);
+            h1 += h2;
+            h2 += h1;
+        }
+    }
+}
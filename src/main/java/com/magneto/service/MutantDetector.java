@@ -1,14 +1,22 @@
 package com.magneto.service;
 
+import com.magneto.service.DetectionPolicy.Direction;
 import org.springframework.stereotype.Service;
 
 @Service
 public class MutantDetector {
 
-    private static final int SEQUENCE_LENGTH = 4;
-
     public boolean isMutant(String[] dna) {
+        return isMutant(dna, DetectionPolicy.DEFAULT);
+    }
+
+    public boolean isMutant(String[] dna, DetectionPolicy policy) {
+        if (dna == null || dna.length == 0) {
+            return false;
+        }
+
         int n = dna.length;
+        int length = policy.getSequenceLength();
 
         // Convertir a matriz de chars
         char[][] grid = new char[n][n];
@@ -22,42 +30,30 @@ public class MutantDetector {
             for (int col = 0; col < n; col++) {
                 char base = grid[row][col];
 
-                // Horizontal →
-                if (col <= n - SEQUENCE_LENGTH &&
-                        base == grid[row][col + 1] &&
-                        base == grid[row][col + 2] &&
-                        base == grid[row][col + 3]) {
-                    sequencesFound++;
-                }
+                for (Direction direction : policy.getDirections()) {
+                    int dRow = direction.getRowStep();
+                    int dCol = direction.getColumnStep();
 
-                // Vertical ↓
-                if (row <= n - SEQUENCE_LENGTH &&
-                        base == grid[row + 1][col] &&
-                        base == grid[row + 2][col] &&
-                        base == grid[row + 3][col]) {
-                    sequencesFound++;
-                }
+                    // Boundary checking: the run must end inside the grid
+                    int endRow = row + dRow * (length - 1);
+                    int endCol = col + dCol * (length - 1);
+                    if (endRow >= n || endCol < 0 || endCol >= n) {
+                        continue;
+                    }
 
-                // Diagonal ↘
-                if (row <= n - SEQUENCE_LENGTH &&
-                        col <= n - SEQUENCE_LENGTH &&
-                        base == grid[row + 1][col + 1] &&
-                        base == grid[row + 2][col + 2] &&
-                        base == grid[row + 3][col + 3]) {
-                    sequencesFound++;
-                }
+                    boolean run = true;
+                    for (int k = 1; k < length && run; k++) {
+                        run = base == grid[row + k * dRow][col + k * dCol];
+                    }
 
-                // Diagonal ↙
-                if (row <= n - SEQUENCE_LENGTH &&
-                        col >= SEQUENCE_LENGTH - 1 &&
-                        base == grid[row + 1][col - 1] &&
-                        base == grid[row + 2][col - 2] &&
-                        base == grid[row + 3][col - 3]) {
-                    sequencesFound++;
+                    // Sin solapamiento: solo cuentan los runs a múltiplos de length del inicio de la línea de bases iguales
+                    if (run && (policy.isOverlapping() || equalBefore(grid, row, col, dRow, dCol) % length == 0)) {
+                        sequencesFound++;
+                    }
                 }
 
-                // early termination: apenas haya 2+
-                if (sequencesFound > 1) {
+                // early termination: apenas haya suficientes
+                if (sequencesFound >= policy.getMinSequences()) {
                     return true;
                 }
             }
@@ -65,4 +61,20 @@ public class MutantDetector {
 
         return false;
     }
+
+    /**
+     * Number of bases equal to the one at (row, col) right before it along the direction.
+     */
+    private static int equalBefore(char[][] grid, int row, int col, int dRow, int dCol) {
+        int n = grid.length;
+        int count = 0;
+        int r = row - dRow;
+        int c = col - dCol;
+        while (r >= 0 && c >= 0 && c < n && grid[r][c] == grid[row][col]) {
+            count++;
+            r -= dRow;
+            c -= dCol;
+        }
+        return count;
+    }
 }
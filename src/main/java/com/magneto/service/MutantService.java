@@ -1,100 +1,309 @@
 package com.magneto.service;
 
+import com.magneto.entity.DnaHash;
 import com.magneto.entity.DnaRecord;
-import com.magneto.exception.DnaProcessingException;
-import com.magneto.repository.DnaRecordRepository;
+import com.magneto.repository.VerdictStore;
+import com.magneto.service.DetectionMetrics.Stage;
+import com.magneto.service.DetectionMetrics.Verdict;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Service for mutant DNA detection and persistence.
- * Implements SHA-256 hashing for deduplication strategy.
+ * Samples are deduplicated by the hash of the configured {@link DnaHashStrategy}.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MutantService {
 
-    private final MutantDetector mutantDetector;
-    private final DnaRecordRepository dnaRecordRepository;
+    private final DnaPreprocessor dnaPreprocessor;
+    private final PackedMutantDetector mutantDetector;
+    private final VerdictStore verdictStore;
+    private final VerdictCache verdictCache;
+    private final KnownHashFilter knownHashFilter;
+    private final VerificationCounter verificationCounter;
+    private final DetectionMetrics detectionMetrics;
+    private final WriteBehindWriter writeBehindWriter;
+
+    private final ConcurrentMap<DnaHash, CompletableFuture<Boolean>> inFlightVerdicts = new ConcurrentHashMap<>();
 
     /**
-     * Analyzes a DNA sequence and persists the result.
-     * Uses hash-based deduplication to avoid duplicate records.
+     * Validates and analyzes a raw DNA sequence.
      *
      * @param dnaSequence array of strings representing DNA matrix
      * @return true if mutant, false if human
      */
-    @Transactional
     public boolean analyzeDna(String[] dnaSequence) {
-        log.info("Analyzing DNA sequence of size: {}", dnaSequence.length);
+        return analyzeDna(dnaPreprocessor.prepare(dnaSequence));
+    }
+
+    /**
+     * Analyzes a DNA sequence and persists the result.
+     * Uses hash-based deduplication to avoid duplicate records. Verdicts already seen
+     * are answered from the in-memory cache without touching the verdict store.
+     * Concurrent requests for the same new hash share one lookup, detection and insert.
+     *
+     * @param dna validated, hashed and packed DNA sample
+     * @return true if mutant, false if human
+     */
+    public boolean analyzeDna(PreparedDna dna) {
+        log.info("Analyzing DNA sequence of size: {}", dna.getSize());
 
-        // Calculate hash for deduplication
-        String dnaHash = calculateDnaHash(dnaSequence);
+        DnaHash dnaHash = dna.getDnaHash();
         log.debug("Calculated DNA hash: {}", dnaHash);
 
+        Boolean cachedVerdict = verdictCache.get(dnaHash);
+        if (cachedVerdict != null) {
+            log.info("DNA already analyzed. Result from memory cache: isMutant={}", cachedVerdict);
+            detectionMetrics.recordVerdict(Verdict.DUPLICATE);
+            return cachedVerdict;
+        }
+
+        CompletableFuture<Boolean> verdict = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlight = inFlightVerdicts.putIfAbsent(dnaHash, verdict);
+        if (inFlight != null) {
+            log.info("DNA already being analyzed. Waiting for the in-flight result");
+            detectionMetrics.recordVerdict(Verdict.DUPLICATE);
+            return awaitVerdict(inFlight);
+        }
+
+        try {
+            boolean isMutant = resolveVerdict(dna);
+            verdict.complete(isMutant);
+            return isMutant;
+        } catch (RuntimeException e) {
+            verdict.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightVerdicts.remove(dnaHash, verdict);
+        }
+    }
+
+    /**
+     * Looks the hash up in the verdict store and, if it was never analyzed, detects and persists it.
+     * Hashes the known hash filter has never seen skip the lookup.
+     * Runs once per hash at a time; other requests for the hash wait for its result.
+     */
+    private boolean resolveVerdict(PreparedDna dna) {
+        DnaHash dnaHash = dna.getDnaHash();
+
         // Check if already analyzed
-        return dnaRecordRepository.findByDnaHash(dnaHash)
+        Boolean storedVerdict = knownHashFilter.mightContain(dnaHash)
+                ? detectionMetrics.time(Stage.LOOKUP, () -> findStoredVerdict(dnaHash))
+                : null;
+        if (storedVerdict != null) {
+            detectionMetrics.recordVerdict(Verdict.DUPLICATE);
+            verdictCache.put(dnaHash, storedVerdict);
+            return storedVerdict;
+        }
+
+        // Perform analysis
+        boolean isMutant = detectionMetrics.time(Stage.DETECT, () -> mutantDetector.isMutant(dna.getPackedDna(), dna.getPolicy()));
+        log.info("New DNA analyzed. Result: isMutant={}", isMutant);
+
+        // Save result
+        DnaRecord newRecord = DnaRecord.of(dnaHash, dna.getHashAlgorithm(), isMutant);
+
+        detectionMetrics.time(Stage.PERSIST, () -> persist(newRecord));
+        detectionMetrics.recordVerdict(isMutant);
+        log.debug("DNA record saved with hash: {}", dnaHash);
+
+        return isMutant;
+    }
+
+    /**
+     * Looks up the verdict of an already analyzed sample from the cache or the verdict store.
+     * Nothing is detected: a hash that was never analyzed has no verdict.
+     *
+     * @param dnaHash hash of the sample, as computed by {@link DnaPreprocessor}
+     * @return the verdict (true if mutant), empty if the hash is unknown
+     */
+    public Optional<Boolean> findVerdict(DnaHash dnaHash) {
+        Boolean cachedVerdict = verdictCache.get(dnaHash);
+        if (cachedVerdict != null) {
+            return Optional.of(cachedVerdict);
+        }
+        if (!knownHashFilter.mightContain(dnaHash)) {
+            return Optional.empty();
+        }
+
+        Boolean storedVerdict = detectionMetrics.time(Stage.LOOKUP, () -> findStoredVerdict(dnaHash));
+        if (storedVerdict != null) {
+            verdictCache.put(dnaHash, storedVerdict);
+        }
+        return Optional.ofNullable(storedVerdict);
+    }
+
+    /**
+     * Answers a resubmission identified by its hash alone, counted as a duplicate when known.
+     *
+     * @return the verdict (true if mutant), empty if the hash is unknown and the sample must be sent
+     */
+    public Optional<Boolean> replayVerdict(DnaHash dnaHash) {
+        Optional<Boolean> verdict = findVerdict(dnaHash);
+        if (verdict.isPresent()) {
+            log.info("DNA resubmitted by hash. Result: isMutant={}", verdict.get());
+            detectionMetrics.recordVerdict(Verdict.DUPLICATE);
+        }
+        return verdict;
+    }
+
+    private Boolean findStoredVerdict(DnaHash dnaHash) {
+        return verdictStore.findByDnaHash(dnaHash)
                 .map(existingRecord -> {
                     log.info("DNA already analyzed. Result from cache: isMutant={}", existingRecord.getIsMutant());
                     return existingRecord.getIsMutant();
                 })
-                .orElseGet(() -> {
-                    // Perform analysis
-                    boolean isMutant = mutantDetector.isMutant(dnaSequence);
-                    log.info("New DNA analyzed. Result: isMutant={}", isMutant);
-
-                    // Save result
-                    DnaRecord newRecord = new DnaRecord();
-                    newRecord.setDnaHash(dnaHash);
-                    newRecord.setIsMutant(isMutant);
-                    newRecord.setVerifiedAt(LocalDateTime.now());
-
-                    dnaRecordRepository.save(newRecord);
-                    log.debug("DNA record saved with hash: {}", dnaHash);
-
-                    return isMutant;
-                });
+                .orElse(null);
+    }
+
+    private static boolean awaitVerdict(CompletableFuture<Boolean> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     /**
-     * Calculates SHA-256 hash of the DNA sequence.
-     * Normalizes the DNA array to ensure consistent hashing.
+     * Analyzes many DNA sequences at once.
+     * Samples are deduplicated by hash within the batch, known hashes are resolved from the
+     * verdict cache and then with a single store lookup, detection of the new ones runs in
+     * parallel and the new records are inserted with one batched store call.
+     * <p>
+     * Not transactional: the lookup is a single query and the insert runs in a transaction of its
+     * own, so no connection is held while detecting or while waiting on a group commit, whose
+     * writer needs a connection of its own.
      *
-     * @param dnaSequence DNA array
-     * @return SHA-256 hash in hexadecimal format
+     * @param samples validated, hashed and packed DNA samples
+     * @return verdicts in the same order as the input (true if mutant)
      */
-    private String calculateDnaHash(String[] dnaSequence) {
-        try {
-            // Normalize: sort and join to ensure consistent hash for same DNA
-            String normalizedDna = String.join("", Arrays.asList(dnaSequence));
-
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(normalizedDna.getBytes(StandardCharsets.UTF_8));
-
-            // Convert to hexadecimal
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hashBytes) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
+    public boolean[] analyzeBatch(List<PreparedDna> samples) {
+        log.info("Analyzing DNA batch of {} samples", samples.size());
+
+        int size = samples.size();
+        Map<DnaHash, PreparedDna> uniqueSamples = new LinkedHashMap<>();
+        for (PreparedDna sample : samples) {
+            uniqueSamples.putIfAbsent(sample.getDnaHash(), sample);
+        }
+
+        Map<DnaHash, Boolean> verdicts = new HashMap<>(uniqueSamples.size() * 2);
+        List<DnaHash> newHashes = detectionMetrics.time(Stage.LOOKUP, () -> findVerdicts(uniqueSamples.keySet(), verdicts));
+
+        if (!newHashes.isEmpty()) {
+            // Perform analysis across cores
+            List<DnaRecord> newRecords = detectionMetrics.time(Stage.DETECT, () -> newHashes.parallelStream()
+                    .map(dnaHash -> {
+                        PreparedDna sample = uniqueSamples.get(dnaHash);
+                        return DnaRecord.of(dnaHash, sample.getHashAlgorithm(),
+                                mutantDetector.isMutant(sample.getPackedDna(), sample.getPolicy()));
+                    })
+                    .toList());
+
+            for (DnaRecord newRecord : newRecords) {
+                verdicts.put(newRecord.getDnaHash(), newRecord.getIsMutant());
+            }
+            long mutants = newRecords.stream().filter(DnaRecord::getIsMutant).count();
+            long humans = newRecords.size() - mutants;
+            detectionMetrics.time(Stage.PERSIST, () -> persistAll(newRecords));
+            detectionMetrics.recordVerdicts(Verdict.MUTANT, mutants);
+            detectionMetrics.recordVerdicts(Verdict.HUMAN, humans);
+        }
+        detectionMetrics.recordVerdicts(Verdict.DUPLICATE, size - newHashes.size());
+
+        log.info("Batch analyzed. Unique: {}, new: {}", uniqueSamples.size(), newHashes.size());
+
+        boolean[] results = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            results[i] = verdicts.get(samples.get(i).getDnaHash());
+        }
+        return results;
+    }
+
+    /**
+     * Inserts a new record, or queues it when write-behind persistence is enabled.
+     * Counters are only incremented for rows actually inserted: a hash stored meanwhile by
+     * another instance is skipped, not counted twice. Queued records are counted by the writer.
+     * <p>
+     * The verdict is cached only once the record is stored, so a failed insert is not answered
+     * from the cache on retry. A queued record is cached before it is queued, so a resubmission
+     * is answered while it waits; the writer evicts it again if it is dropped or its batch fails.
+     */
+    private void persist(DnaRecord newRecord) {
+        if (writeBehindWriter.isEnabled()) {
+            remember(newRecord);
+            writeBehindWriter.submit(newRecord);
+        } else {
+            if (verdictStore.insertIfAbsent(newRecord)) {
+                verificationCounter.record(newRecord);
             }
+            remember(newRecord);
+        }
+    }
 
-            return hexString.toString();
+    private void persistAll(List<DnaRecord> newRecords) {
+        if (writeBehindWriter.isEnabled()) {
+            newRecords.forEach(this::remember);
+            writeBehindWriter.submitAll(newRecords);
+        } else {
+            verificationCounter.recordAll(verdictStore.insertAllIfAbsent(newRecords));
+            newRecords.forEach(this::remember);
+        }
+    }
 
-        } catch (NoSuchAlgorithmException e) {
-            log.error("SHA-256 algorithm not available", e);
-            throw new DnaProcessingException("Failed to calculate DNA hash", e);
+    private void remember(DnaRecord newRecord) {
+        verdictCache.put(newRecord.getDnaHash(), newRecord.getIsMutant());
+        knownHashFilter.add(newRecord.getDnaHash());
+    }
+
+    /**
+     * Resolves known verdicts from the cache, then with a single store lookup for the rest
+     * that the known hash filter may have seen.
+     *
+     * @param dnaHashes unique hashes of the batch
+     * @param verdicts filled with the verdict of every known hash
+     * @return hashes that were never analyzed, in input order
+     */
+    private List<DnaHash> findVerdicts(Collection<DnaHash> dnaHashes, Map<DnaHash, Boolean> verdicts) {
+        List<DnaHash> uncached = new ArrayList<>();
+        for (DnaHash dnaHash : dnaHashes) {
+            Boolean cachedVerdict = verdictCache.get(dnaHash);
+            if (cachedVerdict != null) {
+                verdicts.put(dnaHash, cachedVerdict);
+            } else {
+                uncached.add(dnaHash);
+            }
         }
+
+        List<DnaHash> candidates = uncached.stream()
+                .filter(knownHashFilter::mightContain)
+                .toList();
+        if (!candidates.isEmpty()) {
+            for (DnaRecord existingRecord : verdictStore.findByDnaHashIn(candidates)) {
+                verdicts.put(existingRecord.getDnaHash(), existingRecord.getIsMutant());
+                verdictCache.put(existingRecord.getDnaHash(), existingRecord.getIsMutant());
+            }
+        }
+
+        return uncached.stream()
+                .filter(dnaHash -> !verdicts.containsKey(dnaHash))
+                .toList();
     }
 }
@@ -0,0 +1,106 @@
+package com.magneto.service;
+
+import com.magneto.exception.DnaProcessingException;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * DNA matrix encoded with 2 bits per nucleotide (A=0, C=1, G=2, T=3).
+ * Each row is packed into {@code long} words holding 32 bases, where the base at
+ * column {@code c} lives in word {@code c / 32} at bit offset {@code (c % 32) * 2}.
+ * Lanes past the end of the row are left as zero padding.
+ * <p>
+ * All rows share one flat array, row after row ({@code wordsPerRow} words each), so a
+ * top-to-bottom scan reads memory sequentially.
+ */
+@Getter
+public final class PackedDna {
+
+    public static final int BASES_PER_WORD = 32;
+
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    /** 2-bit code of each Latin-1 character, -1 for anything that is not a nucleotide. */
+    private static final byte[] CODES = new byte[256];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        for (int code = 0; code < BASES.length; code++) {
+            CODES[BASES[code]] = (byte) code;
+        }
+    }
+
+    private final int size;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    /**
+     * @param size matrix size (N)
+     * @param words N rows of {@link #wordsFor(int)} words each, row after row
+     */
+    public PackedDna(int size, long[] words) {
+        this.size = size;
+        this.wordsPerRow = wordsFor(size);
+        this.words = words;
+    }
+
+    /**
+     * Packs a validated NxN DNA matrix.
+     *
+     * @param dna array of strings representing DNA matrix
+     * @return packed representation
+     * @throws DnaProcessingException if a row is not N bases long or contains an unknown base
+     */
+    public static PackedDna pack(String[] dna) {
+        int n = dna.length;
+        int wordsPerRow = wordsFor(n);
+        long[] words = new long[n * wordsPerRow];
+
+        for (int row = 0; row < n; row++) {
+            String sequence = dna[row];
+            if (sequence == null || sequence.length() != n) {
+                throw new DnaProcessingException("DNA sequence must be NxN matrix");
+            }
+            int rowOffset = row * wordsPerRow;
+            for (int col = 0; col < n; col++) {
+                int code = encode(sequence.charAt(col));
+                if (code < 0) {
+                    throw new DnaProcessingException(String.format(
+                        "Invalid nucleotide '%c' at position [%d,%d]", sequence.charAt(col), row, col));
+                }
+                words[rowOffset + (col >>> 5)] |= (long) code << ((col & 31) << 1);
+            }
+        }
+
+        return new PackedDna(n, words);
+    }
+
+    /**
+     * Number of {@code long} words needed to hold a row of the given length.
+     */
+    public static int wordsFor(int size) {
+        return (size + BASES_PER_WORD - 1) / BASES_PER_WORD;
+    }
+
+    /**
+     * Returns the 2-bit code of a nucleotide, or -1 if it is not A, C, G or T.
+     */
+    public static int encode(char nucleotide) {
+        return nucleotide < CODES.length ? CODES[nucleotide] : -1;
+    }
+
+    /**
+     * Returns the nucleotide of a 2-bit code.
+     */
+    public static char decode(int code) {
+        return BASES[code];
+    }
+
+    /**
+     * Returns the nucleotide stored at the given position.
+     */
+    public char baseAt(int row, int col) {
+        return BASES[(int) (words[row * wordsPerRow + (col >>> 5)] >>> ((col & 31) << 1)) & 3];
+    }
+}
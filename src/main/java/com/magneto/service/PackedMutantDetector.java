@@ -0,0 +1,499 @@
+package com.magneto.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mutant detection engine working on 2-bit packed DNA.
+ * <p>
+ * Compares 32 bases per operation: two words are XORed and every 2-bit lane that
+ * folds to zero marks a position where both bases are equal. ANDing three such masks
+ * along a direction leaves one bit per run of four, which is then counted with
+ * {@link Long#bitCount(long)}. The grid is streamed row by row over the flat
+ * {@link PackedDna} buffer (see {@code Scan}).
+ * <p>
+ * Counts exactly the same sequences as {@link MutantDetector}, which is kept as the reference
+ * implementation. {@link DetectionPolicy#DEFAULT} runs on a scan specialized for runs of four in
+ * every direction; any other policy runs on a generic scan parameterized by run length and
+ * directions, which also supports non-overlapping runs.
+ * <p>
+ * Matrices of at least {@code mutant.detector.parallel-threshold} rows are split into row bands
+ * scanned by fork-join tasks; smaller ones keep the sequential path. Non-overlapping runs depend
+ * on the runs counted before them along their line, so those policies are always sequential.
+ * <p>
+ * {@link #findMatches} reports every run instead of a verdict. It runs on the generic scan even
+ * for the default policy, so the boolean path keeps its early exit and its specialized scan.
+ */
+@Service
+public class PackedMutantDetector {
+
+    private static final int SEQUENCE_LENGTH = 4;
+
+    /** Row pairs making up a run of four. */
+    private static final int PAIR_WINDOW = SEQUENCE_LENGTH - 1;
+
+    /** Low bit of every 2-bit lane. */
+    private static final long LANE_MASK = 0x5555555555555555L;
+
+    static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+    static final int DEFAULT_BAND_ROWS = 256;
+
+    private final int parallelThreshold;
+    private final int bandRows;
+    private final ForkJoinPool pool;
+
+    public PackedMutantDetector() {
+        this(DEFAULT_PARALLEL_THRESHOLD, DEFAULT_BAND_ROWS);
+    }
+
+    /**
+     * @param parallelThreshold matrix size (N) from which the grid is scanned in parallel
+     * @param bandRows number of start rows scanned by each fork-join task
+     */
+    @Autowired
+    public PackedMutantDetector(@Value("${mutant.detector.parallel-threshold:2048}") int parallelThreshold,
+                                @Value("${mutant.detector.band-rows:256}") int bandRows) {
+        this.parallelThreshold = parallelThreshold;
+        this.bandRows = Math.max(1, bandRows);
+        this.pool = ForkJoinPool.commonPool();
+    }
+
+    public boolean isMutant(String[] dna) {
+        if (dna == null || dna.length == 0) {
+            return false;
+        }
+        return isMutant(PackedDna.pack(dna));
+    }
+
+    public boolean isMutant(PackedDna dna) {
+        return isMutant(dna, DetectionPolicy.DEFAULT);
+    }
+
+    public boolean isMutant(PackedDna dna, DetectionPolicy policy) {
+        Scan scan = policy.isDefault() ? new DefaultScan(dna) : new PolicyScan(dna, policy);
+
+        if (dna.getSize() >= parallelThreshold && policy.isOverlapping()) {
+            pool.invoke(new BandTask(scan, 0, dna.getSize()));
+        } else {
+            scan.scanRows(0, dna.getSize());
+        }
+
+        return scan.isMutant();
+    }
+
+    /**
+     * Reports every run counted by the policy, in order of start row, then direction, then column.
+     * The scan does not stop at the verdict and runs are passed to the visitor as they are found,
+     * never collected.
+     *
+     * @param dna packed DNA
+     * @param policy rule defining the runs
+     * @param visitor receives each run
+     * @return number of runs found
+     */
+    public long findMatches(PackedDna dna, DetectionPolicy policy, MatchVisitor visitor) {
+        PolicyScan scan = new PolicyScan(dna, policy, visitor);
+        scan.scanRows(0, dna.getSize());
+        return scan.matches;
+    }
+
+    /**
+     * Receives the runs found by {@link #findMatches}.
+     */
+    @FunctionalInterface
+    public interface MatchVisitor {
+
+        /**
+         * @param row row of the first base of the run
+         * @param column column of the first base of the run
+         * @param direction direction from the first base to the others
+         * @param base the repeated base
+         */
+        void match(int row, int column, DetectionPolicy.Direction direction, char base);
+    }
+
+    /**
+     * Scans the start rows {@code [fromRow, toRow)} of a band. Vertical and diagonal runs end
+     * below their start, so adjacent bands overlap by the run length while every run is counted once.
+     */
+    private final class BandTask extends RecursiveAction {
+
+        private final Scan scan;
+        private final int fromRow;
+        private final int toRow;
+
+        BandTask(Scan scan, int fromRow, int toRow) {
+            this.scan = scan;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (scan.isMutant()) {
+                return;
+            }
+            if (toRow - fromRow <= bandRows) {
+                scan.scanRows(fromRow, toRow);
+                return;
+            }
+            int middle = (fromRow + toRow) >>> 1;
+            invokeAll(new BandTask(scan, fromRow, middle), new BandTask(scan, middle, toRow));
+        }
+    }
+
+    /**
+     * State of one detection: the packed grid and the sequence count shared by every band, so all
+     * tasks stop once enough sequences are found.
+     */
+    private abstract static class Scan {
+
+        final int n;
+        final int words;
+        final long[] grid;
+
+        private final int minSequences;
+        private final AtomicInteger sequencesFound = new AtomicInteger();
+
+        Scan(PackedDna dna, int minSequences) {
+            this.n = dna.getSize();
+            this.words = dna.getWordsPerRow();
+            this.grid = dna.getWords();
+            this.minSequences = minSequences;
+        }
+
+        boolean isMutant() {
+            return sequencesFound.get() >= minSequences;
+        }
+
+        /**
+         * Adds sequences found by a band.
+         *
+         * @return true once the matrix is known to be mutant
+         */
+        boolean found(int sequences) {
+            return sequences > 0 && sequencesFound.addAndGet(sequences) >= minSequences;
+        }
+
+        /**
+         * Counts the runs starting in rows {@code [fromRow, toRow)}.
+         */
+        abstract void scanRows(int fromRow, int toRow);
+    }
+
+    /**
+     * Scan specialized for {@link DetectionPolicy#DEFAULT}: overlapping runs of four, all directions.
+     * <p>
+     * The grid is read top to bottom, one row at a time. For each pair of adjacent rows a mask of
+     * equal bases is computed per direction (↓, ↘, ↙); a run of four is three consecutive pairs,
+     * so ANDing the masks of the last three pairs, shifted along the diagonal, yields every run
+     * ending at the current row. Only those three mask rows are kept, so each grid row is loaded
+     * once instead of once per row above it.
+     */
+    private static final class DefaultScan extends Scan {
+
+        // Lanes allowed to start a run in each direction
+        private final long[] anyStart;
+        private final long[] rightStart;
+        private final long[] leftStart;
+
+        DefaultScan(PackedDna dna) {
+            super(dna, DetectionPolicy.DEFAULT.getMinSequences());
+            this.anyStart = new long[words];
+            this.rightStart = new long[words];
+            this.leftStart = new long[words];
+            for (int w = 0; w < words; w++) {
+                anyStart[w] = columnMask(w, 0, n);
+                rightStart[w] = columnMask(w, 0, n - SEQUENCE_LENGTH + 1);
+                leftStart[w] = columnMask(w, SEQUENCE_LENGTH - 1, n);
+            }
+        }
+
+        @Override
+        void scanRows(int fromRow, int toRow) {
+            // Equal-pair masks of the last three row pairs, one ring of three mask rows per direction
+            long[] down = new long[PAIR_WINDOW * words];
+            long[] downRight = new long[PAIR_WINDOW * words];
+            long[] downLeft = new long[PAIR_WINDOW * words];
+
+            int lastRow = Math.min(toRow + SEQUENCE_LENGTH - 1, n);
+            for (int row = fromRow; row < lastRow; row++) {
+                // Another band may already have found the second sequence
+                if (isMutant()) {
+                    return;
+                }
+
+                int found = 0;
+                if (row < toRow) {
+                    found += horizontalRuns(row * words);
+                }
+                if (row > fromRow) {
+                    int slot = (row % PAIR_WINDOW) * words;
+                    pairMasks((row - 1) * words, row * words, slot, down, downRight, downLeft);
+                    if (row - fromRow >= SEQUENCE_LENGTH - 1) {
+                        found += columnRuns(row, down, downRight, downLeft);
+                    }
+                }
+
+                // early termination: apenas haya 2+
+                if (found(found)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Horizontal → runs starting in the row at {@code current}.
+         */
+        private int horizontalRuns(int current) {
+            int found = 0;
+            for (int w = 0; w < words; w++) {
+                long base = grid[current + w];
+                long runs = equalLanes(base, forward(grid, current, words, w, 1))
+                        & equalLanes(base, forward(grid, current, words, w, 2))
+                        & equalLanes(base, forward(grid, current, words, w, 3));
+                found += Long.bitCount(runs & rightStart[w]);
+            }
+            return found;
+        }
+
+        /**
+         * Lane {@code c} of each mask is set when the base at column {@code c} of the row at
+         * {@code above} equals the base below it (↓), below-right (↘) or below-left (↙).
+         */
+        private void pairMasks(int above, int below, int slot, long[] down, long[] downRight, long[] downLeft) {
+            for (int w = 0; w < words; w++) {
+                long base = grid[above + w];
+                down[slot + w] = equalLanes(base, grid[below + w]);
+                downRight[slot + w] = equalLanes(base, forward(grid, below, words, w, 1));
+                downLeft[slot + w] = equalLanes(base, backward(grid, below, words, w, 1));
+            }
+        }
+
+        /**
+         * ↓, ↘ and ↙ runs ending at {@code row}, i.e. starting three rows above it.
+         */
+        private int columnRuns(int row, long[] down, long[] downRight, long[] downLeft) {
+            int first = ((row - 2) % PAIR_WINDOW) * words;
+            int second = ((row - 1) % PAIR_WINDOW) * words;
+            int third = (row % PAIR_WINDOW) * words;
+
+            int found = 0;
+            for (int w = 0; w < words; w++) {
+                // Vertical ↓
+                long runs = down[first + w] & down[second + w] & down[third + w];
+                found += Long.bitCount(runs & anyStart[w]);
+
+                // Diagonal ↘
+                runs = downRight[first + w]
+                        & forward(downRight, second, words, w, 1)
+                        & forward(downRight, third, words, w, 2);
+                found += Long.bitCount(runs & rightStart[w]);
+
+                // Diagonal ↙
+                runs = downLeft[first + w]
+                        & backward(downLeft, second, words, w, 1)
+                        & backward(downLeft, third, words, w, 2);
+                found += Long.bitCount(runs & leftStart[w]);
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Scan for any other {@link DetectionPolicy}. For each start row and enabled direction, the
+     * equal-base masks of the start row against each of the following {@code length - 1} bases
+     * along the direction are ANDed, leaving one bit per run.
+     * <p>
+     * Overlapping runs are counted with {@link Long#bitCount(long)}. Non-overlapping ones are
+     * counted greedily along each line: a run is counted only if it starts after the end of the
+     * last run counted on its line, which cuts a line of equal bases into consecutive runs.
+     * <p>
+     * With a {@link MatchVisitor} every run is reported and the scan never stops early.
+     */
+    private static final class PolicyScan extends Scan {
+
+        private static final DetectionPolicy.Direction[] DIRECTIONS = DetectionPolicy.Direction.values();
+
+        private final PackedDna dna;
+        private final int length;
+        private final boolean overlapping;
+        private final MatchVisitor visitor;
+        // Runs reported to the visitor
+        private long matches;
+        // Lanes allowed to start a run, per direction; null for a disabled direction
+        private final long[][] startMasks = new long[DIRECTIONS.length][];
+        // Non-overlapping only: first row or column at which the next run of each line may start
+        private final int[][] nextStart = new int[DIRECTIONS.length][];
+
+        PolicyScan(PackedDna dna, DetectionPolicy policy) {
+            this(dna, policy, null);
+        }
+
+        PolicyScan(PackedDna dna, DetectionPolicy policy, MatchVisitor visitor) {
+            super(dna, policy.getMinSequences());
+            this.dna = dna;
+            this.length = policy.getSequenceLength();
+            this.overlapping = policy.isOverlapping();
+            this.visitor = visitor;
+            for (DetectionPolicy.Direction direction : policy.getDirections()) {
+                int span = (length - 1) * direction.getColumnStep();
+                long[] mask = new long[words];
+                for (int w = 0; w < words; w++) {
+                    mask[w] = columnMask(w, Math.max(0, -span), n - Math.max(0, span));
+                }
+                startMasks[direction.ordinal()] = mask;
+                if (!overlapping) {
+                    // n rows or columns, 2n - 1 diagonals
+                    int lines = direction.getRowStep() == 0 || direction.getColumnStep() == 0 ? n : 2 * n - 1;
+                    nextStart[direction.ordinal()] = new int[lines];
+                }
+            }
+        }
+
+        @Override
+        void scanRows(int fromRow, int toRow) {
+            for (int row = fromRow; row < toRow; row++) {
+                if (visitor == null && isMutant()) {
+                    return;
+                }
+
+                int found = 0;
+                for (DetectionPolicy.Direction direction : DIRECTIONS) {
+                    long[] mask = startMasks[direction.ordinal()];
+                    if (mask != null && row + (length - 1) * direction.getRowStep() < n) {
+                        found += runsFrom(row, direction, mask);
+                    }
+                }
+
+                if (visitor != null) {
+                    matches += found;
+                } else if (found(found)) {
+                    return;
+                }
+            }
+        }
+
+        private int runsFrom(int row, DetectionPolicy.Direction direction, long[] mask) {
+            int start = row * words;
+            int found = 0;
+            for (int w = 0; w < words; w++) {
+                long base = grid[start + w];
+                long runs = mask[w];
+                for (int k = 1; k < length && runs != 0; k++) {
+                    int offset = (row + k * direction.getRowStep()) * words;
+                    runs &= equalLanes(base, shifted(grid, offset, words, w, k * direction.getColumnStep()));
+                }
+                found += overlapping && visitor == null ? Long.bitCount(runs) : visitRuns(row, direction, w, runs);
+            }
+            return found;
+        }
+
+        /**
+         * Counts the runs of a word one by one, skipping the ones overlapping a counted run when
+         * runs cannot overlap, and reports them to the visitor if any.
+         */
+        private int visitRuns(int row, DetectionPolicy.Direction direction, int word, long runs) {
+            int[] next = nextStart[direction.ordinal()];
+            int found = 0;
+            for (; runs != 0; runs &= runs - 1) {
+                int col = word * PackedDna.BASES_PER_WORD + (Long.numberOfTrailingZeros(runs) >>> 1);
+                if (overlapping) {
+                    report(row, col, direction);
+                    found++;
+                    continue;
+                }
+
+                // Position along the line: the column for a row, the row for any other line
+                int line;
+                int position;
+                if (direction.getRowStep() == 0) {
+                    line = row;
+                    position = col;
+                } else {
+                    line = direction.getColumnStep() == 0 ? col
+                            : direction.getColumnStep() > 0 ? col - row + n - 1 : col + row;
+                    position = row;
+                }
+                if (position >= next[line]) {
+                    next[line] = position + length;
+                    report(row, col, direction);
+                    found++;
+                }
+            }
+            return found;
+        }
+
+        private void report(int row, int col, DetectionPolicy.Direction direction) {
+            if (visitor != null) {
+                visitor.match(row, col, direction, dna.baseAt(row, col));
+            }
+        }
+    }
+
+    /**
+     * Sets the low bit of every lane whose bases are equal in both words.
+     */
+    static long equalLanes(long a, long b) {
+        long diff = a ^ b;
+        return ~(diff | (diff >>> 1)) & LANE_MASK;
+    }
+
+    /**
+     * {@link #forward} for a positive offset, {@link #backward} for a negative one.
+     */
+    static long shifted(long[] words, int rowOffset, int rowWords, int word, int offset) {
+        if (offset > 0) {
+            return forward(words, rowOffset, rowWords, word, offset);
+        }
+        if (offset < 0) {
+            return backward(words, rowOffset, rowWords, word, -offset);
+        }
+        return words[rowOffset + word];
+    }
+
+    /**
+     * Word {@code word} of the row starting at {@code rowOffset}, shifted so that lane {@code c}
+     * holds the lane at column {@code c + offset}.
+     */
+    static long forward(long[] words, int rowOffset, int rowWords, int word, int offset) {
+        int shift = offset << 1;
+        long value = words[rowOffset + word] >>> shift;
+        if (word + 1 < rowWords) {
+            value |= words[rowOffset + word + 1] << (Long.SIZE - shift);
+        }
+        return value;
+    }
+
+    /**
+     * Word {@code word} of the row starting at {@code rowOffset}, shifted so that lane {@code c}
+     * holds the lane at column {@code c - offset}.
+     */
+    static long backward(long[] words, int rowOffset, int rowWords, int word, int offset) {
+        int shift = offset << 1;
+        long value = words[rowOffset + word] << shift;
+        if (word > 0) {
+            value |= words[rowOffset + word - 1] >>> (Long.SIZE - shift);
+        }
+        return value;
+    }
+
+    /**
+     * Low lane bits of word {@code word} for columns in {@code [from, to)}.
+     */
+    static long columnMask(int word, int from, int to) {
+        int first = Math.max(from - word * PackedDna.BASES_PER_WORD, 0);
+        int last = Math.min(to - word * PackedDna.BASES_PER_WORD, PackedDna.BASES_PER_WORD);
+        if (first >= last) {
+            return 0L;
+        }
+        long upper = last == PackedDna.BASES_PER_WORD ? -1L : (1L << (last << 1)) - 1;
+        long lower = (1L << (first << 1)) - 1;
+        return upper & ~lower & LANE_MASK;
+    }
+}
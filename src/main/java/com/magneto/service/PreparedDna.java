@@ -0,0 +1,26 @@
+package com.magneto.service;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaHashAlgorithm;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A validated DNA sample: its deduplication hash and the algorithm that produced it, its 2-bit
+ * packed bases and the rule it is analyzed under. For a policy other than
+ * {@link DetectionPolicy#DEFAULT} the hash also covers the policy, so each policy has its own
+ * verdict.
+ */
+@Getter
+@AllArgsConstructor
+public final class PreparedDna {
+
+    private final DnaHash dnaHash;
+    private final PackedDna packedDna;
+    private final DetectionPolicy policy;
+    private final DnaHashAlgorithm hashAlgorithm;
+
+    public int getSize() {
+        return packedDna.getSize();
+    }
+}
@@ -0,0 +1,135 @@
+package com.magneto.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Scalable Bloom filter: a chain of fixed-size Bloom filters where a new, twice as large stage is
+ * added when the last one reaches its capacity. Each stage gets half the false positive rate of
+ * the previous one, so the compound rate stays below the configured one however many entries are
+ * added.
+ * <p>
+ * Callers pass two independent 64-bit hashes of the key; the {@code k} bit positions of a stage
+ * are derived from them by double hashing. Thread-safe: bits are set with compare-and-set, and a
+ * concurrent add racing with a lookup at worst makes the lookup miss an entry still being added.
+ */
+final class ScalableBloomFilter {
+
+    private static final double TIGHTENING_RATIO = 0.5;
+    private static final int GROWTH_FACTOR = 2;
+
+    private volatile Stage[] stages;
+
+    /**
+     * @param initialCapacity entries of the first stage
+     * @param falsePositiveRate bound on the compound false positive rate, in (0, 1)
+     */
+    ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        this.stages = new Stage[]{
+            new Stage(Math.max(1, initialCapacity), falsePositiveRate * (1 - TIGHTENING_RATIO))
+        };
+    }
+
+    /**
+     * @return false if the key was never added, true if it probably was
+     */
+    boolean mightContain(long hash1, long hash2) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash1, hash2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void add(long hash1, long hash2) {
+        if (mightContain(hash1, hash2)) {
+            return;
+        }
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last.add(hash1, hash2) >= last.capacity) {
+            grow(current);
+        }
+    }
+
+    /**
+     * @return approximate number of distinct keys added
+     */
+    long size() {
+        long size = 0;
+        for (Stage stage : stages) {
+            size += stage.count.get();
+        }
+        return size;
+    }
+
+    int stageCount() {
+        return stages.length;
+    }
+
+    private synchronized void grow(Stage[] full) {
+        // Another add may already have grown the chain
+        if (stages != full) {
+            return;
+        }
+        Stage last = full[full.length - 1];
+        Stage[] grown = Arrays.copyOf(full, full.length + 1);
+        grown[full.length] = new Stage(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+        stages = grown;
+    }
+
+    private static final class Stage {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            // Optimal size and hash count: m = -n ln p / (ln 2)^2, k = m / n ln 2
+            double ln2 = Math.log(2);
+            this.bits = Math.max(Long.SIZE, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2)));
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * ln2));
+            this.words = new AtomicLongArray(Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE));
+        }
+
+        boolean mightContain(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(combined, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+                combined += hash2;
+            }
+            return true;
+        }
+
+        /**
+         * @return entries in the stage after the add
+         */
+        long add(long hash1, long hash2) {
+            long combined = hash1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(combined, bits);
+                int index = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long word;
+                do {
+                    word = words.get(index);
+                } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+                combined += hash2;
+            }
+            return count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.magneto.service;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaHashAlgorithm;
+import com.magneto.exception.DnaProcessingException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 over the bytes of the joined rows, the same key as the records stored before the
+ * strategies existed. Each sample clones a prototype digest instead of looking the algorithm up,
+ * which costs the same on platform and virtual threads, where a per-thread digest would never be
+ * reused.
+ */
+@Slf4j
+final class Sha256HashStrategy implements DnaHashStrategy {
+
+    static final Sha256HashStrategy INSTANCE = new Sha256HashStrategy();
+
+    private static final MessageDigest PROTOTYPE = newDigest();
+
+    private Sha256HashStrategy() {
+    }
+
+    @Override
+    public DnaHashAlgorithm getAlgorithm() {
+        return DnaHashAlgorithm.SHA_256;
+    }
+
+    @Override
+    public Hasher newHasher(int n) {
+        try {
+            return new Sha256Hasher((MessageDigest) PROTOTYPE.clone(), n);
+        } catch (CloneNotSupportedException e) {
+            return new Sha256Hasher(newDigest(), n);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            log.error("SHA-256 algorithm not available", e);
+            throw new DnaProcessingException("Failed to calculate DNA hash", e);
+        }
+    }
+
+    private static final class Sha256Hasher implements Hasher {
+
+        private final MessageDigest digest;
+        private final byte[] rowBytes;
+        private final int size;
+
+        Sha256Hasher(MessageDigest digest, int n) {
+            this.digest = digest;
+            this.rowBytes = new byte[n];
+            this.size = n;
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        public void putRow(String sequence, long[] words, int rowOffset, int rowWords) {
+            if (sequence != null) {
+                // Low byte of each char: the UTF-8 encoding of a validated row, so hashes match stored records
+                sequence.getBytes(0, size, rowBytes, 0);
+            } else {
+                for (int col = 0; col < size; col++) {
+                    int code = (int) (words[rowOffset + (col >>> 5)] >>> ((col & 31) << 1)) & 3;
+                    rowBytes[col] = (byte) PackedDna.decode(code);
+                }
+            }
+            digest.update(rowBytes, 0, size);
+        }
+
+        @Override
+        public DnaHash finish(DetectionPolicy policy) {
+            if (!policy.isDefault()) {
+                digest.update(policy.key().getBytes(StandardCharsets.US_ASCII));
+            }
+            return DnaHash.of(digest.digest());
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.magneto.service;
+
+import com.magneto.entity.DnaRecord;
+import com.magneto.entity.DnaStatsRollup;
+import com.magneto.entity.StatsGranularity;
+import com.magneto.repository.DnaStatsRollupRepository;
+import com.magneto.repository.VerdictStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Time-bucketed verification counts (dna_stats_rollup).
+ * <p>
+ * New records are added to per-minute deltas in memory and flushed periodically, together with the
+ * summary row, as increments of their minute, hour and day buckets. Range queries read the stored
+ * buckets and add the deltas not flushed yet, so their cost depends on the number of buckets, not on
+ * the number of verifications.
+ * <p>
+ * When the verdict store keeps its records outside the JPA datasource (the file store), the rollups
+ * are rebuilt from its records at startup, so ranged stats agree with the totals after a restart.
+ */
+@Component
+@Slf4j
+public class StatsRollup {
+
+    private final DnaStatsRollupRepository rollupRepository;
+    private final VerdictStore verdictStore;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<LocalDateTime, Counts> pending = new ConcurrentHashMap<>();
+    // A flush holds the write lock, so a query never sees deltas both in memory and stored
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    public StatsRollup(DnaStatsRollupRepository rollupRepository,
+                       VerdictStore verdictStore,
+                       PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.verdictStore = verdictStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Replaces the stored buckets with counts of the verdict store's records, when the store does
+     * not share the rollups' database. Runs once at startup, before any record is added.
+     */
+    @PostConstruct
+    public void rebuild() {
+        if (verdictStore.sharesRollupDatabase()) {
+            return;
+        }
+
+        Map<LocalDateTime, Counts> minutes = new HashMap<>();
+        verdictStore.forEachVerification((isMutant, verifiedAt) ->
+                minutes.merge(StatsGranularity.MINUTE.truncate(verifiedAt), Counts.of(isMutant), Counts::plus));
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.deleteAllInBatch();
+            rollupRepository.incrementAll(deltas(minutes));
+        });
+        log.info("Stats rollups rebuilt from the verdict store - minutes: {}", minutes.size());
+    }
+
+    /**
+     * Counts newly inserted records in the bucket of their verification time.
+     *
+     * @param records inserted records
+     */
+    public void add(Collection<DnaRecord> records) {
+        for (DnaRecord record : records) {
+            LocalDateTime verifiedAt = record.getVerifiedAt() != null ? record.getVerifiedAt() : LocalDateTime.now();
+            pending.merge(StatsGranularity.MINUTE.truncate(verifiedAt), Counts.of(record.getIsMutant()), Counts::plus);
+        }
+    }
+
+    /**
+     * Returns one bucket per granularity step overlapping {@code [from, to)}, including empty ones.
+     *
+     * @param granularity bucket width
+     * @param from start of the range, inclusive; the first bucket starts at its truncation
+     * @param to end of the range, exclusive
+     * @return buckets ordered by start
+     */
+    public List<DnaStatsRollup> buckets(StatsGranularity granularity, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime first = granularity.truncate(from);
+        Map<LocalDateTime, Counts> counts = new HashMap<>();
+
+        flushLock.readLock().lock();
+        try {
+            for (DnaStatsRollup stored : rollupRepository.findRange(granularity, first, to)) {
+                counts.put(stored.getBucketStart(), new Counts(stored.getMutantCount(), stored.getHumanCount()));
+            }
+            pending.forEach((minute, delta) -> {
+                LocalDateTime bucketStart = granularity.truncate(minute);
+                if (!bucketStart.isBefore(first) && bucketStart.isBefore(to)) {
+                    counts.merge(bucketStart, delta, Counts::plus);
+                }
+            });
+        } finally {
+            flushLock.readLock().unlock();
+        }
+
+        List<DnaStatsRollup> buckets = new ArrayList<>((int) granularity.bucketsBetween(from, to));
+        for (LocalDateTime start = first; start.isBefore(to); start = granularity.next(start)) {
+            Counts bucket = counts.getOrDefault(start, Counts.ZERO);
+            buckets.add(new DnaStatsRollup(granularity, start, bucket.mutants, bucket.humans));
+        }
+        return buckets;
+    }
+
+    /**
+     * Writes the pending deltas to their minute, hour and day buckets in one transaction.
+     * On failure the deltas are kept and retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${mutant.stats.flush-interval-ms:5000}",
+               initialDelayString = "${mutant.stats.flush-interval-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        flushLock.writeLock().lock();
+        try {
+            Map<LocalDateTime, Counts> drained = new HashMap<>();
+            for (LocalDateTime minute : pending.keySet()) {
+                Counts delta = pending.remove(minute);
+                if (delta != null) {
+                    drained.put(minute, delta);
+                }
+            }
+            if (drained.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> rollupRepository.incrementAll(deltas(drained)));
+            } catch (RuntimeException e) {
+                drained.forEach((minute, delta) -> pending.merge(minute, delta, Counts::plus));
+                log.warn("Failed to flush {} stats rollup minutes, retrying on next flush", drained.size(), e);
+            }
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Spreads per-minute deltas over the buckets of every granularity.
+     */
+    private static Collection<DnaStatsRollup> deltas(Map<LocalDateTime, Counts> minutes) {
+        Map<DnaStatsRollup.Key, Counts> buckets = new LinkedHashMap<>();
+        minutes.forEach((minute, delta) -> {
+            for (StatsGranularity granularity : StatsGranularity.values()) {
+                buckets.merge(new DnaStatsRollup.Key(granularity, granularity.truncate(minute)), delta, Counts::plus);
+            }
+        });
+
+        List<DnaStatsRollup> deltas = new ArrayList<>(buckets.size());
+        buckets.forEach((key, delta) ->
+                deltas.add(new DnaStatsRollup(key.getGranularity(), key.getBucketStart(), delta.mutants, delta.humans)));
+        return deltas;
+    }
+
+    /**
+     * Immutable mutant/human pair, merged atomically into the pending map.
+     */
+    private static final class Counts {
+
+        private static final Counts ZERO = new Counts(0, 0);
+
+        private final long mutants;
+        private final long humans;
+
+        private Counts(long mutants, long humans) {
+            this.mutants = mutants;
+            this.humans = humans;
+        }
+
+        private static Counts of(boolean isMutant) {
+            return isMutant ? new Counts(1, 0) : new Counts(0, 1);
+        }
+
+        private Counts plus(Counts other) {
+            return new Counts(mutants + other.mutants, humans + other.humans);
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.magneto.service;
 
+import com.magneto.dto.CacheStatsResponse;
+import com.magneto.dto.StatsBucket;
 import com.magneto.dto.StatsResponse;
-import com.magneto.repository.DnaRecordRepository;
+import com.magneto.dto.StatsSeriesResponse;
+import com.magneto.entity.DnaStatsRollup;
+import com.magneto.entity.StatsGranularity;
+import com.magneto.exception.InvalidStatsQueryException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Service for DNA verification statistics.
  */
@@ -14,18 +24,24 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class StatsService {
 
-    private final DnaRecordRepository dnaRecordRepository;
+    /** Largest number of buckets a range query may return. */
+    static final int MAX_BUCKETS = 10_000;
+
+    private final VerificationCounter verificationCounter;
+    private final VerdictCache verdictCache;
+    private final StatsRollup statsRollup;
 
     /**
      * Retrieves statistics about DNA verifications.
+     * Reads the incrementally maintained counters, so the cost does not grow with the table.
      *
      * @return StatsResponse with counts and ratio
      */
     public StatsResponse getVerificationStats() {
         log.info("Retrieving DNA verification statistics");
 
-        long mutantCount = dnaRecordRepository.countByIsMutant(true);
-        long humanCount = dnaRecordRepository.countByIsMutant(false);
+        long mutantCount = verificationCounter.getMutantCount();
+        long humanCount = verificationCounter.getHumanCount();
 
         double ratio = calculateRatio(mutantCount, humanCount);
 
@@ -34,6 +50,59 @@ public class StatsService {
         return new StatsResponse(mutantCount, humanCount, ratio);
     }
 
+    /**
+     * Retrieves per-bucket statistics over a time range.
+     * Reads the pre-aggregated rollup buckets, so the cost grows with the number of buckets,
+     * not with the number of verifications in the range.
+     *
+     * @param granularity bucket width: minute, hour or day
+     * @param from start of the range, inclusive
+     * @param to end of the range, exclusive
+     * @return StatsSeriesResponse with one bucket per step and the range totals
+     */
+    public StatsSeriesResponse getVerificationStats(String granularity, LocalDateTime from, LocalDateTime to) {
+        StatsGranularity bucketWidth = parseGranularity(granularity);
+        if (!to.isAfter(from)) {
+            throw new InvalidStatsQueryException("to", "Must be after from");
+        }
+        if (bucketWidth.bucketsBetween(from, to) > MAX_BUCKETS) {
+            throw new InvalidStatsQueryException("granularity",
+                    "Range spans more than " + MAX_BUCKETS + " buckets, use a coarser granularity");
+        }
+        log.info("Retrieving DNA verification statistics from {} to {} by {}", from, to, bucketWidth);
+
+        List<DnaStatsRollup> rollups = statsRollup.buckets(bucketWidth, from, to);
+        List<StatsBucket> buckets = new ArrayList<>(rollups.size());
+        long mutantCount = 0;
+        long humanCount = 0;
+        for (DnaStatsRollup rollup : rollups) {
+            buckets.add(new StatsBucket(rollup.getBucketStart(), rollup.getMutantCount(), rollup.getHumanCount(),
+                    calculateRatio(rollup.getMutantCount(), rollup.getHumanCount())));
+            mutantCount += rollup.getMutantCount();
+            humanCount += rollup.getHumanCount();
+        }
+
+        return new StatsSeriesResponse(bucketWidth.name().toLowerCase(Locale.ROOT), from, to,
+                mutantCount, humanCount, calculateRatio(mutantCount, humanCount), buckets);
+    }
+
+    /**
+     * Retrieves hit/miss/eviction counters of the verdict cache.
+     *
+     * @return CacheStatsResponse with the current counters
+     */
+    public CacheStatsResponse getCacheStats() {
+        return verdictCache.stats();
+    }
+
+    private static StatsGranularity parseGranularity(String granularity) {
+        try {
+            return StatsGranularity.parse(granularity);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidStatsQueryException("granularity", "Must be one of: minute, hour, day");
+        }
+    }
+
     /**
      * Calculates the ratio of mutant DNA to human DNA.
      *
@@ -0,0 +1,76 @@
+package com.magneto.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.magneto.dto.CacheStatsResponse;
+import com.magneto.entity.DnaHash;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded in-memory cache of verdicts keyed by DNA hash.
+ * A hash's verdict never changes, so entries are only evicted by size, or invalidated when the
+ * record behind them could not be stored.
+ * Hit, miss and eviction counters are also published as the {@code cache.*} meters tagged
+ * {@code cache=verdicts}.
+ */
+@Component
+public class VerdictCache implements MeterBinder {
+
+    static final String CACHE_NAME = "verdicts";
+
+    private final Cache<DnaHash, Boolean> cache;
+
+    public VerdictCache(@Value("${mutant.cache.max-size:100000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached verdict for a hash.
+     *
+     * @param dnaHash deduplication hash of the DNA sequence
+     * @return true/false if cached, null on a miss
+     */
+    public Boolean get(DnaHash dnaHash) {
+        return cache.getIfPresent(dnaHash);
+    }
+
+    public void put(DnaHash dnaHash, boolean isMutant) {
+        cache.put(dnaHash, isMutant);
+    }
+
+    /**
+     * Removes the verdict of a hash whose record could not be stored.
+     */
+    public void invalidate(DnaHash dnaHash) {
+        cache.invalidate(dnaHash);
+    }
+
+    /**
+     * Snapshot of the hit/miss/eviction counters.
+     *
+     * @return CacheStatsResponse with the current counters
+     */
+    public CacheStatsResponse stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                Math.round(stats.hitRate() * 100.0) / 100.0,
+                cache.estimatedSize());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new CaffeineCacheMetrics<>(cache, CACHE_NAME, Tags.empty()).bindTo(registry);
+    }
+}
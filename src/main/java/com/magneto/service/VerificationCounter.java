@@ -0,0 +1,151 @@
+package com.magneto.service;
+
+import com.magneto.entity.DnaRecord;
+import com.magneto.entity.DnaStatsSummary;
+import com.magneto.repository.DnaStatsSummaryRepository;
+import com.magneto.repository.VerdictStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory mutant/human counters updated on every new DNA record, so statistics are read in O(1)
+ * instead of counting the table.
+ * <p>
+ * The counters are periodically persisted to the summary row, and once more on shutdown, marked
+ * clean. A clean row seeds the counters at the next startup without recounting the store; any
+ * other row, left by a crash for instance, is ignored and the store is recounted. The row is only
+ * trusted for a store in the same database as the row, and assumes a single instance writes to it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VerificationCounter {
+
+    static final long SUMMARY_ID = 1L;
+
+    private final VerdictStore verdictStore;
+    private final DnaStatsSummaryRepository dnaStatsSummaryRepository;
+    private final StatsRollup statsRollup;
+
+    private final LongAdder mutantCount = new LongAdder();
+    private final LongAdder humanCount = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * Seeds the counters from a summary row written by a clean shutdown, or recounts the verdict
+     * store. Runs once at startup, before requests are accepted. The row is then rewritten as not
+     * clean, so a crash from here on leads to a recount.
+     */
+    @PostConstruct
+    public void rebuild() {
+        Optional<DnaStatsSummary> summary = verdictStore.sharesRollupDatabase()
+                ? dnaStatsSummaryRepository.findById(SUMMARY_ID).filter(DnaStatsSummary::isCleanShutdown)
+                : Optional.empty();
+
+        long mutants;
+        long humans;
+        if (summary.isPresent()) {
+            mutants = summary.get().getMutantCount();
+            humans = summary.get().getHumanCount();
+            log.info("Verification counters seeded from the summary of {} - Mutants: {}, Humans: {}",
+                    summary.get().getUpdatedAt(), mutants, humans);
+        } else {
+            mutants = verdictStore.countByIsMutant(true);
+            humans = verdictStore.countByIsMutant(false);
+            log.info("Verification counters rebuilt - Mutants: {}, Humans: {}", mutants, humans);
+        }
+
+        mutantCount.reset();
+        mutantCount.add(mutants);
+        humanCount.reset();
+        humanCount.add(humans);
+        persist();
+    }
+
+    /**
+     * Counts a newly inserted DNA record.
+     * Inside a transaction the increment is applied only after commit.
+     *
+     * @param record inserted record
+     */
+    public void record(DnaRecord record) {
+        recordAll(List.of(record));
+    }
+
+    /**
+     * Counts newly inserted DNA records, in the totals and in their stats rollup buckets.
+     * Inside a transaction the increment is applied only after commit.
+     *
+     * @param records inserted records
+     */
+    public void recordAll(List<DnaRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        long mutants = records.stream().filter(DnaRecord::getIsMutant).count();
+        long humans = records.size() - mutants;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(records, mutants, humans);
+                }
+            });
+        } else {
+            increment(records, mutants, humans);
+        }
+    }
+
+    public long getMutantCount() {
+        return mutantCount.sum();
+    }
+
+    public long getHumanCount() {
+        return humanCount.sum();
+    }
+
+    /**
+     * Writes the current counters to the summary row, not marked clean.
+     */
+    @Scheduled(fixedDelayString = "${mutant.stats.flush-interval-ms:5000}",
+               initialDelayString = "${mutant.stats.flush-interval-ms:5000}")
+    public void persist() {
+        if (!closed) {
+            save(false);
+        }
+    }
+
+    /**
+     * Writes the final counters to the summary row, marked clean. Runs after the write-behind
+     * writer has drained, so every stored record is counted; later scheduled writes are skipped.
+     */
+    @PreDestroy
+    public void close() {
+        closed = true;
+        save(true);
+    }
+
+    private void save(boolean cleanShutdown) {
+        dnaStatsSummaryRepository.save(new DnaStatsSummary(
+            SUMMARY_ID, getMutantCount(), getHumanCount(), LocalDateTime.now(), cleanShutdown));
+    }
+
+    private void increment(List<DnaRecord> records, long mutants, long humans) {
+        mutantCount.add(mutants);
+        humanCount.add(humans);
+        statsRollup.add(records);
+    }
+}
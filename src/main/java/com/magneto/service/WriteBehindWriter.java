@@ -0,0 +1,319 @@
+package com.magneto.service;
+
+import com.magneto.config.WriteBehindProperties;
+import com.magneto.config.WriteBehindProperties.BackpressurePolicy;
+import com.magneto.config.WriteBehindProperties.Durability;
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaRecord;
+import com.magneto.exception.DnaProcessingException;
+import com.magneto.repository.VerdictStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Background writer for new DNA records ({@code mutant.persistence.write-behind.enabled}).
+ * <p>
+ * Records are queued by hash, so a hash submitted again while still queued is coalesced into the
+ * pending entry. A single thread drains the queue in batches of up to {@code batch-size}, waiting
+ * up to {@code linger-ms} for a batch to fill and inserts it into the verdict store, skipping
+ * hashes already stored. The verification counters are updated once the batch commits.
+ * <p>
+ * The queue is bounded: a full queue blocks, runs the insert on the caller or drops the records
+ * depending on the backpressure policy. Records that are dropped, or whose batch fails, are
+ * evicted from the {@link VerdictCache}, so they are analyzed and submitted again instead of
+ * being answered from a verdict that was never stored. On shutdown, queued records are flushed
+ * before the counters are persisted.
+ */
+@Component
+@Slf4j
+public class WriteBehindWriter implements MeterBinder {
+
+    private final VerdictStore verdictStore;
+    private final VerificationCounter verificationCounter;
+    private final VerdictCache verdictCache;
+    private final TransactionTemplate transactionTemplate;
+    private final WriteBehindProperties properties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    // Guarded by lock; insertion order is write order
+    private final LinkedHashMap<DnaHash, Pending> pending = new LinkedHashMap<>();
+    private boolean closed;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private Thread worker;
+
+    public WriteBehindWriter(VerdictStore verdictStore,
+                             VerificationCounter verificationCounter,
+                             VerdictCache verdictCache,
+                             PlatformTransactionManager transactionManager,
+                             WriteBehindProperties properties) {
+        this.verdictStore = verdictStore;
+        this.verificationCounter = verificationCounter;
+        this.verdictCache = verdictCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        worker = new Thread(this::run, "verdict-writer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Write-behind persistence enabled - capacity: {}, batch: {}, backpressure: {}, durability: {}",
+                properties.getQueueCapacity(), properties.getBatchSize(),
+                properties.getBackpressure(), properties.getDurability());
+    }
+
+    public void submit(DnaRecord record) {
+        submitAll(List.of(record));
+    }
+
+    /**
+     * Queues new records. Returns once they are queued, or once their batch has committed in
+     * {@link Durability#GROUP_COMMIT} mode.
+     * <p>
+     * In group-commit mode, call it outside a transaction: the writer needs a pooled connection
+     * of its own, so callers holding one while they wait can exhaust the pool.
+     *
+     * @param records records of hashes not yet stored
+     * @throws DnaProcessingException in group-commit mode, if the batch could not be written
+     */
+    public void submitAll(List<DnaRecord> records) {
+        List<CompletableFuture<Void>> commits = new ArrayList<>(records.size());
+        List<DnaRecord> rejected = new ArrayList<>();
+
+        lock.lock();
+        try {
+            for (DnaRecord record : records) {
+                Pending queued = pending.get(record.getDnaHash());
+                if (queued != null) {
+                    commits.add(queued.committed);
+                } else if (awaitSpace()) {
+                    Pending entry = new Pending(record);
+                    pending.put(record.getDnaHash(), entry);
+                    commits.add(entry.committed);
+                    notEmpty.signal();
+                } else {
+                    rejected.add(record);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!rejected.isEmpty()) {
+            reject(rejected);
+        }
+        if (properties.getDurability() == Durability.GROUP_COMMIT) {
+            awaitCommit(commits);
+        }
+    }
+
+    /**
+     * Number of records waiting to be written.
+     */
+    public int getQueueSize() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops accepting records and waits for the queued ones to be written.
+     * Runs before {@link VerificationCounter#close()}, which this bean depends on.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        if (worker != null) {
+            worker.join(properties.getShutdownTimeoutMs());
+            int remaining = getQueueSize();
+            if (remaining > 0) {
+                log.warn("Write-behind queue not drained on shutdown, {} records lost", remaining);
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mutant.persistence.queue.size", this, WriteBehindWriter::getQueueSize)
+                .description("DNA records waiting for the write-behind writer")
+                .register(registry);
+        FunctionCounter.builder("mutant.persistence.written", written, LongAdder::sum)
+                .description("DNA records inserted by the write-behind writer")
+                .register(registry);
+        FunctionCounter.builder("mutant.persistence.dropped", dropped, LongAdder::sum)
+                .description("DNA records dropped by backpressure or failed writes")
+                .register(registry);
+    }
+
+    /**
+     * Waits for a free slot according to the backpressure policy. Must hold the lock.
+     *
+     * @return true if the record can be queued
+     */
+    private boolean awaitSpace() {
+        while (!closed && pending.size() >= properties.getQueueCapacity()) {
+            if (properties.getBackpressure() != BackpressurePolicy.BLOCK) {
+                return false;
+            }
+            notFull.awaitUninterruptibly();
+        }
+        return !closed;
+    }
+
+    private void reject(List<DnaRecord> records) {
+        boolean shuttingDown;
+        lock.lock();
+        try {
+            shuttingDown = closed;
+        } finally {
+            lock.unlock();
+        }
+
+        // Once closed nothing is queued anymore, so the caller writes its own records
+        if (shuttingDown || properties.getBackpressure() == BackpressurePolicy.CALLER_RUNS) {
+            try {
+                write(records);
+            } catch (RuntimeException e) {
+                evict(records);
+                throw e;
+            }
+        } else {
+            dropped.add(records.size());
+            evict(records);
+            log.warn("Write-behind queue full, {} DNA records not persisted", records.size());
+        }
+    }
+
+    private void awaitCommit(List<CompletableFuture<Void>> commits) {
+        try {
+            CompletableFuture.allOf(commits.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw new DnaProcessingException("Failed to persist DNA records", e.getCause());
+        }
+    }
+
+    private void run() {
+        List<Pending> batch;
+        while ((batch = take()) != null) {
+            List<DnaRecord> records = batch.stream().map(entry -> entry.record).toList();
+            try {
+                write(records);
+                batch.forEach(entry -> entry.committed.complete(null));
+            } catch (RuntimeException e) {
+                dropped.add(records.size());
+                evict(records);
+                log.error("Write-behind batch of {} DNA records failed", records.size(), e);
+                batch.forEach(entry -> entry.committed.completeExceptionally(e));
+            }
+        }
+        log.info("Write-behind writer stopped");
+    }
+
+    /**
+     * Takes the next batch, lingering for it to fill. Returns null once closed and drained.
+     */
+    private List<Pending> take() {
+        lock.lock();
+        try {
+            while (pending.isEmpty()) {
+                if (closed) {
+                    return null;
+                }
+                notEmpty.awaitUninterruptibly();
+            }
+
+            long lingerNanos = TimeUnit.MILLISECONDS.toNanos(properties.getLingerMs());
+            while (!closed && pending.size() < properties.getBatchSize() && lingerNanos > 0) {
+                lingerNanos = notEmpty.awaitNanos(lingerNanos);
+            }
+
+            List<Pending> batch = new ArrayList<>(Math.min(pending.size(), properties.getBatchSize()));
+            Iterator<Pending> iterator = pending.values().iterator();
+            while (iterator.hasNext() && batch.size() < properties.getBatchSize()) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            notFull.signalAll();
+            return batch;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts the records whose hash is not stored yet, in one transaction, and counts them
+     * once it commits.
+     */
+    private void write(List<DnaRecord> records) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            List<DnaRecord> newRecords = verdictStore.insertAllIfAbsent(records);
+            verificationCounter.recordAll(newRecords);
+            return newRecords.size();
+        });
+        written.add(inserted != null ? inserted : 0);
+    }
+
+    private void evict(List<DnaRecord> records) {
+        records.forEach(record -> verdictCache.invalidate(record.getDnaHash()));
+    }
+
+    /**
+     * A queued record and the future completed when its batch commits.
+     */
+    private static final class Pending {
+
+        private final DnaRecord record;
+        private final CompletableFuture<Void> committed = new CompletableFuture<>();
+
+        Pending(DnaRecord record) {
+            this.record = record;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.magneto.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks shared by {@link DnaSequenceValidator} and {@link com.magneto.service.DnaPreprocessor},
+ * so both accept the same matrices and report them with the same messages.
+ * <p>
+ * The valid path allocates nothing; positions and messages are only built once a check fails.
+ */
+public final class DnaSequenceChecks {
+
+    /** Largest matrix size accepted, which keeps the packed word count within an int. */
+    public static final int MAX_SIZE = 65_536;
+
+    /** Invalid positions listed in one error; the rest are only counted. */
+    public static final int MAX_REPORTED_NUCLEOTIDES = 20;
+
+    /** 0 for A, C, G and T, 1 for every other Latin-1 character. */
+    private static final byte[] INVALID = new byte[256];
+
+    static {
+        Arrays.fill(INVALID, (byte) 1);
+        for (char nucleotide : new char[]{'A', 'C', 'G', 'T'}) {
+            INVALID[nucleotide] = 0;
+        }
+    }
+
+    private DnaSequenceChecks() {
+    }
+
+    /**
+     * Checks that the matrix is NxN and at most {@link #MAX_SIZE} rows, without looking at its
+     * characters. Runs before anything is sized after the row count.
+     *
+     * @return message of the first structural error, null if there is none
+     */
+    public static String shapeError(String[] dnaSequence) {
+        if (dnaSequence == null || dnaSequence.length == 0) {
+            return DnaValidationMessages.EMPTY_SEQUENCE;
+        }
+        if (dnaSequence.length > MAX_SIZE) {
+            return DnaValidationMessages.sizeOutOfRange(MAX_SIZE, dnaSequence.length);
+        }
+
+        int n = dnaSequence.length;
+        for (int row = 0; row < n; row++) {
+            String sequence = dnaSequence[row];
+            if (sequence == null || sequence.isEmpty()) {
+                return DnaValidationMessages.EMPTY_ROW;
+            }
+            if (sequence.length() != n) {
+                return DnaValidationMessages.notSquare(n, sequence.length(), row);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * ORs the table entry of every character, plus any bit above Latin-1, and tests the result
+     * once at the end. Without a branch or early exit in the loop the JIT can unroll it freely,
+     * and a valid row, the common case, is read exactly once either way.
+     *
+     * @return true if every character is A, C, G or T
+     */
+    public static boolean isValidRow(String sequence) {
+        int invalid = 0;
+        for (int col = 0, length = sequence.length(); col < length; col++) {
+            char nucleotide = sequence.charAt(col);
+            invalid |= INVALID[nucleotide & 0xFF] | (nucleotide >>> 8);
+        }
+        return invalid == 0;
+    }
+
+    public static boolean isValidNucleotide(char nucleotide) {
+        return (INVALID[nucleotide & 0xFF] | (nucleotide >>> 8)) == 0;
+    }
+
+    /**
+     * Collects the invalid characters of an NxN matrix, from a row on. Only the error path calls
+     * it, once a row failed {@link #isValidRow}.
+     *
+     * @param fromRow first row to scan; the rows before it are known to be valid
+     */
+    public static InvalidNucleotides findInvalid(String[] dnaSequence, int fromRow) {
+        List<InvalidNucleotide> positions = new ArrayList<>();
+        int count = 0;
+        for (int row = fromRow; row < dnaSequence.length; row++) {
+            String sequence = dnaSequence[row];
+            if (isValidRow(sequence)) {
+                continue;
+            }
+            for (int col = 0; col < sequence.length(); col++) {
+                char nucleotide = sequence.charAt(col);
+                if (!isValidNucleotide(nucleotide)) {
+                    if (positions.size() < MAX_REPORTED_NUCLEOTIDES) {
+                        positions.add(new InvalidNucleotide(row, col, nucleotide));
+                    }
+                    count++;
+                }
+            }
+        }
+        return new InvalidNucleotides(positions, count);
+    }
+}
@@ -0,0 +1,56 @@
+package com.magneto.validation;
+
+import java.util.List;
+
+/**
+ * Error messages shared by every place that validates DNA sequences,
+ * so the 400 responses read the same regardless of the code path.
+ */
+public final class DnaValidationMessages {
+
+    public static final String EMPTY_SEQUENCE = "DNA sequence cannot be null or empty";
+    public static final String EMPTY_ROW = "DNA sequence row cannot be null or empty";
+
+    private static final String ALLOWED = "Only A, T, C, G are allowed";
+
+    private DnaValidationMessages() {
+    }
+
+    public static String sizeOutOfRange(int max, int found) {
+        return "Matrix size must be between 1 and " + max + ", found " + found;
+    }
+
+    public static String notSquare(int expected, int found, int row) {
+        return "DNA sequence must be NxN matrix. Expected " + expected + " characters per row, found "
+            + found + " at row " + row;
+    }
+
+    public static String invalidNucleotide(char nucleotide, int row, int col) {
+        return "Invalid nucleotide '" + nucleotide + "' at position [" + row + "," + col + "]. " + ALLOWED;
+    }
+
+    /**
+     * A single invalid character reads as {@link #invalidNucleotide}; several are listed, up to the
+     * given positions, with the count of those left out.
+     */
+    public static String invalidNucleotides(List<InvalidNucleotide> positions, int count) {
+        InvalidNucleotide first = positions.get(0);
+        if (count == 1) {
+            return invalidNucleotide(first.nucleotide(), first.row(), first.col());
+        }
+
+        StringBuilder message = new StringBuilder("Invalid nucleotides at ").append(count).append(" positions: ");
+        for (int i = 0; i < positions.size(); i++) {
+            InvalidNucleotide position = positions.get(i);
+            if (i > 0) {
+                message.append(", ");
+            }
+            message.append('\'').append(position.nucleotide()).append("' at [")
+                .append(position.row()).append(',').append(position.col()).append(']');
+        }
+        if (count > positions.size()) {
+            message.append(" and ").append(count - positions.size()).append(" more");
+        }
+        return message.append(". ").append(ALLOWED).toString();
+    }
+}
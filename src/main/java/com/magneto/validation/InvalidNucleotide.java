@@ -0,0 +1,7 @@
+package com.magneto.validation;
+
+/**
+ * Position of a character that is not a nucleotide.
+ */
+public record InvalidNucleotide(int row, int col, char nucleotide) {
+}
@@ -0,0 +1,14 @@
+package com.magneto.validation;
+
+import java.util.List;
+
+/**
+ * Invalid characters of a DNA matrix: the first {@link DnaSequenceChecks#MAX_REPORTED_NUCLEOTIDES}
+ * positions, in row order, and how many there are in all.
+ */
+public record InvalidNucleotides(List<InvalidNucleotide> positions, int count) {
+
+    public String message() {
+        return DnaValidationMessages.invalidNucleotides(positions, count);
+    }
+}
@@ -0,0 +1,60 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HexFormat;
+
+/**
+ * Converts {@code dna_verifications.dna_hash} from a 64-char hex string to a 32-byte binary key.
+ * <p>
+ * Rows are rewritten in JDBC batches into a new column, which then replaces the old one, so the
+ * unique index is rebuilt once over the binary values. The old constraint name is not relied on:
+ * schemas created by Hibernate named it themselves.
+ */
+public class V2__BinaryDnaHash extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("ALTER TABLE dna_verifications ADD COLUMN dna_key VARBINARY(32)");
+        }
+
+        HexFormat hex = HexFormat.of();
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE dna_verifications SET dna_key = ? WHERE id = ?")) {
+            select.setFetchSize(BATCH_SIZE);
+            try (ResultSet rows = select.executeQuery("SELECT id, dna_hash FROM dna_verifications")) {
+                int pending = 0;
+                while (rows.next()) {
+                    update.setBytes(1, hex.parseHex(rows.getString(2)));
+                    update.setLong(2, rows.getLong(1));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    update.executeBatch();
+                }
+            }
+        }
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("ALTER TABLE dna_verifications DROP COLUMN dna_hash");
+            ddl.execute("ALTER TABLE dna_verifications RENAME COLUMN dna_key TO dna_hash");
+            ddl.execute("ALTER TABLE dna_verifications ALTER COLUMN dna_hash SET NOT NULL");
+            ddl.execute("ALTER TABLE dna_verifications ADD CONSTRAINT uk_dna_verifications_dna_hash UNIQUE (dna_hash)");
+        }
+    }
+}
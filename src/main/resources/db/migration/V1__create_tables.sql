@@ -0,0 +1,17 @@
+-- Schema previously generated by Hibernate (ddl-auto=update).
+-- Existing databases are baselined at this version, see spring.flyway.baseline-on-migrate.
+
+CREATE TABLE dna_verifications (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    dna_hash    VARCHAR(64)  NOT NULL,
+    is_mutant   BOOLEAN      NOT NULL,
+    verified_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT uk_dna_verifications_dna_hash UNIQUE (dna_hash)
+);
+
+CREATE TABLE dna_stats_summary (
+    id           BIGINT       NOT NULL PRIMARY KEY,
+    mutant_count BIGINT       NOT NULL,
+    human_count  BIGINT       NOT NULL,
+    updated_at   TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,29 @@
+-- Pre-aggregated verification counts per minute, hour and day bucket, kept up to date on insert.
+
+CREATE TABLE dna_stats_rollup (
+    granularity  VARCHAR(8)   NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    mutant_count BIGINT       NOT NULL,
+    human_count  BIGINT       NOT NULL,
+    CONSTRAINT pk_dna_stats_rollup PRIMARY KEY (granularity, bucket_start)
+);
+
+-- One-off backfill of the records verified before the rollups existed
+
+INSERT INTO dna_stats_rollup (granularity, bucket_start, mutant_count, human_count)
+SELECT 'MINUTE', DATE_TRUNC('MINUTE', verified_at),
+       SUM(CASE WHEN is_mutant THEN 1 ELSE 0 END), SUM(CASE WHEN is_mutant THEN 0 ELSE 1 END)
+FROM dna_verifications
+GROUP BY DATE_TRUNC('MINUTE', verified_at);
+
+INSERT INTO dna_stats_rollup (granularity, bucket_start, mutant_count, human_count)
+SELECT 'HOUR', DATE_TRUNC('HOUR', verified_at),
+       SUM(CASE WHEN is_mutant THEN 1 ELSE 0 END), SUM(CASE WHEN is_mutant THEN 0 ELSE 1 END)
+FROM dna_verifications
+GROUP BY DATE_TRUNC('HOUR', verified_at);
+
+INSERT INTO dna_stats_rollup (granularity, bucket_start, mutant_count, human_count)
+SELECT 'DAY', DATE_TRUNC('DAY', verified_at),
+       SUM(CASE WHEN is_mutant THEN 1 ELSE 0 END), SUM(CASE WHEN is_mutant THEN 0 ELSE 1 END)
+FROM dna_verifications
+GROUP BY DATE_TRUNC('DAY', verified_at);
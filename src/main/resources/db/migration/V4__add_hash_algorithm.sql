@@ -0,0 +1,3 @@
+-- Algorithm of each deduplication hash; rows stored before it was recorded are SHA-256.
+
+ALTER TABLE dna_verifications ADD COLUMN hash_algorithm VARCHAR(16) DEFAULT 'SHA_256' NOT NULL;
@@ -0,0 +1,4 @@
+-- Whether the summary row was written by a clean shutdown, so the counters can be seeded from it
+-- instead of recounting dna_verifications. Rows written before it existed are recounted.
+
+ALTER TABLE dna_stats_summary ADD COLUMN clean_shutdown BOOLEAN DEFAULT FALSE NOT NULL;
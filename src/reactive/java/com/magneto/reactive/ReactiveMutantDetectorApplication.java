@@ -0,0 +1,21 @@
+package com.magneto.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Reactive variant of the Mutant Detection API: the same endpoints on WebFlux and R2DBC.
+ * Runs with the 'reactive' profile, whose settings in application-reactive.properties are
+ * layered on top of application.properties.
+ */
+@SpringBootApplication
+public class ReactiveMutantDetectorApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        SpringApplication application = new SpringApplication(ReactiveMutantDetectorApplication.class);
+        application.setAdditionalProfiles(PROFILE);
+        application.run(args);
+    }
+}
@@ -0,0 +1,36 @@
+package com.magneto.reactive.config;
+
+import com.magneto.config.DedupConfig;
+import com.magneto.config.DetectionConfig;
+import com.magneto.service.DetectionMetrics;
+import com.magneto.service.DnaPreprocessor;
+import com.magneto.service.PackedMutantDetector;
+import com.magneto.service.VerdictCache;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Wires the blocking-free parts of the main application (preprocessing, detection, verdict cache,
+ * metrics) into the reactive variant, and the scheduler that runs their CPU work.
+ */
+@Configuration
+@EnableConfigurationProperties(ReactiveProperties.class)
+@Import({DetectionConfig.class, DedupConfig.class, DetectionMetrics.class, DnaPreprocessor.class,
+        PackedMutantDetector.class, VerdictCache.class})
+public class ReactiveConfig {
+
+    /**
+     * Bounded pool for preprocessing and detection, so the event loop only moves bytes.
+     * Work beyond its queue fails fast with a {@link java.util.concurrent.RejectedExecutionException}
+     * instead of piling up behind a saturated CPU.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler detectionScheduler(ReactiveProperties properties) {
+        return Schedulers.newBoundedElastic(properties.getDetectionThreads(),
+                properties.getDetectionQueueCapacity(), "dna-detection");
+    }
+}
@@ -0,0 +1,20 @@
+package com.magneto.reactive.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the reactive variant ({@code mutant.reactive.*}).
+ */
+@ConfigurationProperties(prefix = "mutant.reactive")
+@Getter
+@Setter
+public class ReactiveProperties {
+
+    /** Threads that validate, hash and scan samples, off the event loop; one per core by default. */
+    private int detectionThreads = Runtime.getRuntime().availableProcessors();
+
+    /** Samples waiting for a detection thread; past it requests are rejected with 503. */
+    private int detectionQueueCapacity = 10_000;
+}
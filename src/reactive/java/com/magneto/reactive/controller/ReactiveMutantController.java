@@ -0,0 +1,188 @@
+package com.magneto.reactive.controller;
+
+import com.magneto.config.DedupProperties;
+import com.magneto.config.DedupProperties.ClientHashMode;
+import com.magneto.controller.MutantController;
+import com.magneto.dto.BatchDnaRequest;
+import com.magneto.dto.BatchDnaResponse;
+import com.magneto.dto.BatchItemResult;
+import com.magneto.dto.CacheStatsResponse;
+import com.magneto.dto.DnaRequest;
+import com.magneto.dto.DnaResponse;
+import com.magneto.dto.StatsResponse;
+import com.magneto.entity.DnaHash;
+import com.magneto.exception.InvalidDnaException;
+import com.magneto.reactive.service.ReactiveMutantService;
+import com.magneto.reactive.service.ReactiveStatsService;
+import com.magneto.service.DetectionPolicy;
+import com.magneto.service.DnaPreprocessor;
+import com.magneto.service.PreparedDna;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * WebFlux counterpart of {@link MutantController}: same paths, bodies, headers and status codes.
+ * <p>
+ * Bodies are decoded on the event loop; validation, hashing and detection run on the detection
+ * scheduler and persistence on R2DBC, so a request holds no thread while it waits. The packed
+ * body, NDJSON streaming, match report and ranged statistics endpoints are only served by the
+ * servlet application.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveMutantController {
+
+    private static final String DNA_HASH_HEADER = MutantController.DNA_HASH_HEADER;
+
+    private final DnaPreprocessor dnaPreprocessor;
+    private final ReactiveMutantService mutantService;
+    private final ReactiveStatsService statsService;
+    private final DedupProperties dedupProperties;
+    private final Scheduler detectionScheduler;
+
+    /**
+     * Returns 200 OK for mutants, 403 Forbidden for humans. A known {@value #DNA_HASH_HEADER} is
+     * answered in {@code trust} mode without reading the body.
+     */
+    @PostMapping("/mutant")
+    public Mono<ResponseEntity<DnaResponse>> detectMutant(
+            @Valid @RequestBody Mono<DnaRequest> dnaRequest,
+            @RequestHeader(name = DNA_HASH_HEADER, required = false) String claimedHash) {
+        Mono<ResponseEntity<DnaResponse>> analyzed = dnaRequest
+                .flatMap(request -> Mono.fromCallable(() -> prepare(request, claimedHash))
+                        .subscribeOn(detectionScheduler))
+                .flatMap(dna -> mutantService.analyzeDna(dna)
+                        .map(isMutant -> verdictResponse(dna.getDnaHash(), isMutant)));
+
+        if (claimedHash == null || dedupProperties.getClientHash() != ClientHashMode.TRUST) {
+            return analyzed;
+        }
+        DnaHash dnaHash = parseHash(claimedHash, DNA_HASH_HEADER);
+        return mutantService.replayVerdict(dnaHash)
+                .map(isMutant -> verdictResponse(dnaHash, isMutant))
+                .switchIfEmpty(analyzed);
+    }
+
+    /**
+     * Returns the stored verdict of a hash: 200 mutant, 403 human, 404 unknown, 304 when the
+     * If-None-Match already holds a verdict that is still stored.
+     */
+    @GetMapping("/mutant/{hash}")
+    public Mono<ResponseEntity<DnaResponse>> getVerdict(@PathVariable String hash, ServerWebExchange exchange) {
+        DnaHash dnaHash = parseHash(hash, "hash");
+        return mutantService.findVerdict(dnaHash)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(verdict -> {
+                    if (verdict.isEmpty()) {
+                        return Mono.just(ResponseEntity.notFound().build());
+                    }
+                    if (exchange.checkNotModified(etag(dnaHash))) {
+                        return Mono.empty();
+                    }
+                    return Mono.just(verdictResponse(dnaHash, verdict.get()));
+                });
+    }
+
+    /**
+     * Returns 200 OK with one verdict per sample, in request order.
+     */
+    @PostMapping("/mutant/batch")
+    public Mono<ResponseEntity<BatchDnaResponse>> detectMutantBatch(@Valid @RequestBody Mono<BatchDnaRequest> batchRequest) {
+        return batchRequest
+                .flatMap(request -> Mono.fromCallable(() -> prepareAll(request))
+                        .subscribeOn(detectionScheduler))
+                .flatMap(mutantService::analyzeBatch)
+                .map(verdicts -> {
+                    List<BatchItemResult> results = new ArrayList<>(verdicts.length);
+                    long mutantCount = 0;
+                    for (int i = 0; i < verdicts.length; i++) {
+                        results.add(new BatchItemResult(i, verdicts[i]));
+                        if (verdicts[i]) {
+                            mutantCount++;
+                        }
+                    }
+                    return ResponseEntity.ok(new BatchDnaResponse(results, mutantCount, verdicts.length - mutantCount));
+                });
+    }
+
+    @GetMapping("/stats")
+    public Mono<ResponseEntity<StatsResponse>> getStatistics() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(statsService.getVerificationStats()));
+    }
+
+    /**
+     * Ranged statistics come from the stats rollups, which this variant does not keep. The request
+     * is rejected rather than answered with the all-time totals, which have a different shape.
+     */
+    @GetMapping(value = "/stats", params = "from")
+    public Mono<ResponseEntity<StatsResponse>> getStatisticsSeries() {
+        return Mono.error(new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED,
+                "Ranged statistics (from, to, granularity) are only served by the servlet application"));
+    }
+
+    @GetMapping("/stats/cache")
+    public Mono<ResponseEntity<CacheStatsResponse>> getCacheStatistics() {
+        return Mono.fromSupplier(() -> ResponseEntity.ok(statsService.getCacheStats()));
+    }
+
+    @GetMapping("/health")
+    public Mono<ResponseEntity<String>> healthCheck() {
+        return Mono.just(ResponseEntity.ok("Mutant Detection API is running"));
+    }
+
+    private PreparedDna prepare(DnaRequest request, String claimedHash) {
+        DetectionPolicy policy = dnaPreprocessor.resolvePolicy(request.getPolicy(), "policy");
+        PreparedDna dna = dnaPreprocessor.prepare(request.getDna(), "dna", policy);
+        if (claimedHash != null && !parseHash(claimedHash, DNA_HASH_HEADER).equals(dna.getDnaHash())) {
+            throw new InvalidDnaException(DNA_HASH_HEADER, "Does not match the body, whose hash is " + dna.getDnaHash().toHex());
+        }
+        return dna;
+    }
+
+    private List<PreparedDna> prepareAll(BatchDnaRequest batchRequest) {
+        List<DnaRequest> requests = batchRequest.getSamples();
+        DetectionPolicy batchPolicy = dnaPreprocessor.resolvePolicy(batchRequest.getPolicy(), "policy");
+        List<PreparedDna> samples = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            DnaRequest request = requests.get(i);
+            DetectionPolicy policy = request.getPolicy() != null
+                    ? dnaPreprocessor.resolvePolicy(request.getPolicy(), "samples[" + i + "].policy")
+                    : batchPolicy;
+            samples.add(dnaPreprocessor.prepare(request.getDna(), "samples[" + i + "].dna", policy));
+        }
+        return samples;
+    }
+
+    private static DnaHash parseHash(String hex, String field) {
+        try {
+            return DnaHash.fromHex(hex);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDnaException(field, "DNA hash must be " + DnaHash.BYTES * 2 + " hexadecimal characters");
+        }
+    }
+
+    private static String etag(DnaHash dnaHash) {
+        return "\"" + dnaHash.toHex() + "\"";
+    }
+
+    private static ResponseEntity<DnaResponse> verdictResponse(DnaHash dnaHash, boolean isMutant) {
+        return ResponseEntity.status(isMutant ? HttpStatus.OK : HttpStatus.FORBIDDEN)
+                .header(DNA_HASH_HEADER, dnaHash.toHex())
+                .eTag(etag(dnaHash))
+                .body(DnaResponse.of(isMutant));
+    }
+}
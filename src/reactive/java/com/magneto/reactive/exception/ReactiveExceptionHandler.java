@@ -0,0 +1,58 @@
+package com.magneto.reactive.exception;
+
+import com.magneto.exception.GlobalExceptionHandler;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Error responses of the reactive variant: those of {@link GlobalExceptionHandler}, plus the
+ * WebFlux form of bean validation failures, detection overload and statuses raised explicitly,
+ * such as the 501 of features of the servlet application this variant does not serve.
+ */
+@RestControllerAdvice
+public class ReactiveExceptionHandler extends GlobalExceptionHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleBindException(WebExchangeBindException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
+
+    /**
+     * The detection scheduler queue is full: the client should retry later.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleRejectedExecutionException(RejectedExecutionException ex) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+        errorResponse.put("error", "Service Unavailable");
+        errorResponse.put("message", "Detection capacity exhausted, retry later");
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+    }
+
+    /**
+     * An explicit status raised by a handler, e.g. 501 for a feature only the servlet application
+     * serves. Without this, the generic handler would answer it with a 500.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, Object>> handleResponseStatusException(ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("timestamp", LocalDateTime.now());
+        errorResponse.put("status", status.value());
+        errorResponse.put("error", status.getReasonPhrase());
+        errorResponse.put("message", ex.getReason());
+
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
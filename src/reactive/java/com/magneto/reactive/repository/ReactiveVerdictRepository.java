@@ -0,0 +1,101 @@
+package com.magneto.reactive.repository;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaHashAlgorithm;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * R2DBC access to the {@code dna_verifications} table, the reactive counterpart of
+ * {@link com.magneto.repository.JpaVerdictStore}.
+ * <p>
+ * The insert uses the same {@code NOT EXISTS} guard as the JDBC one, so a stored hash is reported
+ * as not inserted; a concurrent insert of the same new hash losing on the unique key is too.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReactiveVerdictRepository {
+
+    private static final String FIND_SQL =
+            "SELECT is_mutant FROM dna_verifications WHERE dna_hash = :dnaHash";
+
+    private static final String FIND_ALL_SQL =
+            "SELECT dna_hash, is_mutant FROM dna_verifications WHERE dna_hash IN (:dnaHashes)";
+
+    private static final String INSERT_IF_ABSENT_SQL =
+            "INSERT INTO dna_verifications (dna_hash, hash_algorithm, is_mutant, verified_at) "
+                    + "SELECT :dnaHash, :hashAlgorithm, :isMutant, :verifiedAt "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM dna_verifications WHERE dna_hash = :dnaHash)";
+
+    private static final String COUNT_SQL =
+            "SELECT COUNT(*) FROM dna_verifications WHERE is_mutant = :isMutant";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * @return the stored verdict (true if mutant), empty if the hash was never analyzed
+     */
+    public Mono<Boolean> findVerdict(DnaHash dnaHash) {
+        return databaseClient.sql(FIND_SQL)
+                .bind("dnaHash", dnaHash.toBytes())
+                .map(row -> row.get("is_mutant", Boolean.class))
+                .one();
+    }
+
+    /**
+     * Looks many hashes up, {@value #BATCH_SIZE} per query.
+     *
+     * @return verdict of every stored hash among the given ones
+     */
+    public Mono<Map<DnaHash, Boolean>> findVerdicts(List<DnaHash> dnaHashes) {
+        List<List<byte[]>> chunks = new ArrayList<>();
+        for (int from = 0; from < dnaHashes.size(); from += BATCH_SIZE) {
+            chunks.add(dnaHashes.subList(from, Math.min(from + BATCH_SIZE, dnaHashes.size())).stream()
+                    .map(DnaHash::toBytes)
+                    .toList());
+        }
+
+        return Flux.fromIterable(chunks)
+                .concatMap(chunk -> databaseClient.sql(FIND_ALL_SQL)
+                        .bind("dnaHashes", chunk)
+                        .map(row -> Map.entry(DnaHash.of(row.get("dna_hash", byte[].class)),
+                                row.get("is_mutant", Boolean.class)))
+                        .all())
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new);
+    }
+
+    /**
+     * @return true if the row was inserted, false if the hash was already stored
+     */
+    public Mono<Boolean> insertIfAbsent(DnaHash dnaHash, DnaHashAlgorithm hashAlgorithm, boolean isMutant) {
+        return databaseClient.sql(INSERT_IF_ABSENT_SQL)
+                .bind("dnaHash", dnaHash.toBytes())
+                .bind("hashAlgorithm", hashAlgorithm.name())
+                .bind("isMutant", isMutant)
+                .bind("verifiedAt", LocalDateTime.now())
+                .fetch()
+                .rowsUpdated()
+                .map(count -> count > 0)
+                // A concurrent insert stored the same hash first
+                .onErrorReturn(DataIntegrityViolationException.class, false);
+    }
+
+    public Mono<Long> countByIsMutant(boolean isMutant) {
+        return databaseClient.sql(COUNT_SQL)
+                .bind("isMutant", isMutant)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+}
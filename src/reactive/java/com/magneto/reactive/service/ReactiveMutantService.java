@@ -0,0 +1,197 @@
+package com.magneto.reactive.service;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.reactive.config.ReactiveProperties;
+import com.magneto.reactive.repository.ReactiveVerdictRepository;
+import com.magneto.service.DetectionMetrics;
+import com.magneto.service.DetectionMetrics.Stage;
+import com.magneto.service.DetectionMetrics.Verdict;
+import com.magneto.service.PackedMutantDetector;
+import com.magneto.service.PreparedDna;
+import com.magneto.service.VerdictCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Non-blocking counterpart of {@link com.magneto.service.MutantService}.
+ * Lookups and inserts go through R2DBC; detection, the only CPU-heavy step, runs on the bounded
+ * detection scheduler, so no event-loop thread ever waits on the database or scans a matrix.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveMutantService {
+
+    private final PackedMutantDetector mutantDetector;
+    private final ReactiveVerdictRepository verdictRepository;
+    private final VerdictCache verdictCache;
+    private final ReactiveStatsService statsService;
+    private final DetectionMetrics detectionMetrics;
+    private final Scheduler detectionScheduler;
+    private final ReactiveProperties properties;
+
+    private final ConcurrentMap<DnaHash, CompletableFuture<Boolean>> inFlightVerdicts = new ConcurrentHashMap<>();
+
+    /**
+     * Analyzes a DNA sequence and persists the result, deduplicated by hash as in the blocking service.
+     * Concurrent requests for the same new hash share one lookup, detection and insert, which runs
+     * to completion even if the request that started it is cancelled.
+     *
+     * @param dna validated, hashed and packed DNA sample
+     * @return true if mutant, false if human
+     */
+    public Mono<Boolean> analyzeDna(PreparedDna dna) {
+        DnaHash dnaHash = dna.getDnaHash();
+
+        Boolean cachedVerdict = verdictCache.get(dnaHash);
+        if (cachedVerdict != null) {
+            log.debug("DNA already analyzed. Result from memory cache: isMutant={}", cachedVerdict);
+            detectionMetrics.recordVerdict(Verdict.DUPLICATE);
+            return Mono.just(cachedVerdict);
+        }
+
+        CompletableFuture<Boolean> verdict = new CompletableFuture<>();
+        CompletableFuture<Boolean> inFlight = inFlightVerdicts.putIfAbsent(dnaHash, verdict);
+        if (inFlight != null) {
+            detectionMetrics.recordVerdict(Verdict.DUPLICATE);
+            return Mono.fromFuture(inFlight, true);
+        }
+
+        resolveVerdict(dna)
+                .doFinally(signal -> inFlightVerdicts.remove(dnaHash, verdict))
+                .subscribe(verdict::complete, verdict::completeExceptionally);
+        return Mono.fromFuture(verdict, true);
+    }
+
+    private Mono<Boolean> resolveVerdict(PreparedDna dna) {
+        DnaHash dnaHash = dna.getDnaHash();
+        return verdictRepository.findVerdict(dnaHash)
+                .doOnNext(storedVerdict -> {
+                    detectionMetrics.recordVerdict(Verdict.DUPLICATE);
+                    verdictCache.put(dnaHash, storedVerdict);
+                })
+                .switchIfEmpty(Mono.defer(() -> detect(dna).flatMap(isMutant -> persist(dna, isMutant))));
+    }
+
+    /**
+     * Looks up the verdict of an already analyzed sample from the cache or the table.
+     *
+     * @return the verdict (true if mutant), empty if the hash is unknown
+     */
+    public Mono<Boolean> findVerdict(DnaHash dnaHash) {
+        Boolean cachedVerdict = verdictCache.get(dnaHash);
+        if (cachedVerdict != null) {
+            return Mono.just(cachedVerdict);
+        }
+        return verdictRepository.findVerdict(dnaHash)
+                .doOnNext(storedVerdict -> verdictCache.put(dnaHash, storedVerdict));
+    }
+
+    /**
+     * Answers a resubmission identified by its hash alone, counted as a duplicate when known.
+     *
+     * @return the verdict (true if mutant), empty if the hash is unknown and the sample must be sent
+     */
+    public Mono<Boolean> replayVerdict(DnaHash dnaHash) {
+        return findVerdict(dnaHash)
+                .doOnNext(isMutant -> {
+                    log.debug("DNA resubmitted by hash. Result: isMutant={}", isMutant);
+                    detectionMetrics.recordVerdict(Verdict.DUPLICATE);
+                });
+    }
+
+    /**
+     * Analyzes many DNA sequences at once: deduplicated by hash within the batch, known hashes
+     * resolved from the cache and then with batched lookups, new ones detected in parallel on
+     * the detection scheduler and inserted as they are detected.
+     *
+     * @param samples validated, hashed and packed DNA samples
+     * @return verdicts in the same order as the input (true if mutant)
+     */
+    public Mono<boolean[]> analyzeBatch(List<PreparedDna> samples) {
+        Map<DnaHash, PreparedDna> uniqueSamples = new LinkedHashMap<>();
+        for (PreparedDna sample : samples) {
+            uniqueSamples.putIfAbsent(sample.getDnaHash(), sample);
+        }
+
+        Map<DnaHash, Boolean> verdicts = new HashMap<>(uniqueSamples.size() * 2);
+        List<DnaHash> uncached = new ArrayList<>();
+        for (DnaHash dnaHash : uniqueSamples.keySet()) {
+            Boolean cachedVerdict = verdictCache.get(dnaHash);
+            if (cachedVerdict != null) {
+                verdicts.put(dnaHash, cachedVerdict);
+            } else {
+                uncached.add(dnaHash);
+            }
+        }
+
+        return verdictRepository.findVerdicts(uncached)
+                .flatMapMany(storedVerdicts -> {
+                    storedVerdicts.forEach((dnaHash, isMutant) -> {
+                        verdicts.put(dnaHash, isMutant);
+                        verdictCache.put(dnaHash, isMutant);
+                    });
+                    List<PreparedDna> newSamples = uncached.stream()
+                            .filter(dnaHash -> !storedVerdicts.containsKey(dnaHash))
+                            .map(uniqueSamples::get)
+                            .toList();
+                    return Flux.fromIterable(newSamples)
+                            .flatMap(sample -> detect(sample)
+                                    .flatMap(isMutant -> persist(sample, isMutant))
+                                    .map(isMutant -> Map.entry(sample.getDnaHash(), isMutant)),
+                                    properties.getDetectionThreads());
+                })
+                .doOnNext(detected -> verdicts.put(detected.getKey(), detected.getValue()))
+                .count()
+                .map(newCount -> {
+                    detectionMetrics.recordVerdicts(Verdict.DUPLICATE, samples.size() - newCount);
+                    log.info("Batch analyzed. Unique: {}, new: {}", uniqueSamples.size(), newCount);
+
+                    boolean[] results = new boolean[samples.size()];
+                    for (int i = 0; i < results.length; i++) {
+                        results[i] = verdicts.get(samples.get(i).getDnaHash());
+                    }
+                    return results;
+                });
+    }
+
+    private Mono<Boolean> detect(PreparedDna dna) {
+        return Mono.fromCallable(() -> detectionMetrics.time(Stage.DETECT,
+                        () -> mutantDetector.isMutant(dna.getPackedDna(), dna.getPolicy())))
+                .subscribeOn(detectionScheduler);
+    }
+
+    /**
+     * Inserts and caches a new verdict. Only rows actually inserted are counted: a hash stored
+     * meanwhile by another instance is skipped, not counted twice. The verdict is cached once the
+     * insert completes, so a failed insert is not answered from the cache on retry; resubmissions
+     * during the insert wait on the in-flight result instead.
+     */
+    private Mono<Boolean> persist(PreparedDna dna, boolean isMutant) {
+        DnaHash dnaHash = dna.getDnaHash();
+        log.debug("New DNA analyzed. Result: isMutant={}", isMutant);
+
+        detectionMetrics.recordVerdict(isMutant);
+        return verdictRepository.insertIfAbsent(dnaHash, dna.getHashAlgorithm(), isMutant)
+                .doOnNext(inserted -> {
+                    if (inserted) {
+                        statsService.record(isMutant);
+                    }
+                    verdictCache.put(dnaHash, isMutant);
+                })
+                .thenReturn(isMutant);
+    }
+}
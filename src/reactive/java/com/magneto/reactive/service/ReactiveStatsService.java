@@ -0,0 +1,69 @@
+package com.magneto.reactive.service;
+
+import com.magneto.dto.CacheStatsResponse;
+import com.magneto.dto.StatsResponse;
+import com.magneto.reactive.repository.ReactiveVerdictRepository;
+import com.magneto.service.VerdictCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * DNA verification statistics of the reactive variant, read in O(1) from in-memory counters.
+ * The counters are rebuilt from the table at startup and incremented on every inserted record.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveStatsService implements SmartInitializingSingleton {
+
+    private final ReactiveVerdictRepository verdictRepository;
+    private final VerdictCache verdictCache;
+
+    private final LongAdder mutantCount = new LongAdder();
+    private final LongAdder humanCount = new LongAdder();
+
+    /**
+     * Recounts the table. Runs once at startup, after Flyway migrated it and before the server
+     * accepts requests, so blocking here holds no event loop.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long mutants = verdictRepository.countByIsMutant(true).blockOptional().orElse(0L);
+        long humans = verdictRepository.countByIsMutant(false).blockOptional().orElse(0L);
+
+        mutantCount.reset();
+        mutantCount.add(mutants);
+        humanCount.reset();
+        humanCount.add(humans);
+
+        log.info("Verification counters rebuilt - Mutants: {}, Humans: {}", mutants, humans);
+    }
+
+    /**
+     * Counts a newly inserted record.
+     */
+    public void record(boolean isMutant) {
+        (isMutant ? mutantCount : humanCount).increment();
+    }
+
+    public StatsResponse getVerificationStats() {
+        long mutants = mutantCount.sum();
+        long humans = humanCount.sum();
+        return new StatsResponse(mutants, humans, calculateRatio(mutants, humans));
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        return verdictCache.stats();
+    }
+
+    private static double calculateRatio(long mutantCount, long humanCount) {
+        if (humanCount == 0) {
+            return mutantCount > 0 ? 1.0 : 0.0;
+        }
+        return Math.round((double) mutantCount / humanCount * 100.0) / 100.0;
+    }
+}
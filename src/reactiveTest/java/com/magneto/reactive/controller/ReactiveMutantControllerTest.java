@@ -0,0 +1,215 @@
+package com.magneto.reactive.controller;
+
+import com.magneto.dto.BatchDnaRequest;
+import com.magneto.dto.DnaRequest;
+import com.magneto.dto.StatsResponse;
+import com.magneto.reactive.ReactiveMutantDetectorApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end tests of the reactive variant over Netty, R2DBC and the Flyway-migrated H2 schema.
+ * Every test analyzes matrices of its own sizes, so they do not see each other's records.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles(ReactiveMutantDetectorApplication.PROFILE)
+class ReactiveMutantControllerTest {
+
+    private static final String DNA_HASH_HEADER = "X-Dna-Hash";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("POST /mutant should return 200 for mutants and 403 for humans, with the hash and ETag")
+    void testDetectMutant() {
+        String hash = post(mutant(6))
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.mutant").isEqualTo(true)
+                .returnResult()
+                .getResponseHeaders().getFirst(DNA_HASH_HEADER);
+        assertNotNull(hash);
+        assertEquals(64, hash.length());
+
+        post(human(6))
+                .expectStatus().isForbidden()
+                .expectBody()
+                .jsonPath("$.mutant").isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("POST /mutant should return 400 for invalid DNA")
+    void testDetectMutantInvalid() {
+        post(new String[]{"ATGX", "CAGT", "TTAT", "AGAA"})
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.dna").exists();
+
+        post(new String[0])
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed")
+                .jsonPath("$.errors.dna").exists();
+    }
+
+    @Test
+    @DisplayName("Should store a resubmitted sample once")
+    void testResubmissionCountedOnce() {
+        StatsResponse before = stats();
+
+        post(mutant(7)).expectStatus().isOk();
+        post(mutant(7)).expectStatus().isOk();
+        post(human(7)).expectStatus().isForbidden();
+
+        StatsResponse after = stats();
+        assertEquals(before.getCountMutantDna() + 1, after.getCountMutantDna());
+        assertEquals(before.getCountHumanDna() + 1, after.getCountHumanDna());
+    }
+
+    @Test
+    @DisplayName("GET /mutant/{hash} should return the stored verdict, 304 on a matching ETag and 404 when unknown")
+    void testGetVerdict() {
+        String hash = post(human(8)).expectStatus().isForbidden()
+                .returnResult(String.class).getResponseHeaders().getFirst(DNA_HASH_HEADER);
+
+        webTestClient.get().uri("/mutant/{hash}", hash).exchange()
+                .expectStatus().isForbidden()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + hash + "\"");
+        webTestClient.get().uri("/mutant/{hash}", hash)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + hash + "\"")
+                .exchange()
+                .expectStatus().isNotModified();
+        webTestClient.get().uri("/mutant/{hash}", "0".repeat(64)).exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/mutant/{hash}", "0".repeat(64))
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + "0".repeat(64) + "\"")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().doesNotExist(HttpHeaders.ETAG);
+        webTestClient.get().uri("/mutant/{hash}", "xyz").exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors.hash").exists();
+    }
+
+    @Test
+    @DisplayName("POST /mutant should answer a known X-Dna-Hash without reading the body and reject a mismatched one")
+    void testReplayByHash() {
+        String hash = post(mutant(9)).expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getFirst(DNA_HASH_HEADER);
+
+        webTestClient.post().uri("/mutant")
+                .header(DNA_HASH_HEADER, hash)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(DNA_HASH_HEADER, hash);
+
+        webTestClient.post().uri("/mutant")
+                .header(DNA_HASH_HEADER, "f".repeat(64))
+                .bodyValue(new DnaRequest(human(9)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.errors['" + DNA_HASH_HEADER + "']").exists();
+    }
+
+    @Test
+    @DisplayName("POST /mutant/batch should return one verdict per sample in request order")
+    void testDetectMutantBatch() {
+        BatchDnaRequest batch = new BatchDnaRequest(List.of(
+                new DnaRequest(mutant(10)), new DnaRequest(human(10)), new DnaRequest(mutant(10)), new DnaRequest(mutant(11))));
+
+        webTestClient.post().uri("/mutant/batch")
+                .bodyValue(batch)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results.length()").isEqualTo(4)
+                .jsonPath("$.results[0].mutant").isEqualTo(true)
+                .jsonPath("$.results[1].mutant").isEqualTo(false)
+                .jsonPath("$.results[2].mutant").isEqualTo(true)
+                .jsonPath("$.results[3].index").isEqualTo(3)
+                .jsonPath("$.count_mutant_dna").isEqualTo(3)
+                .jsonPath("$.count_human_dna").isEqualTo(1);
+
+        // Already stored by the batch
+        post(human(10)).expectStatus().isForbidden();
+        webTestClient.post().uri("/mutant/batch")
+                .bodyValue(new BatchDnaRequest(List.of()))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    @DisplayName("GET /stats should reject ranged queries instead of answering the totals")
+    void testRangedStatsNotImplemented() {
+        webTestClient.get().uri("/stats?from=2024-05-01T00:00:00&granularity=hour").exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Not Implemented")
+                .jsonPath("$.message").value(message -> assertTrue(message.toString().contains("servlet application")));
+    }
+
+    @Test
+    @DisplayName("GET /health should report the service as running")
+    void testHealth() {
+        webTestClient.get().uri("/health").exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Mutant Detection API is running");
+    }
+
+    private WebTestClient.ResponseSpec post(String[] dna) {
+        return webTestClient.post().uri("/mutant")
+                .bodyValue(new DnaRequest(dna))
+                .exchange();
+    }
+
+    private StatsResponse stats() {
+        return webTestClient.get().uri("/stats").exchange()
+                .expectStatus().isOk()
+                .expectBody(StatsResponse.class)
+                .returnResult().getResponseBody();
+    }
+
+    /**
+     * NxN matrix without any run: consecutive cells differ along every direction.
+     */
+    private static String[] human(int size) {
+        String[] dna = new String[size];
+        for (int row = 0; row < size; row++) {
+            StringBuilder sequence = new StringBuilder(size);
+            for (int column = 0; column < size; column++) {
+                sequence.append("ACGT".charAt((row * 2 + column) % 4));
+            }
+            dna[row] = sequence.toString();
+        }
+        return dna;
+    }
+
+    /**
+     * The human matrix of the same size with two horizontal runs on its first rows.
+     */
+    private static String[] mutant(int size) {
+        String[] dna = human(size);
+        dna[0] = "A".repeat(size);
+        dna[1] = "C".repeat(size);
+        return dna;
+    }
+}
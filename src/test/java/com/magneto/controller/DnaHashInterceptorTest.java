@@ -0,0 +1,66 @@
+package com.magneto.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magneto.config.DedupProperties;
+import com.magneto.entity.DnaHash;
+import com.magneto.service.MutantService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for answering replays by hash ahead of the controller.
+ */
+class DnaHashInterceptorTest {
+
+    private static final DnaHash HASH = DnaHash.fromHex("ab".repeat(32));
+
+    private final MutantService mutantService = mock(MutantService.class);
+
+    @Test
+    @DisplayName("Should answer a known hash in trust mode and stop the request")
+    void testTrustMode() throws Exception {
+        when(mutantService.replayVerdict(HASH)).thenReturn(Optional.of(true));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor(DedupProperties.ClientHashMode.TRUST).preHandle(request(), response, new Object());
+
+        assertFalse(proceed);
+        assertEquals(200, response.getStatus());
+        assertEquals(HASH.toHex(), response.getHeader("X-Dna-Hash"));
+        assertTrue(response.getContentAsString().contains("\"mutant\":true"));
+    }
+
+    @Test
+    @DisplayName("Should let unknown hashes, other methods and verify mode through to the controller")
+    void testPassThrough() throws Exception {
+        when(mutantService.replayVerdict(HASH)).thenReturn(Optional.empty());
+        MockHttpServletRequest get = request();
+        get.setMethod("GET");
+
+        assertTrue(interceptor(DedupProperties.ClientHashMode.TRUST).preHandle(request(), new MockHttpServletResponse(), new Object()));
+        assertTrue(interceptor(DedupProperties.ClientHashMode.TRUST).preHandle(get, new MockHttpServletResponse(), new Object()));
+        verify(mutantService, times(1)).replayVerdict(HASH);
+
+        assertTrue(interceptor(DedupProperties.ClientHashMode.VERIFY).preHandle(request(), new MockHttpServletResponse(), new Object()));
+        verifyNoMoreInteractions(mutantService);
+    }
+
+    private DnaHashInterceptor interceptor(DedupProperties.ClientHashMode mode) {
+        DedupProperties properties = new DedupProperties();
+        properties.setClientHash(mode);
+        return new DnaHashInterceptor(mutantService, new ObjectMapper(), properties);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/mutant");
+        request.addHeader("X-Dna-Hash", HASH.toHex());
+        return request;
+    }
+}
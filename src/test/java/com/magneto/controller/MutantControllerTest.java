@@ -1,19 +1,49 @@
 package com.magneto.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magneto.config.DedupConfig;
+import com.magneto.config.DetectionConfig;
+import com.magneto.dto.BatchDnaRequest;
+import com.magneto.dto.DetectionPolicyRequest;
+import com.magneto.dto.CacheStatsResponse;
 import com.magneto.dto.DnaRequest;
+import com.magneto.dto.StatsBucket;
 import com.magneto.dto.StatsResponse;
+import com.magneto.dto.StatsSeriesResponse;
+import com.magneto.entity.DnaHash;
+import com.magneto.exception.InvalidStatsQueryException;
+import com.magneto.service.DetectionMetrics;
+import com.magneto.service.DetectionPolicy;
+import com.magneto.service.DnaMatchService;
+import com.magneto.service.DnaPreprocessor;
+import com.magneto.service.DnaStreamService;
 import com.magneto.service.MutantService;
+import com.magneto.service.PackedDna;
+import com.magneto.service.PreparedDna;
 import com.magneto.service.StatsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -23,6 +53,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Integration tests for MutantController.
  */
 @WebMvcTest(MutantController.class)
+@Import({DnaPreprocessor.class, DetectionMetrics.class, SimpleMeterRegistry.class, DetectionConfig.class, DedupConfig.class})
 class MutantControllerTest {
 
     @Autowired
@@ -37,6 +68,12 @@ class MutantControllerTest {
     @MockBean
     private StatsService statsService;
 
+    @MockBean
+    private DnaStreamService dnaStreamService;
+
+    @MockBean
+    private DnaMatchService dnaMatchService;
+
     @Test
     @DisplayName("POST /mutant should return 200 OK for mutant DNA")
     void testDetectMutantReturns200() throws Exception {
@@ -50,7 +87,7 @@ class MutantControllerTest {
         };
         DnaRequest request = new DnaRequest(dna);
 
-        when(mutantService.analyzeDna(any())).thenReturn(true);
+        when(mutantService.analyzeDna(any(PreparedDna.class))).thenReturn(true);
 
         mockMvc.perform(post("/mutant")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -73,7 +110,7 @@ class MutantControllerTest {
         };
         DnaRequest request = new DnaRequest(dna);
 
-        when(mutantService.analyzeDna(any())).thenReturn(false);
+        when(mutantService.analyzeDna(any(PreparedDna.class))).thenReturn(false);
 
         mockMvc.perform(post("/mutant")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -83,6 +120,138 @@ class MutantControllerTest {
                 .andExpect(jsonPath("$.message").exists());
     }
 
+    @Test
+    @DisplayName("POST /mutant should accept packed DNA with the same hash as its JSON form")
+    void testDetectMutantPacked() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        MockHttpOutputMessage body = new MockHttpOutputMessage();
+        new PackedDnaHttpMessageConverter().write(PackedDna.pack(dna), PackedDnaHttpMessageConverter.MEDIA_TYPE, body);
+
+        when(mutantService.analyzeDna(any(PreparedDna.class))).thenReturn(true);
+
+        mockMvc.perform(post("/mutant")
+                .contentType(PackedDnaHttpMessageConverter.MEDIA_TYPE)
+                .content(body.getBodyAsBytes()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mutant").value(true));
+
+        PreparedDna expected = new DnaPreprocessor().prepare(dna);
+        verify(mutantService).analyzeDna(argThat((PreparedDna prepared) ->
+            prepared.getDnaHash().equals(expected.getDnaHash()) && prepared.getPolicy().equals(DetectionPolicy.DEFAULT)));
+    }
+
+    @Test
+    @DisplayName("POST /mutant should return 400 for truncated packed DNA")
+    void testDetectMutantPackedTruncated() throws Exception {
+        mockMvc.perform(post("/mutant")
+                .contentType(PackedDnaHttpMessageConverter.MEDIA_TYPE)
+                .content(new byte[]{0, 0, 0, 6, 0x1B}))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.dna").exists());
+
+        verifyNoInteractions(mutantService);
+    }
+
+    @Test
+    @DisplayName("POST /mutant should return the hash of the sample in X-Dna-Hash")
+    void testDetectMutantReturnsHash() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String hash = new DnaPreprocessor().prepare(dna).getDnaHash().toHex();
+
+        when(mutantService.analyzeDna(any(PreparedDna.class))).thenReturn(true);
+
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DnaRequest(dna))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Dna-Hash", hash))
+                .andExpect(header().string("ETag", "\"" + hash + "\""));
+    }
+
+    @Test
+    @DisplayName("POST /mutant with a known X-Dna-Hash should answer without reading the body")
+    void testReplayByHash() throws Exception {
+        DnaHash hash = DnaHash.fromHex("ab".repeat(32));
+        when(mutantService.replayVerdict(hash)).thenReturn(Optional.of(false));
+
+        mockMvc.perform(post("/mutant")
+                .header("X-Dna-Hash", hash.toHex())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("not even JSON"))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.mutant").value(false))
+                .andExpect(header().string("X-Dna-Hash", hash.toHex()));
+
+        verify(mutantService, never()).analyzeDna(any(PreparedDna.class));
+    }
+
+    @Test
+    @DisplayName("POST /mutant should reject a body that does not match its X-Dna-Hash")
+    void testReplayByHashMismatch() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        DnaHash hash = DnaHash.fromHex("ab".repeat(32));
+        when(mutantService.replayVerdict(hash)).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/mutant")
+                .header("X-Dna-Hash", hash.toHex())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DnaRequest(dna))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['X-Dna-Hash']").exists());
+
+        mockMvc.perform(post("/mutant")
+                .header("X-Dna-Hash", "not-a-hash")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DnaRequest(dna))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['X-Dna-Hash']").exists());
+
+        verify(mutantService, never()).analyzeDna(any(PreparedDna.class));
+    }
+
+    @Test
+    @DisplayName("GET /mutant/{hash} should return the verdict with the hash as ETag")
+    void testGetVerdict() throws Exception {
+        DnaHash mutant = DnaHash.fromHex("ab".repeat(32));
+        DnaHash unknown = DnaHash.fromHex("cd".repeat(32));
+        when(mutantService.findVerdict(mutant)).thenReturn(Optional.of(true));
+        when(mutantService.findVerdict(unknown)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/mutant/" + mutant.toHex()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.mutant").value(true))
+                .andExpect(header().string("ETag", "\"" + mutant.toHex() + "\""));
+        mockMvc.perform(get("/mutant/" + unknown.toHex()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/mutant/xyz"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.hash").exists());
+    }
+
+    @Test
+    @DisplayName("GET /mutant/{hash} should return 304 for a stored verdict with a matching If-None-Match")
+    void testGetVerdictNotModified() throws Exception {
+        DnaHash hash = DnaHash.fromHex("ab".repeat(32));
+        when(mutantService.findVerdict(hash)).thenReturn(Optional.of(false));
+
+        mockMvc.perform(get("/mutant/" + hash.toHex())
+                .header("If-None-Match", "\"" + hash.toHex() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"" + hash.toHex() + "\""));
+    }
+
+    @Test
+    @DisplayName("GET /mutant/{hash} should return 404 without ETag for an unknown hash even with a matching If-None-Match")
+    void testGetVerdictUnknownWithIfNoneMatch() throws Exception {
+        DnaHash hash = DnaHash.fromHex("cd".repeat(32));
+        when(mutantService.findVerdict(hash)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/mutant/" + hash.toHex())
+                .header("If-None-Match", "\"" + hash.toHex() + "\""))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
     @Test
     @DisplayName("POST /mutant should return 400 for invalid DNA - non NxN matrix")
     void testDetectMutantWithInvalidMatrix() throws Exception {
@@ -118,6 +287,82 @@ class MutantControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("POST /mutant should return 400 with the validation message for invalid characters")
+    void testDetectMutantInvalidCharactersMessage() throws Exception {
+        DnaRequest request = new DnaRequest(new String[]{"ATGC", "CAGT", "TTXT", "AGAA"});
+
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Failed"))
+                .andExpect(jsonPath("$.errors.dna")
+                    .value("Invalid nucleotide 'X' at position [2,2]. Only A, T, C, G are allowed"))
+                .andExpect(jsonPath("$.invalidNucleotideCount").value(1))
+                .andExpect(jsonPath("$.invalidNucleotides[0].row").value(2))
+                .andExpect(jsonPath("$.invalidNucleotides[0].col").value(2))
+                .andExpect(jsonPath("$.invalidNucleotides[0].nucleotide").value("X"));
+    }
+
+    @Test
+    @DisplayName("POST /mutant should analyze under the policy sent with the request")
+    void testDetectMutantWithPolicy() throws Exception {
+        DnaRequest request = new DnaRequest(new String[]{"ATGC", "CAGT", "TTAT", "AGAA"},
+            new DetectionPolicyRequest(3, 1, List.of("horizontal", "anti-diagonal"), false));
+
+        when(mutantService.analyzeDna(any(PreparedDna.class))).thenReturn(true);
+
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        verify(mutantService).analyzeDna(argThat((PreparedDna dna) -> {
+            DetectionPolicy policy = dna.getPolicy();
+            return policy.getSequenceLength() == 3
+                && policy.getMinSequences() == 1
+                && policy.getDirections().equals(
+                    EnumSet.of(DetectionPolicy.Direction.HORIZONTAL, DetectionPolicy.Direction.ANTI_DIAGONAL))
+                && !policy.isOverlapping();
+        }));
+    }
+
+    @Test
+    @DisplayName("POST /mutant should use the deployment policy when the request sends none")
+    void testDetectMutantWithDefaultPolicy() throws Exception {
+        DnaRequest request = new DnaRequest(new String[]{"ATGC", "CAGT", "TTAT", "AGAA"});
+
+        when(mutantService.analyzeDna(any(PreparedDna.class))).thenReturn(false);
+
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isForbidden());
+
+        verify(mutantService).analyzeDna(argThat((PreparedDna dna) -> dna.getPolicy().isDefault()));
+    }
+
+    @Test
+    @DisplayName("POST /mutant should return 400 for an unknown direction or an out-of-range policy")
+    void testDetectMutantWithInvalidPolicy() throws Exception {
+        String[] dna = {"ATGC", "CAGT", "TTAT", "AGAA"};
+
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                    new DnaRequest(dna, new DetectionPolicyRequest(null, null, List.of("sideways"), null)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['policy.directions']").value("Unknown direction: sideways"));
+
+        mockMvc.perform(post("/mutant")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                    new DnaRequest(dna, new DetectionPolicyRequest(40, null, null, null)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['policy.sequenceLength']").exists());
+    }
+
     @Test
     @DisplayName("POST /mutant should return 400 for null DNA")
     void testDetectMutantWithNullDna() throws Exception {
@@ -141,6 +386,89 @@ class MutantControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    @DisplayName("POST /mutant/batch should return 200 with one verdict per sample")
+    void testDetectMutantBatchReturns200() throws Exception {
+        String[] mutantDna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String[] humanDna = {"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"};
+        BatchDnaRequest request = new BatchDnaRequest(List.of(new DnaRequest(mutantDna), new DnaRequest(humanDna)));
+
+        when(mutantService.analyzeBatch(anyList())).thenReturn(new boolean[]{true, false});
+
+        mockMvc.perform(post("/mutant/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].mutant").value(true))
+                .andExpect(jsonPath("$.results[1].mutant").value(false))
+                .andExpect(jsonPath("$.count_mutant_dna").value(1))
+                .andExpect(jsonPath("$.count_human_dna").value(1));
+    }
+
+    @Test
+    @DisplayName("POST /mutant/batch should return 400 when a sample is invalid")
+    void testDetectMutantBatchWithInvalidSample() throws Exception {
+        String[] mutantDna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String[] invalidDna = {"ATGCGA", "CAXTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        BatchDnaRequest request = new BatchDnaRequest(List.of(new DnaRequest(mutantDna), new DnaRequest(invalidDna)));
+
+        mockMvc.perform(post("/mutant/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['samples[1].dna']").exists());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/batch should return 400 for an empty batch")
+    void testDetectMutantBatchWithEmptyBatch() throws Exception {
+        mockMvc.perform(post("/mutant/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchDnaRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/stream should stream NDJSON through DnaStreamService")
+    void testDetectMutantStream() throws Exception {
+        mockMvc.perform(post("/mutant/stream")
+                .contentType("application/x-ndjson")
+                .content("{\"dna\":[\"AAAA\",\"CCCC\",\"TTTT\",\"GGGG\"]}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+
+        verify(dnaStreamService).process(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/matches should stream the match report through DnaMatchService")
+    void testFindMatches() throws Exception {
+        DnaRequest request = new DnaRequest(new String[]{"AAAA", "CCCC", "TTTT", "GGGG"});
+
+        mockMvc.perform(post("/mutant/matches")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+
+        verify(dnaMatchService).writeMatches(any(PreparedDna.class), any());
+    }
+
+    @Test
+    @DisplayName("POST /mutant/matches should return 400 for invalid DNA before streaming")
+    void testFindMatchesInvalidDna() throws Exception {
+        DnaRequest request = new DnaRequest(new String[]{"ATGC", "CAGT", "TTXT", "AGAA"});
+
+        mockMvc.perform(post("/mutant/matches")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.dna").exists());
+
+        verifyNoInteractions(dnaMatchService);
+    }
+
     @Test
     @DisplayName("GET /stats should return 200 with statistics")
     void testGetStatsReturns200() throws Exception {
@@ -155,6 +483,57 @@ class MutantControllerTest {
                 .andExpect(jsonPath("$.ratio").value(0.4));
     }
 
+    @Test
+    @DisplayName("GET /stats with a range should return 200 with per-bucket statistics")
+    void testGetStatsSeriesReturns200() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 5, 1, 12, 0);
+        StatsSeriesResponse stats = new StatsSeriesResponse("hour", from, to, 5L, 4L, 1.25, List.of(
+            new StatsBucket(from, 2L, 4L, 0.5),
+            new StatsBucket(from.plusHours(1), 3L, 0L, 1.0)));
+
+        when(statsService.getVerificationStats("hour", from, to)).thenReturn(stats);
+
+        mockMvc.perform(get("/stats")
+                .param("from", "2024-05-01T10:00:00")
+                .param("to", "2024-05-01T12:00:00")
+                .param("granularity", "hour"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("hour"))
+                .andExpect(jsonPath("$.count_mutant_dna").value(5))
+                .andExpect(jsonPath("$.buckets.length()").value(2))
+                .andExpect(jsonPath("$.buckets[1].bucket_start").value("2024-05-01T11:00:00"))
+                .andExpect(jsonPath("$.buckets[1].count_mutant_dna").value(3));
+    }
+
+    @Test
+    @DisplayName("GET /stats with an invalid range should return 400")
+    void testGetStatsSeriesInvalidRangeReturns400() throws Exception {
+        when(statsService.getVerificationStats(eq("week"), any(), any()))
+            .thenThrow(new InvalidStatsQueryException("granularity", "Must be one of: minute, hour, day"));
+
+        mockMvc.perform(get("/stats").param("from", "2024-05-01T10:00:00").param("granularity", "week"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.granularity").exists());
+
+        mockMvc.perform(get("/stats").param("from", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.from").exists());
+    }
+
+    @Test
+    @DisplayName("GET /stats/cache should return 200 with cache counters")
+    void testGetCacheStatsReturns200() throws Exception {
+        when(statsService.getCacheStats()).thenReturn(new CacheStatsResponse(60L, 40L, 2L, 0.6, 38L));
+
+        mockMvc.perform(get("/stats/cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hit_count").value(60))
+                .andExpect(jsonPath("$.miss_count").value(40))
+                .andExpect(jsonPath("$.eviction_count").value(2))
+                .andExpect(jsonPath("$.hit_rate").value(0.6));
+    }
+
     @Test
     @DisplayName("GET /health should return 200")
     void testHealthCheck() throws Exception {
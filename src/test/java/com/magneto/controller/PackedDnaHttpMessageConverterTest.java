@@ -0,0 +1,117 @@
+package com.magneto.controller;
+
+import com.magneto.exception.InvalidDnaException;
+import com.magneto.service.PackedDna;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the binary packed DNA format.
+ */
+class PackedDnaHttpMessageConverterTest {
+
+    private final PackedDnaHttpMessageConverter converter = new PackedDnaHttpMessageConverter();
+
+    @Test
+    @DisplayName("Should write the size header and four bases per byte, first base in the lowest bits")
+    void testWireLayout() throws IOException {
+        byte[] body = write(PackedDna.pack(new String[]{"ACGTA", "TTTTT", "AAAAA", "CCCCC", "GGGGG"}));
+
+        assertArrayEquals(new byte[]{
+            0, 0, 0, 5,
+            (byte) 0xE4, 0x00,
+            (byte) 0xFF, 0x03,
+            0x00, 0x00,
+            0x55, 0x01,
+            (byte) 0xAA, 0x02
+        }, body);
+    }
+
+    @Test
+    @DisplayName("Should read back the same packed words, including matrices larger than the first allocation")
+    void testRoundTrip() throws IOException {
+        for (int size : new int[]{1, 4, 6, 31, 33, 64, 2000}) {
+            PackedDna packedDna = PackedDna.pack(randomDna(size));
+            byte[] body = write(packedDna);
+
+            PackedDna read = read(body, true);
+
+            assertEquals(PackedDnaHttpMessageConverter.encodedLength(size), body.length);
+            assertEquals(size, read.getSize());
+            assertTrue(Arrays.equals(packedDna.getWords(), read.getWords()), "size " + size);
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a missing or out of range matrix size")
+    void testInvalidSize() {
+        assertInvalid(new byte[]{0, 0});
+        assertInvalid(new byte[]{0, 0, 0, 0});
+        assertInvalid(new byte[]{(byte) 0x80, 0, 0, 1});
+        assertInvalid(new byte[]{0, 1, 0, 1});
+    }
+
+    @Test
+    @DisplayName("Should reject truncated bodies, trailing bytes and bits set past the last column")
+    void testInvalidBody() throws IOException {
+        byte[] body = write(PackedDna.pack(randomDna(6)));
+
+        assertInvalid(Arrays.copyOf(body, body.length - 1));
+        assertInvalid(Arrays.copyOf(body, body.length + 1));
+
+        byte[] padded = body.clone();
+        // Size 6: the second byte of a row holds two bases, its top four bits are padding
+        padded[Integer.BYTES + 1] |= 0x40;
+        assertInvalid(padded);
+    }
+
+    @Test
+    @DisplayName("Should reject a Content-Length that does not match the declared size")
+    void testContentLengthMismatch() throws IOException {
+        byte[] body = write(PackedDna.pack(randomDna(6)));
+        MockHttpInputMessage message = new MockHttpInputMessage(body);
+        message.getHeaders().setContentLength(body.length + 10);
+
+        assertThrows(InvalidDnaException.class, () -> converter.read(PackedDna.class, message));
+    }
+
+    private void assertInvalid(byte[] body) {
+        InvalidDnaException exception = assertThrows(InvalidDnaException.class, () -> read(body, false));
+        assertEquals("dna", exception.getField());
+    }
+
+    private byte[] write(PackedDna packedDna) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(packedDna, PackedDnaHttpMessageConverter.MEDIA_TYPE, message);
+        return message.getBodyAsBytes();
+    }
+
+    private PackedDna read(byte[] body, boolean withLength) throws IOException {
+        MockHttpInputMessage message = new MockHttpInputMessage(body);
+        if (withLength) {
+            message.getHeaders().setContentLength(body.length);
+        }
+        return converter.read(PackedDna.class, message);
+    }
+
+    private static String[] randomDna(int size) {
+        Random random = new Random(size);
+        String[] dna = new String[size];
+        for (int row = 0; row < size; row++) {
+            char[] bases = new char[size];
+            for (int col = 0; col < size; col++) {
+                bases[col] = "ACGT".charAt(random.nextInt(4));
+            }
+            dna[row] = new String(bases);
+        }
+        return dna;
+    }
+}
@@ -0,0 +1,24 @@
+package com.magneto.entity;
+
+/**
+ * Hashes and records named by a single hex digit, for tests that only need distinct keys.
+ */
+public final class DnaRecordFixtures {
+
+    private DnaRecordFixtures() {
+    }
+
+    /**
+     * The hash made of 64 copies of the digit.
+     */
+    public static DnaHash hash(char hexDigit) {
+        return DnaHash.fromHex(String.valueOf(hexDigit).repeat(64));
+    }
+
+    /**
+     * A new SHA-256 record of {@link #hash(char)}, verified now.
+     */
+    public static DnaRecord record(char hexDigit, boolean isMutant) {
+        return DnaRecord.of(hash(hexDigit), DnaHashAlgorithm.SHA_256, isMutant);
+    }
+}
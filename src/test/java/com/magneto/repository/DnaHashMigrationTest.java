@@ -0,0 +1,53 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaHash;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the migration of existing hex hashes to the 32-byte binary column.
+ */
+class DnaHashMigrationTest {
+
+    private static final String MUTANT_HASH = "8f5a0c3e" + "1".repeat(48) + "deadbeef";
+    private static final String HUMAN_HASH = "0".repeat(62) + "ff";
+
+    @Test
+    @DisplayName("Should convert hex hashes of existing rows to binary keys")
+    void testMigratesHexHashes() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:dna-hash-migration;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        flyway(dataSource, "1").migrate();
+        jdbcTemplate.update("INSERT INTO dna_verifications (dna_hash, is_mutant, verified_at) "
+            + "VALUES (?, TRUE, CURRENT_TIMESTAMP), (?, FALSE, CURRENT_TIMESTAMP)", MUTANT_HASH, HUMAN_HASH);
+
+        flyway(dataSource, "latest").migrate();
+
+        List<byte[]> stored = jdbcTemplate.queryForList(
+            "SELECT dna_hash FROM dna_verifications ORDER BY is_mutant DESC", byte[].class);
+        assertEquals(DnaHash.fromHex(MUTANT_HASH), DnaHash.of(stored.get(0)));
+        assertEquals(DnaHash.fromHex(HUMAN_HASH), DnaHash.of(stored.get(1)));
+        assertEquals(HUMAN_HASH, DnaHash.of(stored.get(1)).toHex());
+
+        // The unique key survives the column swap
+        assertThrows(Exception.class, () -> jdbcTemplate.update(
+            "INSERT INTO dna_verifications (dna_hash, is_mutant, verified_at) VALUES (?, TRUE, CURRENT_TIMESTAMP)",
+            (Object) DnaHash.fromHex(MUTANT_HASH).toBytes()));
+    }
+
+    private static Flyway flyway(DriverManagerDataSource dataSource, String target) {
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .target(target)
+            .load();
+    }
+}
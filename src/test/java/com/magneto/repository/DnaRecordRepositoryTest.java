@@ -0,0 +1,96 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaHashAlgorithm;
+import com.magneto.entity.DnaRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static com.magneto.entity.DnaRecordFixtures.hash;
+import static com.magneto.entity.DnaRecordFixtures.record;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the custom DnaRecordRepository operations against H2.
+ */
+@DataJpaTest
+class DnaRecordRepositoryTest {
+
+    @Autowired
+    private DnaRecordRepository dnaRecordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should insert records with JDBC batching and find them with an IN query")
+    void testInsertAllAndFindByDnaHashIn() {
+        List<DnaRecord> inserted = dnaRecordRepository.insertAllIfAbsent(List.of(
+            record('a', true),
+            record('b', false),
+            record('c', false)));
+
+        assertEquals(3, inserted.size());
+
+        List<DnaRecord> found = dnaRecordRepository.findByDnaHashIn(List.of(hash('a'), hash('c'), hash('d')));
+
+        assertEquals(2, found.size());
+        assertEquals(1L, dnaRecordRepository.countByIsMutant(true));
+        assertEquals(2L, dnaRecordRepository.countByIsMutant(false));
+    }
+
+    @Test
+    @DisplayName("Should insert a hash only once")
+    void testInsertIfAbsent() {
+        assertTrue(dnaRecordRepository.insertIfAbsent(record('a', true)));
+        assertFalse(dnaRecordRepository.insertIfAbsent(record('a', false)));
+
+        assertEquals(1L, dnaRecordRepository.count());
+        assertTrue(dnaRecordRepository.findByDnaHash(hash('a')).orElseThrow().getIsMutant());
+    }
+
+    @Test
+    @DisplayName("Should skip stored and repeated hashes in a batch and return only the inserted records")
+    void testInsertAllIfAbsentSkipsDuplicates() {
+        dnaRecordRepository.insertIfAbsent(record('a', true));
+
+        List<DnaRecord> inserted = dnaRecordRepository.insertAllIfAbsent(List.of(
+            record('a', true),
+            record('b', false),
+            record('b', false),
+            record('c', true)));
+
+        assertEquals(List.of(hash('b'), hash('c')), inserted.stream().map(DnaRecord::getDnaHash).toList());
+        assertEquals(3L, dnaRecordRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should store the hash as a 32-byte key and find it by value")
+    void testBinaryDnaHash() {
+        dnaRecordRepository.saveAndFlush(record('e', true));
+
+        byte[] stored = jdbcTemplate.queryForObject(
+            "SELECT dna_hash FROM dna_verifications", byte[].class);
+
+        assertEquals(DnaHash.BYTES, stored.length);
+        assertEquals(hash('e'), DnaHash.of(stored));
+        assertTrue(dnaRecordRepository.findByDnaHash(DnaHash.fromHex("e".repeat(64))).isPresent());
+        assertTrue(dnaRecordRepository.findByDnaHash(hash('f')).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should store the hash algorithm with each record")
+    void testHashAlgorithm() {
+        DnaRecord murmur = record('a', true);
+        murmur.setHashAlgorithm(DnaHashAlgorithm.MURMUR3_128);
+        dnaRecordRepository.insertAllIfAbsent(List.of(murmur, record('b', false)));
+
+        assertEquals(DnaHashAlgorithm.MURMUR3_128, dnaRecordRepository.findByDnaHash(hash('a')).orElseThrow().getHashAlgorithm());
+        assertEquals(DnaHashAlgorithm.SHA_256, dnaRecordRepository.findByDnaHash(hash('b')).orElseThrow().getHashAlgorithm());
+    }
+}
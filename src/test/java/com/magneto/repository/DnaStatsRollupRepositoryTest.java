@@ -0,0 +1,45 @@
+package com.magneto.repository;
+
+import com.magneto.entity.DnaStatsRollup;
+import com.magneto.entity.StatsGranularity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the stats rollup buckets against H2.
+ */
+@DataJpaTest
+class DnaStatsRollupRepositoryTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    @Autowired
+    private DnaStatsRollupRepository rollupRepository;
+
+    @Test
+    @DisplayName("Should create missing buckets and increment existing ones")
+    void testIncrementAll() {
+        rollupRepository.incrementAll(List.of(
+            new DnaStatsRollup(StatsGranularity.HOUR, TEN, 1L, 2L),
+            new DnaStatsRollup(StatsGranularity.DAY, TEN.withHour(0), 1L, 2L)));
+        rollupRepository.incrementAll(List.of(
+            new DnaStatsRollup(StatsGranularity.HOUR, TEN, 3L, 0L),
+            new DnaStatsRollup(StatsGranularity.HOUR, TEN.plusHours(1), 0L, 1L)));
+
+        List<DnaStatsRollup> hours = rollupRepository.findRange(StatsGranularity.HOUR, TEN, TEN.plusHours(2));
+
+        assertEquals(2, hours.size());
+        assertEquals(4L, hours.get(0).getMutantCount());
+        assertEquals(2L, hours.get(0).getHumanCount());
+        assertEquals(TEN.plusHours(1), hours.get(1).getBucketStart());
+        assertEquals(1, rollupRepository.findRange(StatsGranularity.DAY, TEN.withHour(0), TEN.plusDays(1)).size());
+        assertTrue(rollupRepository.findRange(StatsGranularity.HOUR, TEN.plusHours(1), TEN.plusHours(1)).isEmpty());
+    }
+}
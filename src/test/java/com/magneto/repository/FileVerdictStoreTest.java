@@ -0,0 +1,210 @@
+package com.magneto.repository;
+
+import com.magneto.config.FileStoreProperties;
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaHashAlgorithm;
+import com.magneto.entity.DnaRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static com.magneto.entity.DnaRecordFixtures.hash;
+import static com.magneto.entity.DnaRecordFixtures.record;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the embedded file verdict store: lookups, restarts and crash recovery.
+ */
+class FileVerdictStoreTest {
+
+    // Four records per segment, so a few inserts already span several segment files
+    private static final int RECORDS_PER_SEGMENT = 4;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Should store each hash once and find it by value")
+    void testInsertAndFind() {
+        FileVerdictStore store = open();
+
+        assertTrue(store.insertIfAbsent(record('a', true)));
+        assertFalse(store.insertIfAbsent(record('a', false)));
+        List<DnaRecord> inserted = store.insertAllIfAbsent(List.of(
+            record('a', true), record('b', false), record('b', false), record('c', true)));
+
+        assertEquals(List.of(hash('b'), hash('c')), inserted.stream().map(DnaRecord::getDnaHash).toList());
+        assertTrue(store.findByDnaHash(hash('a')).orElseThrow().getIsMutant());
+        assertFalse(store.findByDnaHash(hash('b')).orElseThrow().getIsMutant());
+        assertTrue(store.findByDnaHash(hash('d')).isEmpty());
+        assertEquals(2, store.findByDnaHashIn(List.of(hash('a'), hash('c'), hash('d'))).size());
+        assertEquals(2L, store.countByIsMutant(true));
+        assertEquals(1L, store.countByIsMutant(false));
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Should keep verdicts across restarts, across several segments")
+    void testReopenFromSnapshot() throws IOException {
+        FileVerdictStore store = open();
+        store.insertAllIfAbsent(records(10));
+        store.close();
+
+        assertTrue(Files.exists(directory.resolve("index.snap")));
+        assertEquals(3, segmentCount());
+
+        FileVerdictStore reopened = open();
+        assertEquals(5L, reopened.countByIsMutant(true));
+        assertEquals(5L, reopened.countByIsMutant(false));
+        for (DnaRecord expected : records(10)) {
+            assertEquals(expected.getIsMutant(), reopened.findByDnaHash(expected.getDnaHash()).orElseThrow().getIsMutant());
+        }
+        assertFalse(reopened.insertIfAbsent(record('0', true)));
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should replay the records appended after the snapshot when the store was not closed")
+    void testRecoverAfterSnapshot() {
+        FileVerdictStore store = open();
+        store.insertAllIfAbsent(records(3));
+        store.close();
+
+        // Crash: the second run appends records but never writes its snapshot
+        open().insertAllIfAbsent(records(7));
+
+        FileVerdictStore recovered = open();
+        assertEquals(7L, recovered.countByIsMutant(true) + recovered.countByIsMutant(false));
+        assertTrue(recovered.findByDnaHash(hash('6')).isPresent());
+        recovered.close();
+    }
+
+    @Test
+    @DisplayName("Should discard a torn record and everything written after it")
+    void testDiscardTornRecord() throws IOException {
+        open().insertAllIfAbsent(records(6));
+        // Record 4 is the first of the second segment; record 5 survives behind it
+        corruptByte(directory.resolve("verdicts-000001.seg"), 10);
+
+        FileVerdictStore recovered = open();
+        assertEquals(4L, recovered.countByIsMutant(true) + recovered.countByIsMutant(false));
+        assertTrue(recovered.findByDnaHash(hash('3')).isPresent());
+        assertTrue(recovered.findByDnaHash(hash('4')).isEmpty());
+        assertTrue(recovered.findByDnaHash(hash('5')).isEmpty());
+
+        // The cleared tail must not resurface after another crash
+        assertTrue(recovered.insertIfAbsent(record('6', true)));
+        FileVerdictStore again = open();
+        assertEquals(5L, again.countByIsMutant(true) + again.countByIsMutant(false));
+        assertTrue(again.findByDnaHash(hash('5')).isEmpty());
+        assertTrue(again.findByDnaHash(hash('6')).isPresent());
+        again.close();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the index when the snapshot is ahead of the log")
+    void testSnapshotAheadOfLog() throws IOException {
+        FileVerdictStore store = open();
+        store.insertAllIfAbsent(records(6));
+        store.close();
+        Files.delete(directory.resolve("verdicts-000001.seg"));
+
+        FileVerdictStore reopened = open();
+        assertEquals(4L, reopened.countByIsMutant(true) + reopened.countByIsMutant(false));
+        assertTrue(reopened.findByDnaHash(hash('5')).isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should pass every stored hash once to forEachHash")
+    void testForEachHash() {
+        FileVerdictStore store = open();
+        store.insertAllIfAbsent(records(6));
+
+        List<DnaHash> hashes = new ArrayList<>();
+        store.forEachHash(hashes::add);
+
+        assertEquals(records(6).stream().map(DnaRecord::getDnaHash).toList(), hashes);
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Should pass the verdict and verification time of every record, across restarts")
+    void testForEachVerification() {
+        LocalDateTime verifiedAt = LocalDateTime.of(2024, 5, 1, 10, 15, 30);
+        FileVerdictStore store = open();
+        DnaRecord mutant = record('a', true);
+        mutant.setVerifiedAt(verifiedAt);
+        DnaRecord human = record('b', false);
+        human.setVerifiedAt(verifiedAt.plusHours(1));
+        store.insertAllIfAbsent(List.of(mutant, human));
+        store.close();
+
+        List<String> verifications = new ArrayList<>();
+        FileVerdictStore reopened = open();
+        reopened.forEachVerification((isMutant, time) -> verifications.add(isMutant + "@" + time));
+
+        assertFalse(reopened.sharesRollupDatabase());
+        assertEquals(List.of("true@" + verifiedAt, "false@" + verifiedAt.plusHours(1)), verifications);
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Should keep the hash algorithm of each record across restarts")
+    void testHashAlgorithm() {
+        FileVerdictStore store = open();
+        DnaRecord murmur = record('a', true);
+        murmur.setHashAlgorithm(DnaHashAlgorithm.MURMUR3_128);
+        store.insertAllIfAbsent(List.of(murmur, record('b', false)));
+        store.close();
+
+        FileVerdictStore reopened = open();
+        assertEquals(DnaHashAlgorithm.MURMUR3_128, reopened.findByDnaHash(hash('a')).orElseThrow().getHashAlgorithm());
+        assertEquals(DnaHashAlgorithm.SHA_256, reopened.findByDnaHash(hash('b')).orElseThrow().getHashAlgorithm());
+        reopened.close();
+    }
+
+    private FileVerdictStore open() {
+        FileStoreProperties properties = new FileStoreProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofBytes((long) RECORDS_PER_SEGMENT * VerdictLog.RECORD_BYTES));
+        FileVerdictStore store = new FileVerdictStore(properties);
+        store.open();
+        return store;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+
+    private static void corruptByte(Path file, long offset) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, offset);
+            buffer.put(0, (byte) (buffer.get(0) ^ 0xff));
+            buffer.rewind();
+            channel.write(buffer, offset);
+        }
+    }
+
+    private static List<DnaRecord> records(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> record(Character.forDigit(i, 16), i % 2 == 0))
+            .toList();
+    }
+}
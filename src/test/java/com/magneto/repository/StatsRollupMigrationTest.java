@@ -0,0 +1,65 @@
+package com.magneto.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+import static com.magneto.entity.DnaRecordFixtures.hash;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the backfill of the stats rollup buckets from existing verifications.
+ */
+class StatsRollupMigrationTest {
+
+    @Test
+    @DisplayName("Should backfill minute, hour and day buckets from existing rows")
+    void testBackfillsRollups() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:stats-rollup-migration;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        flyway(dataSource, "2").migrate();
+        insert(jdbcTemplate, 'a', true, "2024-05-01 10:05:10");
+        insert(jdbcTemplate, 'b', false, "2024-05-01 10:05:50");
+        insert(jdbcTemplate, 'c', true, "2024-05-01 11:30:00");
+
+        flyway(dataSource, "latest").migrate();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT granularity, bucket_start, mutant_count, human_count FROM dna_stats_rollup "
+                + "ORDER BY granularity, bucket_start");
+        assertEquals(5, rows.size());
+        assertBucket(rows.get(0), "DAY", "2024-05-01 00:00:00", 2, 1);
+        assertBucket(rows.get(1), "HOUR", "2024-05-01 10:00:00", 1, 1);
+        assertBucket(rows.get(2), "HOUR", "2024-05-01 11:00:00", 1, 0);
+        assertBucket(rows.get(3), "MINUTE", "2024-05-01 10:05:00", 1, 1);
+        assertBucket(rows.get(4), "MINUTE", "2024-05-01 11:30:00", 1, 0);
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, char hexDigit, boolean isMutant, String verifiedAt) {
+        jdbcTemplate.update("INSERT INTO dna_verifications (dna_hash, is_mutant, verified_at) VALUES (?, ?, CAST(? AS TIMESTAMP))",
+            hash(hexDigit).toBytes(), isMutant, verifiedAt);
+    }
+
+    private static void assertBucket(Map<String, Object> row, String granularity, String bucketStart,
+                                     long mutants, long humans) {
+        assertEquals(granularity, row.get("GRANULARITY"));
+        assertEquals(Timestamp.valueOf(bucketStart), row.get("BUCKET_START"));
+        assertEquals(mutants, ((Number) row.get("MUTANT_COUNT")).longValue());
+        assertEquals(humans, ((Number) row.get("HUMAN_COUNT")).longValue());
+    }
+
+    private static Flyway flyway(DriverManagerDataSource dataSource, String target) {
+        return Flyway.configure()
+            .dataSource(dataSource)
+            .locations("classpath:db/migration")
+            .target(target)
+            .load();
+    }
+}
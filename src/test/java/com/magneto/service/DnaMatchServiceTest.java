@@ -0,0 +1,80 @@
+package com.magneto.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DnaMatchService.
+ */
+class DnaMatchServiceTest {
+
+    private static final String[] MUTANT = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+    private DnaPreprocessor dnaPreprocessor;
+    private DnaMatchService dnaMatchService;
+
+    @BeforeEach
+    void setUp() {
+        dnaPreprocessor = new DnaPreprocessor();
+        dnaMatchService = new DnaMatchService(new PackedMutantDetector(), new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("Should write one line per run and a summary line")
+    void testWriteMatches() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long matches = dnaMatchService.writeMatches(dnaPreprocessor.prepare(MUTANT), output);
+
+        assertEquals(3, matches);
+        assertEquals(List.of(
+                "{\"row\":0,\"column\":4,\"direction\":\"vertical\",\"base\":\"G\",\"length\":4}",
+                "{\"row\":0,\"column\":0,\"direction\":\"diagonal\",\"base\":\"A\",\"length\":4}",
+                "{\"row\":4,\"column\":0,\"direction\":\"horizontal\",\"base\":\"C\",\"length\":4}",
+                "{\"matches\":3,\"mutant\":true}"),
+            output.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    @Test
+    @DisplayName("Should report the runs and verdict of the sample's policy")
+    void testWriteMatchesWithPolicy() throws Exception {
+        DetectionPolicy horizontalOnly = new DetectionPolicy(4, 2, EnumSet.of(DetectionPolicy.Direction.HORIZONTAL), true);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        dnaMatchService.writeMatches(dnaPreprocessor.prepare(MUTANT, "dna", horizontalOnly), output);
+
+        assertEquals(List.of(
+                "{\"row\":4,\"column\":0,\"direction\":\"horizontal\",\"base\":\"C\",\"length\":4}",
+                "{\"matches\":1,\"mutant\":false}"),
+            output.toString(StandardCharsets.UTF_8).lines().toList());
+    }
+
+    @Test
+    @DisplayName("Should stop scanning when the response cannot be written")
+    void testStopOnWriteFailure() {
+        String[] uniform = new String[64];
+        Arrays.fill(uniform, "A".repeat(64));
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        IOException ex = assertThrows(IOException.class,
+            () -> dnaMatchService.writeMatches(dnaPreprocessor.prepare(uniform), closed));
+        assertEquals("Broken pipe", ex.getMessage());
+    }
+}
@@ -0,0 +1,248 @@
+package com.magneto.service;
+
+import com.magneto.entity.DnaHash;
+import com.magneto.entity.DnaHashAlgorithm;
+import com.magneto.exception.InvalidDnaException;
+import com.magneto.validation.DnaSequenceChecks;
+import com.magneto.validation.DnaSequenceValidator;
+import com.magneto.validation.DnaValidationMessages;
+import com.magneto.validation.InvalidNucleotide;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintValidatorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the fused validation, packing and hashing pass.
+ */
+class DnaPreprocessorTest {
+
+    private DnaPreprocessor dnaPreprocessor;
+
+    @BeforeEach
+    void setUp() {
+        dnaPreprocessor = new DnaPreprocessor();
+    }
+
+    @Test
+    @DisplayName("Should hash exactly like SHA-256 over the joined rows")
+    void testHashMatchesJoinedRows() throws Exception {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        String expected = HexFormat.of().formatHex(
+            digest.digest(String.join("", dna).getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected, dnaPreprocessor.prepare(dna).getDnaHash().toHex());
+    }
+
+    @Test
+    @DisplayName("Should hash samples analyzed under another detection policy apart")
+    void testPolicyHash() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        DetectionPolicy runsOfFive = new DetectionPolicy(5, 2, EnumSet.allOf(DetectionPolicy.Direction.class), true);
+
+        PreparedDna byDefault = dnaPreprocessor.prepare(dna);
+        PreparedDna explicitDefault = dnaPreprocessor.prepare(dna, "dna", DetectionPolicy.DEFAULT);
+        PreparedDna custom = dnaPreprocessor.prepare(dna, "dna", runsOfFive);
+        PreparedDna deployment = new DnaPreprocessor(DetectionMetrics.noop(), runsOfFive).prepare(dna);
+
+        assertEquals(byDefault.getDnaHash(), explicitDefault.getDnaHash());
+        assertNotEquals(byDefault.getDnaHash(), custom.getDnaHash());
+        assertEquals(custom.getDnaHash(), deployment.getDnaHash());
+        assertEquals(runsOfFive, deployment.getPolicy());
+        assertTrue(Arrays.equals(byDefault.getPackedDna().getWords(), custom.getPackedDna().getWords()));
+    }
+
+    @Test
+    @DisplayName("Should give the same SHA-256 hash when the per-thread digest is reused across sizes")
+    void testReusedDigest() {
+        String[] small = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        String[] large = {"ATGCGAA", "CAGTGCA", "TTATGTA", "AGAAGGA", "CCCCTAA", "TCACTGA", "ATGCGAA"};
+
+        PreparedDna first = dnaPreprocessor.prepare(small);
+        dnaPreprocessor.prepare(large);
+        assertThrows(InvalidDnaException.class, () -> dnaPreprocessor.prepare(new String[]{"ATGX", "ATGC", "ATGC", "ATGC"}));
+
+        assertEquals(first.getDnaHash(), dnaPreprocessor.prepare(small).getDnaHash());
+        assertEquals(DnaHashAlgorithm.SHA_256, first.getHashAlgorithm());
+    }
+
+    @Test
+    @DisplayName("Should hash with 128-bit MurmurHash3 over the little-endian bytes of the packed words")
+    void testMurmur3Hash() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+        DnaPreprocessor murmur = murmurPreprocessor(DetectionPolicy.DEFAULT);
+
+        PreparedDna prepared = murmur.prepare(dna);
+
+        long[] words = PackedDna.pack(dna).getWords();
+        ByteBuffer bytes = ByteBuffer.allocate(words.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asLongBuffer().put(words);
+        long[] expected = Murmur3HashStrategy.hash(bytes.array());
+        assertEquals(DnaHash.of(expected[0], expected[1], 0, 0), prepared.getDnaHash());
+        assertEquals(DnaHashAlgorithm.MURMUR3_128, prepared.getHashAlgorithm());
+        assertNotEquals(dnaPreprocessor.prepare(dna).getDnaHash(), prepared.getDnaHash());
+    }
+
+    @Test
+    @DisplayName("Should match the published MurmurHash3 x64 128-bit test vectors")
+    void testMurmur3Vectors() {
+        assertArrayEquals(new long[]{0L, 0L}, Murmur3HashStrategy.hash(new byte[0]));
+        assertArrayEquals(new long[]{0x629942693e10f867L, 0x92db0b82baeb5347L},
+            Murmur3HashStrategy.hash("hell".getBytes(StandardCharsets.US_ASCII)));
+        assertArrayEquals(new long[]{0xe34bbc7bbc071b6cL, 0x7a433ca9c49a9347L},
+            Murmur3HashStrategy.hash("The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    @DisplayName("Should keep MurmurHash3 hashes apart by matrix size and detection policy")
+    void testMurmur3HashInputs() {
+        DnaPreprocessor murmur = murmurPreprocessor(DetectionPolicy.DEFAULT);
+        DetectionPolicy runsOfFive = new DetectionPolicy(5, 2, EnumSet.allOf(DetectionPolicy.Direction.class), true);
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        // All-A matrices pack to zero words: only the length tells them apart
+        assertNotEquals(murmur.prepare(new String[]{"A"}).getDnaHash(), murmur.prepare(new String[]{"AA", "AA"}).getDnaHash());
+        assertEquals(murmur.prepare(dna).getDnaHash(), murmur.prepare(dna.clone()).getDnaHash());
+        assertNotEquals(murmur.prepare(dna).getDnaHash(), murmur.prepare(dna, "dna", runsOfFive).getDnaHash());
+        assertEquals(murmur.prepare(dna, "dna", runsOfFive).getDnaHash(), murmurPreprocessor(runsOfFive).prepare(dna).getDnaHash());
+    }
+
+    @Test
+    @DisplayName("Should pack the same bases as PackedDna.pack")
+    void testPackingMatches() {
+        String[] dna = {"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"};
+
+        PreparedDna prepared = dnaPreprocessor.prepare(dna);
+
+        assertEquals(6, prepared.getSize());
+        assertTrue(Arrays.equals(PackedDna.pack(dna).getWords(), prepared.getPackedDna().getWords()));
+    }
+
+    @Test
+    @DisplayName("Should report the requested field on errors")
+    void testErrorField() {
+        InvalidDnaException ex = assertThrows(InvalidDnaException.class,
+            () -> dnaPreprocessor.prepare(new String[]{"ATG", "CA"}, "samples[3].dna"));
+
+        assertEquals("samples[3].dna", ex.getField());
+    }
+
+    @Test
+    @DisplayName("Should time the prepare stage and record the matrix size")
+    void testRecordsMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        DnaPreprocessor instrumented = new DnaPreprocessor(new DetectionMetrics(registry));
+
+        instrumented.prepare(new String[]{"ATGC", "CAGT", "TTAT", "AGAA"});
+        assertThrows(InvalidDnaException.class, () -> instrumented.prepare(new String[]{"ATG", "CA"}));
+
+        assertEquals(2, registry.get("mutant.pipeline.stage").tag("stage", "prepare").timer().count());
+        assertEquals(6.0, registry.get("mutant.dna.size").summary().totalAmount());
+    }
+
+    @ParameterizedTest
+    @MethodSource("invalidSamples")
+    @DisplayName("Should reject invalid DNA with the same message as DnaSequenceValidator")
+    void testSameMessagesAsValidator(String[] dna) {
+        InvalidDnaException ex = assertThrows(InvalidDnaException.class, () -> dnaPreprocessor.prepare(dna));
+
+        assertEquals("dna", ex.getField());
+        assertEquals(validatorMessage(dna), ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject a huge non-square matrix before sizing anything after it")
+    void testRejectHugeNonSquare() {
+        // Packed at this size the matrix would need ~2.5 GB; at 300k rows n * wordsPerRow overflows an int
+        for (int n : new int[]{DnaSequenceChecks.MAX_SIZE + 1, 100_000, 300_000}) {
+            String[] dna = new String[n];
+            Arrays.fill(dna, "A");
+
+            InvalidDnaException ex = assertThrows(InvalidDnaException.class, () -> dnaPreprocessor.prepare(dna));
+            assertEquals(DnaValidationMessages.sizeOutOfRange(DnaSequenceChecks.MAX_SIZE, n), ex.getMessage());
+            assertEquals(validatorMessage(dna), ex.getMessage());
+        }
+
+        // Within the limit, a column of one-letter rows fails on its second row without packing
+        String[] column = new String[DnaSequenceChecks.MAX_SIZE];
+        Arrays.fill(column, "A");
+        InvalidDnaException ex = assertThrows(InvalidDnaException.class, () -> dnaPreprocessor.prepare(column));
+        assertEquals(DnaValidationMessages.notSquare(DnaSequenceChecks.MAX_SIZE, 1, 0), ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should report every invalid nucleotide position, up to the cap")
+    void testReportInvalidPositions() {
+        InvalidDnaException ex = assertThrows(InvalidDnaException.class,
+            () -> dnaPreprocessor.prepare(new String[]{"ATGC", "CXGT", "TTAT", "AGNN"}));
+
+        assertEquals(List.of(new InvalidNucleotide(1, 1, 'X'), new InvalidNucleotide(3, 2, 'N'), new InvalidNucleotide(3, 3, 'N')),
+            ex.getInvalidNucleotides().positions());
+        assertEquals("Invalid nucleotides at 3 positions: 'X' at [1,1], 'N' at [3,2], 'N' at [3,3]. Only A, T, C, G are allowed",
+            ex.getMessage());
+
+        String[] allInvalid = new String[10];
+        Arrays.fill(allInvalid, "X".repeat(10));
+        ex = assertThrows(InvalidDnaException.class, () -> dnaPreprocessor.prepare(allInvalid));
+
+        assertEquals(100, ex.getInvalidNucleotides().count());
+        assertEquals(DnaSequenceChecks.MAX_REPORTED_NUCLEOTIDES, ex.getInvalidNucleotides().positions().size());
+        assertTrue(ex.getMessage().endsWith("'X' at [1,9] and 80 more. Only A, T, C, G are allowed"));
+    }
+
+    static Stream<Arguments> invalidSamples() {
+        return Stream.of(
+            Arguments.of((Object) new String[]{}),
+            Arguments.of((Object) new String[]{"ATGC", null, "TTAT", "AGAA"}),
+            Arguments.of((Object) new String[]{"ATGC", "", "TTAT", "AGAA"}),
+            Arguments.of((Object) new String[]{"ATGC", "CAG", "TTAT", "AGAA"}),
+            Arguments.of((Object) new String[]{"ATGC", "CAGTA", "TTAT", "AGAA"}),
+            Arguments.of((Object) new String[]{"ATGC", "CAGT", "TTaT", "AGAA"}),
+            Arguments.of((Object) new String[]{"ATGC", "CAGT", "TTAT", "AGAÁ"}),
+            Arguments.of((Object) new String[]{"ATGC", "CAGT", "TTAT", "AGA一"}),
+            // U+0141 shares its low byte with 'A'
+            Arguments.of((Object) new String[]{"ATGC", "CAGT", "TTAT", "AGAŁ"}),
+            Arguments.of((Object) new String[]{"AXGC", "CAGT", "TTNT", "AGAN"}),
+            // Structure is checked before nucleotides
+            Arguments.of((Object) new String[]{"AXGC", "CAGT", "TTA", "AGAA"})
+        );
+    }
+
+    private static String validatorMessage(String[] dna) {
+        ConstraintValidatorContext context = mock(ConstraintValidatorContext.class);
+        ConstraintValidatorContext.ConstraintViolationBuilder builder =
+            mock(ConstraintValidatorContext.ConstraintViolationBuilder.class);
+        when(context.buildConstraintViolationWithTemplate(anyString())).thenReturn(builder);
+
+        assertFalse(new DnaSequenceValidator().isValid(dna, context));
+
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(context).buildConstraintViolationWithTemplate(message.capture());
+        return message.getValue();
+    }
+
+    private static DnaPreprocessor murmurPreprocessor(DetectionPolicy defaultPolicy) {
+        return new DnaPreprocessor(DetectionMetrics.noop(), defaultPolicy, DnaHashStrategy.of(DnaHashAlgorithm.MURMUR3_128));
+    }
+}
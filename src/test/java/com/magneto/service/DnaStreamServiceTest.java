@@ -0,0 +1,125 @@
+package com.magneto.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DnaStreamService.
+ */
+@ExtendWith(MockitoExtension.class)
+class DnaStreamServiceTest {
+
+    private static final String MUTANT = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}";
+    private static final String HUMAN = "{\"dna\":[\"ATGCGA\",\"CAGTGC\",\"TTATTT\",\"AGACGG\",\"GCGTCA\",\"TCACTG\"]}";
+    private static final String INVALID = "{\"dna\":[\"ATGCGA\",\"CAXTGC\",\"TTATGT\",\"AGAAGG\",\"CCCCTA\",\"TCACTG\"]}";
+
+    @Mock
+    private MutantService mutantService;
+
+    private ValidatorFactory validatorFactory;
+    private DnaStreamService dnaStreamService;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        dnaStreamService = new DnaStreamService(new DnaPreprocessor(), mutantService, new ObjectMapper(), validatorFactory.getValidator(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    @DisplayName("Should analyze records in bounded batches and write one line per record")
+    void testProcessInBatches() throws Exception {
+        when(mutantService.analyzeBatch(anyList()))
+                .thenReturn(new boolean[]{true, false})
+                .thenReturn(new boolean[]{true});
+
+        String output = process(MUTANT + "\n" + HUMAN + "\n" + MUTANT + "\n");
+
+        assertEquals(List.of(
+                "{\"index\":0,\"mutant\":true}",
+                "{\"index\":1,\"mutant\":false}",
+                "{\"index\":2,\"mutant\":true}"), output.lines().toList());
+        verify(mutantService, times(2)).analyzeBatch(anyList());
+        verify(mutantService, times(1)).analyzeBatch(argThat(samples -> samples.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Should report invalid records inline and keep processing the stream")
+    void testProcessReportsInvalidRecords() throws Exception {
+        when(mutantService.analyzeBatch(anyList())).thenReturn(new boolean[]{false});
+
+        String output = process(INVALID + "\n" + HUMAN + "\n");
+
+        List<String> lines = output.lines().toList();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("{\"index\":0,\"error\":\"Invalid nucleotide 'X' at position [1,2]"));
+        assertEquals("{\"index\":1,\"mutant\":false}", lines.get(1));
+    }
+
+    @Test
+    @DisplayName("Should stop at malformed JSON after flushing the pending batch")
+    void testProcessStopsAtMalformedJson() throws Exception {
+        when(mutantService.analyzeBatch(anyList())).thenReturn(new boolean[]{true});
+
+        String output = process(MUTANT + "\n{\"dna\": [\n");
+
+        List<String> lines = output.lines().toList();
+        assertEquals(2, lines.size());
+        assertEquals("{\"index\":0,\"mutant\":true}", lines.get(0));
+        assertTrue(lines.get(1).contains("\"error\":\"Malformed JSON"));
+    }
+
+    @Test
+    @DisplayName("Should report wrongly typed records inline and keep processing the stream")
+    void testProcessReportsWronglyTypedRecords() throws Exception {
+        when(mutantService.analyzeBatch(anyList())).thenReturn(new boolean[]{true, false});
+
+        String output = process("{\"dna\":5}\n"
+                + "{\"dna\":{\"rows\":[\"ATG\"]},\"policy\":{\"minSequences\":2}}\n"
+                + "{\"dna\":[\"AT\",[\"GC\"]]}\n"
+                + "{\"dna\":[\"AT\",\"GC\"],\"policy\":{\"minSequences\":99999999999}}\n"
+                + MUTANT + "\n" + HUMAN + "\n");
+
+        List<String> lines = output.lines().toList();
+        assertEquals(6, lines.size());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(lines.get(i).startsWith("{\"index\":" + i + ",\"error\":\"Invalid record: "), lines.get(i));
+        }
+        assertEquals("{\"index\":4,\"mutant\":true}", lines.get(4));
+        assertEquals("{\"index\":5,\"mutant\":false}", lines.get(5));
+    }
+
+    @Test
+    @DisplayName("Should write nothing for an empty stream")
+    void testProcessEmptyStream() throws Exception {
+        assertEquals("", process(""));
+        verifyNoInteractions(mutantService);
+    }
+
+    private String process(String body) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        dnaStreamService.process(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
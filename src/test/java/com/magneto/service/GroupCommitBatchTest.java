@@ -0,0 +1,50 @@
+package com.magneto.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch analysis with group-commit write-behind on a single-connection pool: the batch must not
+ * hold the connection the writer needs to commit it.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:groupcommit;DB_CLOSE_DELAY=-1",
+    "spring.datasource.hikari.maximum-pool-size=1",
+    // Migrations take a second connection, outside the pool
+    "spring.flyway.url=jdbc:h2:mem:groupcommit;DB_CLOSE_DELAY=-1",
+    "spring.flyway.user=${spring.datasource.username}",
+    "spring.flyway.password=${spring.datasource.password}",
+    "spring.datasource.hikari.connection-timeout=1000",
+    "mutant.persistence.write-behind.enabled=true",
+    "mutant.persistence.write-behind.durability=group-commit",
+    "mutant.persistence.write-behind.linger-ms=5"
+})
+class GroupCommitBatchTest {
+
+    @Autowired
+    private MutantService mutantService;
+
+    @Autowired
+    private DnaPreprocessor dnaPreprocessor;
+
+    @Autowired
+    private VerificationCounter verificationCounter;
+
+    @Test
+    @DisplayName("Should commit a batch through the writer while the pool has a single connection")
+    void testBatchGroupCommitWithOneConnection() {
+        List<PreparedDna> samples = List.of(
+            dnaPreprocessor.prepare(new String[]{"ATGCGA", "CAGTGC", "TTATGT", "AGAAGG", "CCCCTA", "TCACTG"}),
+            dnaPreprocessor.prepare(new String[]{"ATGCGA", "CAGTGC", "TTATTT", "AGACGG", "GCGTCA", "TCACTG"}));
+
+        assertArrayEquals(new boolean[]{true, false}, mutantService.analyzeBatch(samples));
+        assertEquals(1, verificationCounter.getMutantCount());
+        assertEquals(1, verificationCounter.getHumanCount());
+    }
+}
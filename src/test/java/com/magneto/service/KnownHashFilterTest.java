@@ -0,0 +1,113 @@
+package com.magneto.service;
+
+import com.magneto.config.HashFilterProperties;
+import com.magneto.entity.DnaHash;
+import com.magneto.repository.VerdictStore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the known hash filter and its scalable Bloom filter.
+ */
+class KnownHashFilterTest {
+
+    private final Random random = new Random(7);
+
+    @Test
+    @DisplayName("Should contain every stored hash after loading and reject most unknown ones")
+    void testLoadFromStore() {
+        List<DnaHash> stored = randomHashes(5_000);
+        VerdictStore verdictStore = storeWith(stored);
+        KnownHashFilter filter = new KnownHashFilter(verdictStore, properties(true, 1_000));
+
+        filter.load();
+
+        assertTrue(filter.isLoaded());
+        assertTrue(stored.stream().allMatch(filter::mightContain));
+        long falsePositives = randomHashes(10_000).stream().filter(filter::mightContain).count();
+        assertTrue(falsePositives < 200, () -> "False positives: " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("Should contain hashes added after loading")
+    void testAddAfterLoad() {
+        KnownHashFilter filter = new KnownHashFilter(storeWith(List.of()), properties(true, 1_000));
+        filter.load();
+        DnaHash dnaHash = randomHashes(1).get(0);
+
+        assertFalse(filter.mightContain(dnaHash));
+        filter.add(dnaHash);
+        assertTrue(filter.mightContain(dnaHash));
+    }
+
+    @Test
+    @DisplayName("Should answer maybe for every hash when disabled or not loaded")
+    void testPassThrough() {
+        VerdictStore verdictStore = storeWith(List.of());
+        KnownHashFilter disabled = new KnownHashFilter(verdictStore, properties(false, 1_000));
+        disabled.load();
+        KnownHashFilter failed = new KnownHashFilter(verdictStore, properties(true, 1_000));
+        doThrow(new IllegalStateException("Database down")).when(verdictStore).forEachHash(any());
+        failed.load();
+
+        DnaHash dnaHash = randomHashes(1).get(0);
+        assertFalse(disabled.isLoaded());
+        assertTrue(disabled.mightContain(dnaHash));
+        assertFalse(failed.isLoaded());
+        assertTrue(failed.mightContain(dnaHash));
+    }
+
+    @Test
+    @DisplayName("Should grow past its capacity without false negatives and within the false positive bound")
+    void testScalableGrowth() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+        List<DnaHash> added = randomHashes(20_000);
+
+        added.forEach(dnaHash -> filter.add(dnaHash.word(1), dnaHash.word(2)));
+
+        assertTrue(filter.stageCount() > 1);
+        assertTrue(added.stream().allMatch(dnaHash -> filter.mightContain(dnaHash.word(1), dnaHash.word(2))));
+        long falsePositives = randomHashes(20_000).stream()
+            .filter(dnaHash -> filter.mightContain(dnaHash.word(1), dnaHash.word(2)))
+            .count();
+        assertTrue(falsePositives < 400, () -> "False positives: " + falsePositives);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static VerdictStore storeWith(List<DnaHash> hashes) {
+        VerdictStore verdictStore = mock(VerdictStore.class);
+        when(verdictStore.countByIsMutant(anyBoolean())).thenReturn(hashes.size() / 2L);
+        doAnswer(invocation -> {
+            hashes.forEach(invocation.<Consumer<DnaHash>>getArgument(0));
+            return null;
+        }).when(verdictStore).forEachHash(any());
+        return verdictStore;
+    }
+
+    private static HashFilterProperties properties(boolean enabled, long expectedInsertions) {
+        HashFilterProperties properties = new HashFilterProperties();
+        properties.setEnabled(enabled);
+        properties.setExpectedInsertions(expectedInsertions);
+        return properties;
+    }
+
+    private List<DnaHash> randomHashes(int count) {
+        return IntStream.range(0, count)
+            .mapToObj(i -> {
+                byte[] digest = new byte[DnaHash.BYTES];
+                random.nextBytes(digest);
+                return DnaHash.of(digest);
+            })
+            .toList();
+    }
+}
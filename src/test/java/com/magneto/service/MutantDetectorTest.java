@@ -1,9 +1,12 @@
 package com.magneto.service;
 
+import com.magneto.service.DetectionPolicy.Direction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.EnumSet;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -115,9 +118,9 @@ class MutantDetectorTest {
         String[] dna = {
             "AAGTGA",
             "CAGTTC",
-            "TTGTGT",
+            "TTATGT",
             "AGTAGG",
-            "CCCCTA",
+            "CTCCTA",
             "TCACTG"
         };
         assertTrue(mutantDetector.isMutant(dna));
@@ -260,4 +263,59 @@ class MutantDetectorTest {
         };
         assertTrue(mutantDetector.isMutant(dna));
     }
+
+    // ========== DETECTION POLICIES ==========
+
+    @Test
+    @DisplayName("Should apply the run length and minimum count of the policy")
+    void testPolicyLengthAndCount() {
+        String[] dna = {
+            "AAAC",
+            "CTGA",
+            "TGCA",
+            "ACTG"
+        };
+        DetectionPolicy runsOfThree = new DetectionPolicy(3, 1, EnumSet.allOf(Direction.class), true);
+        DetectionPolicy twoRunsOfThree = new DetectionPolicy(3, 2, EnumSet.allOf(Direction.class), true);
+
+        assertFalse(mutantDetector.isMutant(dna));
+        assertTrue(mutantDetector.isMutant(dna, runsOfThree));
+        assertFalse(mutantDetector.isMutant(dna, twoRunsOfThree));
+    }
+
+    @Test
+    @DisplayName("Should only search the directions enabled by the policy")
+    void testPolicyDirections() {
+        String[] dna = {
+            "AAAAGA",
+            "CAGTGC",
+            "TTATGT",
+            "AGAAGG",
+            "CCCCTA",
+            "TCACTG"
+        };
+        DetectionPolicy verticalOnly = new DetectionPolicy(4, 1, EnumSet.of(Direction.VERTICAL), true);
+        DetectionPolicy horizontalOnly = new DetectionPolicy(4, 2, EnumSet.of(Direction.HORIZONTAL), true);
+
+        assertTrue(mutantDetector.isMutant(dna, verticalOnly));
+        assertTrue(mutantDetector.isMutant(dna, horizontalOnly));
+        assertFalse(mutantDetector.isMutant(dna, new DetectionPolicy(4, 2, EnumSet.of(Direction.DIAGONAL), true)));
+    }
+
+    @Test
+    @DisplayName("Should count five equal bases as one run when runs cannot overlap")
+    void testNonOverlappingRuns() {
+        String[] dna = {
+            "AAAAAC",
+            "CTACTA",
+            "ACTACT",
+            "CTACTA",
+            "ACTACT",
+            "CTACTA"
+        };
+        DetectionPolicy disjoint = new DetectionPolicy(4, 2, EnumSet.allOf(Direction.class), false);
+
+        assertTrue(mutantDetector.isMutant(dna));
+        assertFalse(mutantDetector.isMutant(dna, disjoint));
+    }
 }
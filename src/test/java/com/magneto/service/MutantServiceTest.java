@@ -1,20 +1,33 @@
 package com.magneto.service;
 
+import com.magneto.config.HashFilterProperties;
+import com.magneto.entity.DnaHash;
 import com.magneto.entity.DnaRecord;
-import com.magneto.repository.DnaRecordRepository;
+import com.magneto.exception.InvalidDnaException;
+import com.magneto.repository.VerdictStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 /**
@@ -23,11 +36,32 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class MutantServiceTest {
 
+    @Spy
+    private DnaPreprocessor dnaPreprocessor = new DnaPreprocessor();
+
+    @Spy
+    private PackedMutantDetector mutantDetector = new PackedMutantDetector();
+
+    @Mock
+    private VerdictStore verdictStore;
+
     @Mock
-    private MutantDetector mutantDetector;
+    private VerificationCounter verificationCounter;
+
+    @Spy
+    private VerdictCache verdictCache = new VerdictCache(100);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private DetectionMetrics detectionMetrics = new DetectionMetrics(meterRegistry);
 
     @Mock
-    private DnaRecordRepository dnaRecordRepository;
+    private WriteBehindWriter writeBehindWriter;
+
+    // Not loaded: answers "maybe" for every hash until a test loads it
+    @Spy
+    private KnownHashFilter knownHashFilter = new KnownHashFilter(mock(VerdictStore.class), new HashFilterProperties());
 
     @InjectMocks
     private MutantService mutantService;
@@ -59,29 +93,61 @@ class MutantServiceTest {
     @Test
     @DisplayName("Should analyze new mutant DNA and save to database")
     void testAnalyzeNewMutantDna() {
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
-        when(mutantDetector.isMutant(mutantDna)).thenReturn(true);
-        when(dnaRecordRepository.save(any(DnaRecord.class))).thenReturn(new DnaRecord());
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(verdictStore.insertIfAbsent(any(DnaRecord.class))).thenReturn(true);
+
+        boolean result = mutantService.analyzeDna(mutantDna);
+
+        assertTrue(result);
+        verify(mutantDetector, times(1)).isMutant(any(PackedDna.class), any(DetectionPolicy.class));
+        verify(verdictStore, times(1)).insertIfAbsent(any(DnaRecord.class));
+        verify(verificationCounter, times(1)).record(argThat(DnaRecord::getIsMutant));
+    }
+
+    @Test
+    @DisplayName("Should skip the store lookup of hashes the known hash filter never saw")
+    void testKnownHashFilterSkipsLookup() {
+        knownHashFilter.load();
+        when(verdictStore.insertIfAbsent(any(DnaRecord.class))).thenReturn(true);
 
         boolean result = mutantService.analyzeDna(mutantDna);
 
         assertTrue(result);
-        verify(mutantDetector, times(1)).isMutant(mutantDna);
-        verify(dnaRecordRepository, times(1)).save(any(DnaRecord.class));
+        verify(verdictStore, never()).findByDnaHash(any());
+        verify(verdictStore, times(1)).insertIfAbsent(any(DnaRecord.class));
+        assertTrue(knownHashFilter.mightContain(dnaPreprocessor.prepare(mutantDna).getDnaHash()));
+    }
+
+    @Test
+    @DisplayName("Should only look up batch hashes the known hash filter may have seen")
+    void testKnownHashFilterSkipsBatchLookup() {
+        knownHashFilter.load();
+        PreparedDna known = dnaPreprocessor.prepare(humanDna);
+        knownHashFilter.add(known.getDnaHash());
+        DnaRecord storedRecord = new DnaRecord();
+        storedRecord.setDnaHash(known.getDnaHash());
+        storedRecord.setIsMutant(false);
+        when(verdictStore.findByDnaHashIn(anyCollection())).thenReturn(List.of(storedRecord));
+        when(verdictStore.insertAllIfAbsent(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        boolean[] results = mutantService.analyzeBatch(List.of(dnaPreprocessor.prepare(mutantDna), known));
+
+        assertArrayEquals(new boolean[]{true, false}, results);
+        verify(verdictStore).findByDnaHashIn(List.of(known.getDnaHash()));
+        verify(mutantDetector, times(1)).isMutant(any(PackedDna.class), any(DetectionPolicy.class));
     }
 
     @Test
     @DisplayName("Should analyze new human DNA and save to database")
     void testAnalyzeNewHumanDna() {
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
-        when(mutantDetector.isMutant(humanDna)).thenReturn(false);
-        when(dnaRecordRepository.save(any(DnaRecord.class))).thenReturn(new DnaRecord());
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(verdictStore.insertIfAbsent(any(DnaRecord.class))).thenReturn(true);
 
         boolean result = mutantService.analyzeDna(humanDna);
 
         assertFalse(result);
-        verify(mutantDetector, times(1)).isMutant(humanDna);
-        verify(dnaRecordRepository, times(1)).save(any(DnaRecord.class));
+        verify(mutantDetector, times(1)).isMutant(any(PackedDna.class), any(DetectionPolicy.class));
+        verify(verdictStore, times(1)).insertIfAbsent(any(DnaRecord.class));
     }
 
     @Test
@@ -90,13 +156,14 @@ class MutantServiceTest {
         DnaRecord cachedRecord = new DnaRecord();
         cachedRecord.setIsMutant(true);
 
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.of(cachedRecord));
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.of(cachedRecord));
 
         boolean result = mutantService.analyzeDna(mutantDna);
 
         assertTrue(result);
-        verify(mutantDetector, never()).isMutant(any());
-        verify(dnaRecordRepository, never()).save(any());
+        verify(mutantDetector, never()).isMutant(any(PackedDna.class), any(DetectionPolicy.class));
+        verify(verdictStore, never()).insertIfAbsent(any());
+        verifyNoInteractions(verificationCounter);
     }
 
     @Test
@@ -105,26 +172,273 @@ class MutantServiceTest {
         DnaRecord cachedRecord = new DnaRecord();
         cachedRecord.setIsMutant(false);
 
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.of(cachedRecord));
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.of(cachedRecord));
 
         boolean result = mutantService.analyzeDna(humanDna);
 
         assertFalse(result);
-        verify(mutantDetector, never()).isMutant(any());
-        verify(dnaRecordRepository, never()).save(any());
+        verify(mutantDetector, never()).isMutant(any(PackedDna.class), any(DetectionPolicy.class));
+        verify(verdictStore, never()).insertIfAbsent(any());
     }
 
     @Test
     @DisplayName("Should generate consistent hash for same DNA sequence")
     void testConsistentHashGeneration() {
-        when(dnaRecordRepository.findByDnaHash(anyString())).thenReturn(Optional.empty());
-        when(mutantDetector.isMutant(any())).thenReturn(true);
-        when(dnaRecordRepository.save(any(DnaRecord.class))).thenReturn(new DnaRecord());
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(verdictStore.insertIfAbsent(any(DnaRecord.class))).thenReturn(true);
+
+        mutantService.analyzeDna(mutantDna);
+        mutantService.analyzeDna(mutantDna);
+
+        // Second call is answered by the verdict cache under the same hash
+        verify(verdictStore, times(1)).findByDnaHash(any(DnaHash.class));
+        assertEquals(1, verdictCache.stats().getHitCount());
+    }
+
+    @Test
+    @DisplayName("Should answer repeated DNA from the verdict cache without touching the repository")
+    void testRepeatedDnaServedFromVerdictCache() {
+        DnaRecord storedRecord = new DnaRecord();
+        storedRecord.setIsMutant(false);
+
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.of(storedRecord));
+
+        assertFalse(mutantService.analyzeDna(humanDna));
+        assertFalse(mutantService.analyzeDna(humanDna));
+        assertFalse(mutantService.analyzeDna(humanDna));
+
+        verify(verdictStore, times(1)).findByDnaHash(any(DnaHash.class));
+        verify(mutantDetector, never()).isMutant(any(PackedDna.class), any(DetectionPolicy.class));
+        assertEquals(2, verdictCache.stats().getHitCount());
+        assertEquals(1, verdictCache.stats().getMissCount());
+    }
+
+    @Test
+    @DisplayName("Should keep verdicts of different DNA apart in the verdict cache")
+    void testVerdictCacheKeyedByHash() {
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.empty());
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+        assertFalse(mutantService.analyzeDna(humanDna));
+        assertTrue(mutantService.analyzeDna(mutantDna));
+        assertFalse(mutantService.analyzeDna(humanDna));
+
+        verify(verdictStore, times(2)).insertIfAbsent(any(DnaRecord.class));
+    }
+
+    @Test
+    @DisplayName("Should dedupe a batch by hash and analyze each unique DNA once")
+    void testAnalyzeBatchDedupesByHash() {
+        when(verdictStore.findByDnaHashIn(anyCollection())).thenReturn(List.of());
+        when(verdictStore.insertAllIfAbsent(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        boolean[] results = mutantService.analyzeBatch(prepare(mutantDna, humanDna, mutantDna.clone(), humanDna));
+
+        assertArrayEquals(new boolean[]{true, false, true, false}, results);
+        verify(mutantDetector, times(2)).isMutant(any(PackedDna.class), any(DetectionPolicy.class));
+        verify(verdictStore, times(1)).findByDnaHashIn(argThat(hashes -> hashes.size() == 2));
+        verify(verdictStore, times(1)).insertAllIfAbsent(argThat(records -> records.size() == 2));
+        verify(verificationCounter, times(1)).recordAll(argThat(records -> records.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should resolve known hashes of a batch without detecting or inserting them")
+    void testAnalyzeBatchUsesExistingRecords() {
+        DnaRecord storedRecord = new DnaRecord();
+        storedRecord.setDnaHash(dnaPreprocessor.prepare(mutantDna).getDnaHash());
+        storedRecord.setIsMutant(true);
+
+        when(verdictStore.findByDnaHashIn(anyCollection())).thenReturn(List.of(storedRecord));
+
+        boolean[] results = mutantService.analyzeBatch(prepare(mutantDna, humanDna));
+
+        assertArrayEquals(new boolean[]{true, false}, results);
+        verify(mutantDetector, times(1)).isMutant(any(PackedDna.class), any(DetectionPolicy.class));
+        verify(verdictStore, times(1)).insertAllIfAbsent(argThat(records ->
+            records.size() == 1 && !records.get(0).getIsMutant()));
+    }
+
+    @Test
+    @DisplayName("Should answer a batch from the verdict cache without querying the repository")
+    void testAnalyzeBatchServedFromVerdictCache() {
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.empty());
+        mutantService.analyzeDna(mutantDna);
+
+        boolean[] results = mutantService.analyzeBatch(prepare(mutantDna, mutantDna));
+
+        assertArrayEquals(new boolean[]{true, true}, results);
+        verify(verdictStore, never()).findByDnaHashIn(anyCollection());
+        verify(verdictStore, never()).insertAllIfAbsent(anyList());
+    }
+
+    @Test
+    @DisplayName("Should not count a record that another request stored first")
+    void testLostInsertRaceNotCounted() {
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(verdictStore.insertIfAbsent(any(DnaRecord.class))).thenReturn(false);
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+
+        verifyNoInteractions(verificationCounter);
+    }
+
+    @Test
+    @DisplayName("Should not cache the verdict of a record whose insert failed")
+    void testFailedInsertNotCached() {
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(verdictStore.insertIfAbsent(any(DnaRecord.class)))
+            .thenThrow(new IllegalStateException("database down"))
+            .thenReturn(true);
+        when(verdictStore.findByDnaHashIn(anyCollection())).thenReturn(List.of());
+        when(verdictStore.insertAllIfAbsent(anyList())).thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> mutantService.analyzeDna(mutantDna));
+        assertThrows(IllegalStateException.class, () -> mutantService.analyzeBatch(prepare(humanDna)));
+        assertNull(verdictCache.get(dnaPreprocessor.prepare(mutantDna).getDnaHash()));
+        assertNull(verdictCache.get(dnaPreprocessor.prepare(humanDna).getDnaHash()));
+
+        // The retry is detected and stored again, not answered from the cache
+        assertTrue(mutantService.analyzeDna(mutantDna));
+        verify(verdictStore, times(2)).insertIfAbsent(any(DnaRecord.class));
+        verify(verificationCounter, times(1)).record(argThat(DnaRecord::getIsMutant));
+    }
+
+    @Test
+    @DisplayName("Should share one lookup, detection and insert between concurrent requests for the same DNA")
+    void testConcurrentRequestsCoalesced() throws Exception {
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            releaseLookup.await();
+            return Optional.empty();
+        });
+        when(verdictStore.insertIfAbsent(any(DnaRecord.class))).thenReturn(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> leader = executor.submit(() -> mutantService.analyzeDna(mutantDna));
+            assertTrue(lookupStarted.await(5, TimeUnit.SECONDS));
+
+            // The follower finds the leader's in-flight entry and waits on it
+            Future<Boolean> follower = executor.submit(() -> mutantService.analyzeDna(mutantDna.clone()));
+            Thread.sleep(100);
+            releaseLookup.countDown();
+
+            assertTrue(leader.get(5, TimeUnit.SECONDS));
+            assertTrue(follower.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(verdictStore, times(1)).findByDnaHash(any(DnaHash.class));
+        verify(mutantDetector, times(1)).isMutant(any(PackedDna.class), any(DetectionPolicy.class));
+        verify(verdictStore, times(1)).insertIfAbsent(any(DnaRecord.class));
+        verify(verificationCounter, times(1)).record(argThat(DnaRecord::getIsMutant));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid DNA before touching the repository")
+    void testAnalyzeInvalidDna() {
+        String[] invalidDna = {"ATGC", "CAXT", "TTAT", "AGAA"};
+
+        assertThrows(InvalidDnaException.class, () -> mutantService.analyzeDna(invalidDna));
+        verifyNoInteractions(verdictStore);
+    }
+
+    @Test
+    @DisplayName("Should queue new records to the write-behind writer instead of saving them")
+    void testWriteBehindQueuesNewRecords() {
+        when(writeBehindWriter.isEnabled()).thenReturn(true);
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.empty());
+        when(verdictStore.findByDnaHashIn(anyCollection())).thenReturn(List.of());
+
+        assertTrue(mutantService.analyzeDna(mutantDna));
+        assertArrayEquals(new boolean[]{false, true}, mutantService.analyzeBatch(prepare(humanDna, mutantDna)));
+
+        verify(writeBehindWriter, times(1)).submit(argThat(record -> record.getIsMutant()));
+        verify(writeBehindWriter, times(1)).submitAll(argThat(records -> records.size() == 1));
+        verify(verdictStore, never()).insertIfAbsent(any());
+        verify(verdictStore, never()).insertAllIfAbsent(anyList());
+        verifyNoInteractions(verificationCounter);
+    }
+
+    @Test
+    @DisplayName("Should time lookup, detect and persist stages and count verdicts")
+    void testRecordsPipelineMetrics() {
+        when(verdictStore.findByDnaHash(any(DnaHash.class))).thenReturn(Optional.empty());
 
         mutantService.analyzeDna(mutantDna);
+        mutantService.analyzeDna(humanDna);
         mutantService.analyzeDna(mutantDna);
 
-        // Should find cached result on second call
-        verify(dnaRecordRepository, times(2)).findByDnaHash(anyString());
+        assertEquals(2, stageCount("lookup"));
+        assertEquals(2, stageCount("detect"));
+        assertEquals(2, stageCount("persist"));
+        assertEquals(1.0, verdictCount("mutant"));
+        assertEquals(1.0, verdictCount("human"));
+        assertEquals(1.0, verdictCount("duplicate"));
+    }
+
+    @Test
+    @DisplayName("Should count in-batch and known hashes of a batch as duplicates")
+    void testRecordsBatchMetrics() {
+        when(verdictStore.findByDnaHashIn(anyCollection())).thenReturn(List.of());
+
+        mutantService.analyzeBatch(prepare(mutantDna, humanDna, mutantDna.clone()));
+
+        assertEquals(1, stageCount("lookup"));
+        assertEquals(1, stageCount("detect"));
+        assertEquals(1, stageCount("persist"));
+        assertEquals(1.0, verdictCount("mutant"));
+        assertEquals(1.0, verdictCount("human"));
+        assertEquals(1.0, verdictCount("duplicate"));
+    }
+
+    @Test
+    @DisplayName("Should find verdicts by hash from the cache or the store without detecting")
+    void testFindVerdict() {
+        DnaHash cached = dnaPreprocessor.prepare(mutantDna).getDnaHash();
+        DnaHash stored = dnaPreprocessor.prepare(humanDna).getDnaHash();
+        DnaRecord storedRecord = new DnaRecord();
+        storedRecord.setDnaHash(stored);
+        storedRecord.setIsMutant(false);
+        verdictCache.put(cached, true);
+        when(verdictStore.findByDnaHash(stored)).thenReturn(Optional.of(storedRecord));
+        when(verdictStore.findByDnaHash(DnaHash.fromHex("0".repeat(64)))).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(true), mutantService.findVerdict(cached));
+        assertEquals(Optional.of(false), mutantService.findVerdict(stored));
+        assertEquals(Optional.empty(), mutantService.findVerdict(DnaHash.fromHex("0".repeat(64))));
+
+        assertFalse(verdictCache.get(stored));
+        verify(verdictStore, never()).findByDnaHash(cached);
+        verifyNoInteractions(mutantDetector);
+        verify(verdictStore, never()).insertIfAbsent(any());
+    }
+
+    @Test
+    @DisplayName("Should count a replay by hash as a duplicate only when the hash is known")
+    void testReplayVerdict() {
+        DnaHash known = dnaPreprocessor.prepare(mutantDna).getDnaHash();
+        verdictCache.put(known, true);
+        when(verdictStore.findByDnaHash(any())).thenReturn(Optional.empty());
+
+        assertEquals(Optional.of(true), mutantService.replayVerdict(known));
+        assertEquals(Optional.empty(), mutantService.replayVerdict(dnaPreprocessor.prepare(humanDna).getDnaHash()));
+
+        assertEquals(1.0, verdictCount("duplicate"));
+    }
+
+    private long stageCount(String stage) {
+        return meterRegistry.get("mutant.pipeline.stage").tag("stage", stage).timer().count();
+    }
+
+    private double verdictCount(String verdict) {
+        return meterRegistry.get("mutant.verdicts").tag("verdict", verdict).counter().count();
+    }
+
+    private List<PreparedDna> prepare(String[]... samples) {
+        return Arrays.stream(samples).map(dnaPreprocessor::prepare).toList();
     }
 }
@@ -0,0 +1,470 @@
+package com.magneto.service;
+
+import com.magneto.exception.DnaProcessingException;
+import com.magneto.service.DetectionPolicy.Direction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Equivalence tests for the bit-packed engine against the reference MutantDetector.
+ */
+class PackedMutantDetectorTest {
+
+    private MutantDetector referenceDetector;
+    private PackedMutantDetector packedDetector;
+
+    @BeforeEach
+    void setUp() {
+        referenceDetector = new MutantDetector();
+        packedDetector = new PackedMutantDetector();
+    }
+
+    // ========== FIXED CASES ==========
+
+    @Test
+    @DisplayName("Should detect mutant with horizontal and diagonal sequences")
+    void testDetectMutant() {
+        String[] dna = {
+            "ATGCGA",
+            "CAGTGC",
+            "TTATGT",
+            "AGAAGG",
+            "CCCCTA",
+            "TCACTG"
+        };
+        assertTrue(packedDetector.isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Should detect human with no sequences")
+    void testDetectHuman() {
+        String[] dna = {
+            "ATGCGA",
+            "CAGTGC",
+            "TTATTT",
+            "AGACGG",
+            "GCGTCA",
+            "TCACTG"
+        };
+        assertFalse(packedDetector.isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Should detect mutant with diagonal down-left sequences")
+    void testDetectMutantWithDiagonalDownLeft() {
+        String[] dna = {
+            "AAGTGA",
+            "CAGTTC",
+            "TTATGT",
+            "AGTAGG",
+            "CTCCTA",
+            "TCACTG"
+        };
+        assertTrue(packedDetector.isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Should count overlapping runs like the reference detector")
+    void testOverlappingRuns() {
+        String[] dna = {
+            "AAAAAC",
+            "CAGTGC",
+            "TTATGT",
+            "AGACGG",
+            "GCGTCA",
+            "TCACTG"
+        };
+        assertEquals(referenceDetector.isMutant(dna), packedDetector.isMutant(dna));
+        assertTrue(packedDetector.isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Should return false for null or empty DNA")
+    void testNullAndEmpty() {
+        assertFalse(packedDetector.isMutant((String[]) null));
+        assertFalse(packedDetector.isMutant(new String[]{}));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown nucleotides when packing")
+    void testRejectsUnknownNucleotide() {
+        String[] dna = {"ATGC", "CAXT", "TTAT", "AGAA"};
+        assertThrows(DnaProcessingException.class, () -> packedDetector.isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Should round-trip bases through the packed encoding")
+    void testPackRoundTrip() {
+        String[] dna = randomMatrix(new Random(7), 70, 4);
+        PackedDna packed = PackedDna.pack(dna);
+
+        for (int row = 0; row < dna.length; row++) {
+            for (int col = 0; col < dna.length; col++) {
+                assertEquals(dna[row].charAt(col), packed.baseAt(row, col));
+            }
+        }
+    }
+
+    // ========== WORD BOUNDARY CASES ==========
+
+    @ParameterizedTest
+    @ValueSource(ints = {29, 30, 31, 32, 33})
+    @DisplayName("Should detect runs that cross a 32-base word boundary")
+    void testRunsAcrossWordBoundary(int startCol) {
+        int n = 40;
+        char[][] grid = stripedGrid(n);
+        for (int i = 0; i < 4; i++) {
+            // Horizontal run starting at (2, startCol)
+            grid[2][startCol + i] = 'G';
+            // Diagonal ↘ run starting at (10, startCol)
+            grid[10 + i][startCol + i] = 'G';
+        }
+        String[] dna = toStrings(grid);
+
+        assertEquals(referenceDetector.isMutant(dna), packedDetector.isMutant(dna));
+        assertTrue(packedDetector.isMutant(dna));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {31, 32, 33, 34})
+    @DisplayName("Should detect diagonal down-left runs that cross a word boundary")
+    void testAntiDiagonalAcrossWordBoundary(int startCol) {
+        int n = 40;
+        char[][] grid = stripedGrid(n);
+        for (int i = 0; i < 4; i++) {
+            grid[3 + i][startCol - i] = 'G';
+            grid[20 + i][startCol - i] = 'G';
+        }
+        String[] dna = toStrings(grid);
+
+        assertEquals(referenceDetector.isMutant(dna), packedDetector.isMutant(dna));
+        assertTrue(packedDetector.isMutant(dna));
+    }
+
+    @Test
+    @DisplayName("Should not count a single sequence on the last column")
+    void testSingleSequenceOnLastColumn() {
+        int n = 64;
+        char[][] grid = stripedGrid(n);
+        for (int i = 0; i < 4; i++) {
+            grid[60 + i][n - 1] = 'G';
+        }
+        String[] dna = toStrings(grid);
+
+        assertEquals(referenceDetector.isMutant(dna), packedDetector.isMutant(dna));
+        assertFalse(packedDetector.isMutant(dna));
+    }
+
+    // ========== RANDOMIZED EQUIVALENCE ==========
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 5, 6, 7, 16, 31, 32, 33, 63, 64, 65, 100})
+    @DisplayName("Should agree with the reference detector on random matrices")
+    void testRandomEquivalence(int n) {
+        Random random = new Random(n);
+        for (int alphabet = 2; alphabet <= 4; alphabet++) {
+            for (int i = 0; i < 200; i++) {
+                String[] dna = randomMatrix(random, n, alphabet);
+                assertEquals(referenceDetector.isMutant(dna), packedDetector.isMutant(dna),
+                    () -> "Mismatch for " + Arrays.toString(dna));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {6, 33, 64, 97})
+    @DisplayName("Should agree with the reference detector on matrices with one planted sequence")
+    void testPlantedSequenceEquivalence(int n) {
+        Random random = new Random(31L * n);
+        for (int i = 0; i < 300; i++) {
+            char[][] grid = stripedGrid(n);
+            int row = random.nextInt(n - 3);
+            int col = random.nextInt(n - 3);
+            int direction = random.nextInt(4);
+            for (int k = 0; k < 4; k++) {
+                switch (direction) {
+                    case 0 -> grid[row][col + k] = 'G';
+                    case 1 -> grid[row + k][col] = 'G';
+                    case 2 -> grid[row + k][col + k] = 'G';
+                    default -> grid[row + k][col + 3 - k] = 'G';
+                }
+            }
+            String[] dna = toStrings(grid);
+            assertEquals(referenceDetector.isMutant(dna), packedDetector.isMutant(dna),
+                () -> "Mismatch for " + Arrays.toString(dna));
+        }
+    }
+
+    // ========== PARALLEL BANDS ==========
+
+    @ParameterizedTest
+    @ValueSource(ints = {16, 33, 64, 100})
+    @DisplayName("Should agree with the reference detector when scanning in parallel bands")
+    void testParallelEquivalence(int n) {
+        PackedMutantDetector parallelDetector = new PackedMutantDetector(8, 3);
+        Random random = new Random(17L * n);
+        for (int alphabet = 3; alphabet <= 4; alphabet++) {
+            for (int i = 0; i < 100; i++) {
+                String[] dna = randomMatrix(random, n, alphabet);
+                assertEquals(referenceDetector.isMutant(dna), parallelDetector.isMutant(dna),
+                    () -> "Mismatch for " + Arrays.toString(dna));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 2, 3, 4, 5})
+    @DisplayName("Should count vertical runs spanning a band boundary exactly once")
+    void testParallelRunAcrossBandBoundary(int startRow) {
+        PackedMutantDetector parallelDetector = new PackedMutantDetector(8, 3);
+        int n = 12;
+        char[][] grid = stripedGrid(n);
+        for (int i = 0; i < 4; i++) {
+            grid[startRow + i][5] = 'G';
+        }
+        String[] dna = toStrings(grid);
+
+        assertFalse(referenceDetector.isMutant(dna));
+        assertFalse(parallelDetector.isMutant(dna));
+
+        for (int i = 0; i < 4; i++) {
+            grid[startRow + i][9] = 'G';
+        }
+        String[] mutant = toStrings(grid);
+
+        assertTrue(referenceDetector.isMutant(mutant));
+        assertTrue(parallelDetector.isMutant(mutant));
+    }
+
+    @Test
+    @DisplayName("Should detect a mutant at the last rows of a large matrix in parallel")
+    void testParallelLargeMatrix() {
+        int n = 600;
+        char[][] grid = stripedGrid(n);
+        for (int i = 0; i < 4; i++) {
+            grid[n - 4 + i][0] = 'G';
+            grid[n - 1][n - 4 + i] = 'G';
+        }
+        String[] dna = toStrings(grid);
+
+        assertTrue(new PackedMutantDetector(64, 16).isMutant(dna));
+        assertFalse(new PackedMutantDetector(64, 16).isMutant(toStrings(stripedGrid(n))));
+    }
+
+    // ========== DETECTION POLICIES ==========
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 8, 33, 64, 70})
+    @DisplayName("Should agree with the reference detector under any detection policy")
+    void testPolicyEquivalence(int n) {
+        Random random = new Random(41L * n);
+        for (DetectionPolicy policy : policies()) {
+            for (int i = 0; i < 40; i++) {
+                String[] dna = randomMatrix(random, n, 2 + i % 3);
+                assertEquals(referenceDetector.isMutant(dna, policy), packedDetector.isMutant(PackedDna.pack(dna), policy),
+                    () -> "Mismatch for " + policy + " on " + Arrays.toString(dna));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {16, 64, 100})
+    @DisplayName("Should agree with the reference detector under any policy when scanning in parallel bands")
+    void testPolicyParallelEquivalence(int n) {
+        PackedMutantDetector parallelDetector = new PackedMutantDetector(8, 3);
+        Random random = new Random(43L * n);
+        for (DetectionPolicy policy : policies()) {
+            for (int i = 0; i < 20; i++) {
+                String[] dna = randomMatrix(random, n, 3 + i % 2);
+                assertEquals(referenceDetector.isMutant(dna, policy), parallelDetector.isMutant(PackedDna.pack(dna), policy),
+                    () -> "Mismatch for " + policy + " on " + Arrays.toString(dna));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should count non-overlapping runs along rows, columns and both diagonals")
+    void testNonOverlappingRuns() {
+        int n = 40;
+        for (Direction direction : Direction.values()) {
+            DetectionPolicy overlapping = new DetectionPolicy(4, 2, Set.of(direction), true);
+            DetectionPolicy disjoint = new DetectionPolicy(4, 2, Set.of(direction), false);
+
+            // Seven equal bases: four overlapping runs but a single disjoint one
+            char[][] grid = stripedGrid(n);
+            plant(grid, direction, 20, 20, 7);
+            PackedDna seven = PackedDna.pack(toStrings(grid));
+            assertTrue(packedDetector.isMutant(seven, overlapping), direction::name);
+            assertFalse(packedDetector.isMutant(seven, disjoint), direction::name);
+
+            // Eight equal bases: two disjoint runs
+            plant(grid, direction, 20, 20, 8);
+            assertTrue(packedDetector.isMutant(PackedDna.pack(toStrings(grid)), disjoint), direction::name);
+        }
+    }
+
+    @Test
+    @DisplayName("Should find runs of the maximum length spanning word boundaries")
+    void testLongRunsAcrossWords() {
+        int n = 70;
+        DetectionPolicy policy = new DetectionPolicy(DetectionPolicy.MAX_SEQUENCE_LENGTH, 1,
+            EnumSet.allOf(Direction.class), true);
+        for (Direction direction : Direction.values()) {
+            int col = direction == Direction.ANTI_DIAGONAL ? 60 : 20;
+            char[][] grid = stripedGrid(n);
+            plant(grid, direction, 5, col, DetectionPolicy.MAX_SEQUENCE_LENGTH - 1);
+            assertFalse(packedDetector.isMutant(PackedDna.pack(toStrings(grid)), policy), direction::name);
+
+            plant(grid, direction, 5, col, DetectionPolicy.MAX_SEQUENCE_LENGTH);
+            assertTrue(packedDetector.isMutant(PackedDna.pack(toStrings(grid)), policy), direction::name);
+        }
+    }
+
+    // ========== MATCH REPORTS ==========
+
+    @Test
+    @DisplayName("Should report every run with its start, direction and base")
+    void testFindMatches() {
+        String[] dna = {
+            "ATGCGA",
+            "CAGTGC",
+            "TTATGT",
+            "AGAAGG",
+            "CCCCTA",
+            "TCACTG"
+        };
+        List<String> matches = new ArrayList<>();
+
+        long count = packedDetector.findMatches(PackedDna.pack(dna), DetectionPolicy.DEFAULT,
+            (row, column, direction, base) -> matches.add(row + "," + column + " " + direction.label() + " " + base));
+
+        assertEquals(List.of("0,4 vertical G", "0,0 diagonal A", "4,0 horizontal C"), matches);
+        assertEquals(3, count);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 9, 33, 64})
+    @DisplayName("Should report exactly the runs counted by the reference rules, in scan order")
+    void testFindMatchesEquivalence(int n) {
+        Random random = new Random(47L * n);
+        List<DetectionPolicy> policies = new ArrayList<>(policies());
+        policies.add(DetectionPolicy.DEFAULT);
+        for (DetectionPolicy policy : policies) {
+            for (int i = 0; i < 10; i++) {
+                String[] dna = randomMatrix(random, n, 2 + i % 3);
+                List<String> matches = new ArrayList<>();
+                packedDetector.findMatches(PackedDna.pack(dna), policy,
+                    (row, column, direction, base) -> matches.add(row + "," + column + " " + direction + " " + base));
+
+                assertEquals(expectedMatches(dna, policy), matches, () -> policy + " on " + Arrays.toString(dna));
+            }
+        }
+    }
+
+    /**
+     * Runs of the policy found cell by cell, in the order of the packed scan: start row, then
+     * direction, then column.
+     */
+    private static List<String> expectedMatches(String[] dna, DetectionPolicy policy) {
+        int n = dna.length;
+        int length = policy.getSequenceLength();
+        List<String> matches = new ArrayList<>();
+        for (int row = 0; row < n; row++) {
+            for (Direction direction : policy.getDirections()) {
+                for (int col = 0; col < n; col++) {
+                    int endRow = row + direction.getRowStep() * (length - 1);
+                    int endCol = col + direction.getColumnStep() * (length - 1);
+                    if (endRow >= n || endCol < 0 || endCol >= n) {
+                        continue;
+                    }
+                    char base = dna[row].charAt(col);
+                    boolean run = true;
+                    for (int k = 1; k < length && run; k++) {
+                        run = dna[row + k * direction.getRowStep()].charAt(col + k * direction.getColumnStep()) == base;
+                    }
+                    int before = 0;
+                    for (int r = row - direction.getRowStep(), c = col - direction.getColumnStep();
+                         r >= 0 && c >= 0 && c < n && dna[r].charAt(c) == base;
+                         r -= direction.getRowStep(), c -= direction.getColumnStep()) {
+                        before++;
+                    }
+                    if (run && (policy.isOverlapping() || before % length == 0)) {
+                        matches.add(row + "," + col + " " + direction + " " + base);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static List<DetectionPolicy> policies() {
+        Set<Direction> all = EnumSet.allOf(Direction.class);
+        return List.of(
+            new DetectionPolicy(4, 2, all, false),
+            new DetectionPolicy(3, 3, all, true),
+            new DetectionPolicy(3, 4, all, false),
+            new DetectionPolicy(5, 1, all, true),
+            new DetectionPolicy(2, 6, EnumSet.of(Direction.DIAGONAL, Direction.ANTI_DIAGONAL), false),
+            new DetectionPolicy(4, 1, EnumSet.of(Direction.VERTICAL), true),
+            new DetectionPolicy(4, 2, EnumSet.of(Direction.HORIZONTAL, Direction.ANTI_DIAGONAL), true)
+        );
+    }
+
+    // ========== HELPERS ==========
+
+    /**
+     * Plants a run of G starting at (row, col) along the direction.
+     */
+    private static void plant(char[][] grid, Direction direction, int row, int col, int length) {
+        for (int k = 0; k < length; k++) {
+            grid[row + k * direction.getRowStep()][col + k * direction.getColumnStep()] = 'G';
+        }
+    }
+
+    /**
+     * Grid of A/C/T with no run of four in any direction, so only planted G runs count.
+     */
+    private static char[][] stripedGrid(int n) {
+        char[] pattern = {'A', 'C', 'T'};
+        char[][] grid = new char[n][n];
+        for (int row = 0; row < n; row++) {
+            for (int col = 0; col < n; col++) {
+                grid[row][col] = pattern[(row + col + row / 2) % 3];
+            }
+        }
+        return grid;
+    }
+
+    private static String[] randomMatrix(Random random, int n, int alphabet) {
+        char[] bases = {'A', 'C', 'G', 'T'};
+        String[] dna = new String[n];
+        for (int row = 0; row < n; row++) {
+            char[] chars = new char[n];
+            for (int col = 0; col < n; col++) {
+                chars[col] = bases[random.nextInt(alphabet)];
+            }
+            dna[row] = new String(chars);
+        }
+        return dna;
+    }
+
+    private static String[] toStrings(char[][] grid) {
+        String[] dna = new String[grid.length];
+        for (int i = 0; i < grid.length; i++) {
+            dna[i] = new String(grid[i]);
+        }
+        return dna;
+    }
+}
@@ -0,0 +1,168 @@
+package com.magneto.service;
+
+import com.magneto.entity.DnaRecord;
+import com.magneto.entity.DnaStatsRollup;
+import com.magneto.entity.StatsGranularity;
+import com.magneto.repository.DnaStatsRollupRepository;
+import com.magneto.repository.VerdictStore;
+import com.magneto.repository.VerdictStore.VerificationVisitor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the time-bucketed stats rollup.
+ */
+@ExtendWith(MockitoExtension.class)
+class StatsRollupTest {
+
+    private static final LocalDateTime TEN = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    @Mock
+    private DnaStatsRollupRepository rollupRepository;
+
+    @Mock
+    private VerdictStore verdictStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StatsRollup statsRollup;
+
+    @BeforeEach
+    void setUp() {
+        statsRollup = new StatsRollup(rollupRepository, verdictStore, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Should merge stored buckets with pending deltas and fill empty buckets")
+    void testBucketsMergeStoredAndPending() {
+        when(rollupRepository.findRange(StatsGranularity.HOUR, TEN, TEN.plusHours(3)))
+            .thenReturn(List.of(new DnaStatsRollup(StatsGranularity.HOUR, TEN, 1L, 1L)));
+        statsRollup.add(List.of(
+            record(TEN.plusMinutes(5), true),
+            record(TEN.plusMinutes(59), false),
+            record(TEN.plusMinutes(90), true),
+            record(TEN.plusHours(5), true)));
+
+        List<DnaStatsRollup> buckets = statsRollup.buckets(StatsGranularity.HOUR, TEN.plusMinutes(30), TEN.plusHours(3));
+
+        assertEquals(List.of(TEN, TEN.plusHours(1), TEN.plusHours(2)),
+            buckets.stream().map(DnaStatsRollup::getBucketStart).toList());
+        assertEquals(List.of(2L, 1L, 0L), buckets.stream().map(DnaStatsRollup::getMutantCount).toList());
+        assertEquals(List.of(2L, 0L, 0L), buckets.stream().map(DnaStatsRollup::getHumanCount).toList());
+    }
+
+    @Test
+    @DisplayName("Should flush each pending minute to its minute, hour and day buckets once")
+    @SuppressWarnings("unchecked")
+    void testFlushSpreadsDeltas() {
+        statsRollup.add(List.of(
+            record(TEN.plusMinutes(5).plusSeconds(10), true),
+            record(TEN.plusMinutes(5).plusSeconds(40), true),
+            record(TEN.plusMinutes(6), false)));
+
+        statsRollup.flush();
+        statsRollup.flush();
+
+        ArgumentCaptor<Collection<DnaStatsRollup>> deltas = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupRepository, times(1)).incrementAll(deltas.capture());
+        assertEquals(4, deltas.getValue().size());
+        assertDelta(deltas.getValue(), StatsGranularity.MINUTE, TEN.plusMinutes(5), 2L, 0L);
+        assertDelta(deltas.getValue(), StatsGranularity.MINUTE, TEN.plusMinutes(6), 0L, 1L);
+        assertDelta(deltas.getValue(), StatsGranularity.HOUR, TEN, 2L, 1L);
+        assertDelta(deltas.getValue(), StatsGranularity.DAY, TEN.withHour(0), 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should keep the deltas of a failed flush for the next one")
+    @SuppressWarnings("unchecked")
+    void testFailedFlushRetried() {
+        List<Collection<DnaStatsRollup>> calls = new ArrayList<>();
+        doAnswer(invocation -> {
+            calls.add(new ArrayList<>(invocation.getArgument(0)));
+            if (calls.size() == 1) {
+                throw new IllegalStateException("database down");
+            }
+            return null;
+        }).when(rollupRepository).incrementAll(anyCollection());
+        statsRollup.add(List.of(record(TEN, true)));
+
+        statsRollup.flush();
+        statsRollup.add(List.of(record(TEN, false)));
+        statsRollup.flush();
+
+        assertEquals(2, calls.size());
+        assertDelta(calls.get(1), StatsGranularity.MINUTE, TEN, 1L, 1L);
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Should rebuild the buckets from a verdict store outside the rollup database")
+    @SuppressWarnings("unchecked")
+    void testRebuildFromVerdictStore() {
+        when(verdictStore.sharesRollupDatabase()).thenReturn(false);
+        doAnswer(invocation -> {
+            VerificationVisitor visitor = invocation.getArgument(0);
+            visitor.visit(true, TEN.plusMinutes(5).plusSeconds(10));
+            visitor.visit(false, TEN.plusMinutes(5).plusSeconds(40));
+            visitor.visit(true, TEN.plusHours(1));
+            return null;
+        }).when(verdictStore).forEachVerification(any());
+
+        statsRollup.rebuild();
+
+        ArgumentCaptor<Collection<DnaStatsRollup>> deltas = ArgumentCaptor.forClass(Collection.class);
+        InOrder inOrder = inOrder(rollupRepository);
+        inOrder.verify(rollupRepository).deleteAllInBatch();
+        inOrder.verify(rollupRepository).incrementAll(deltas.capture());
+        assertDelta(deltas.getValue(), StatsGranularity.MINUTE, TEN.plusMinutes(5), 1L, 1L);
+        assertDelta(deltas.getValue(), StatsGranularity.HOUR, TEN, 1L, 1L);
+        assertDelta(deltas.getValue(), StatsGranularity.HOUR, TEN.plusHours(1), 1L, 0L);
+        assertDelta(deltas.getValue(), StatsGranularity.DAY, TEN.withHour(0), 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should keep the stored buckets of a verdict store in the rollup database")
+    void testNoRebuildWithSharedDatabase() {
+        when(verdictStore.sharesRollupDatabase()).thenReturn(true);
+
+        statsRollup.rebuild();
+
+        verify(verdictStore, never()).forEachVerification(any());
+        verifyNoInteractions(rollupRepository);
+    }
+
+    private static void assertDelta(Collection<DnaStatsRollup> deltas, StatsGranularity granularity,
+                                    LocalDateTime bucketStart, long mutants, long humans) {
+        DnaStatsRollup delta = deltas.stream()
+            .filter(d -> d.getGranularity() == granularity && d.getBucketStart().equals(bucketStart))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(mutants, delta.getMutantCount());
+        assertEquals(humans, delta.getHumanCount());
+    }
+
+    private static DnaRecord record(LocalDateTime verifiedAt, boolean isMutant) {
+        DnaRecord record = new DnaRecord();
+        record.setIsMutant(isMutant);
+        record.setVerifiedAt(verifiedAt);
+        return record;
+    }
+}
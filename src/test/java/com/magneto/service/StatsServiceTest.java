@@ -1,15 +1,29 @@
 package com.magneto.service;
 
+import com.magneto.dto.CacheStatsResponse;
 import com.magneto.dto.StatsResponse;
-import com.magneto.repository.DnaRecordRepository;
+import com.magneto.dto.StatsSeriesResponse;
+import com.magneto.entity.DnaRecord;
+import com.magneto.entity.DnaStatsRollup;
+import com.magneto.entity.DnaStatsSummary;
+import com.magneto.entity.StatsGranularity;
+import com.magneto.exception.InvalidStatsQueryException;
+import com.magneto.repository.DnaStatsSummaryRepository;
+import com.magneto.repository.VerdictStore;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.Mockito.*;
 
 /**
@@ -19,16 +33,32 @@ import static org.mockito.Mockito.*;
 class StatsServiceTest {
 
     @Mock
-    private DnaRecordRepository dnaRecordRepository;
+    private VerdictStore verdictStore;
+
+    @Mock
+    private DnaStatsSummaryRepository dnaStatsSummaryRepository;
+
+    @Mock
+    private VerdictCache verdictCache;
+
+    @Mock
+    private StatsRollup statsRollup;
 
-    @InjectMocks
+    private VerificationCounter verificationCounter;
     private StatsService statsService;
 
+    @BeforeEach
+    void setUp() {
+        verificationCounter = new VerificationCounter(verdictStore, dnaStatsSummaryRepository, statsRollup);
+        statsService = new StatsService(verificationCounter, verdictCache, statsRollup);
+    }
+
     @Test
     @DisplayName("Should calculate statistics with mutants and humans")
     void testGetStatsWithMutantsAndHumans() {
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(40L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(100L);
+        when(verdictStore.countByIsMutant(true)).thenReturn(40L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(100L);
+        verificationCounter.rebuild();
 
         StatsResponse stats = statsService.getVerificationStats();
 
@@ -36,15 +66,60 @@ class StatsServiceTest {
         assertEquals(100L, stats.getCountHumanDna());
         assertEquals(0.4, stats.getRatio(), 0.01);
 
-        verify(dnaRecordRepository, times(1)).countByIsMutant(true);
-        verify(dnaRecordRepository, times(1)).countByIsMutant(false);
+        verify(verdictStore, times(1)).countByIsMutant(true);
+        verify(verdictStore, times(1)).countByIsMutant(false);
+    }
+
+    @Test
+    @DisplayName("Should seed the counters from a summary row written by a clean shutdown")
+    void testSeedFromCleanSummary() {
+        when(verdictStore.sharesRollupDatabase()).thenReturn(true);
+        when(dnaStatsSummaryRepository.findById(VerificationCounter.SUMMARY_ID)).thenReturn(Optional.of(
+            new DnaStatsSummary(VerificationCounter.SUMMARY_ID, 40L, 100L, LocalDateTime.now(), true)));
+
+        verificationCounter.rebuild();
+
+        assertEquals(40L, verificationCounter.getMutantCount());
+        assertEquals(100L, verificationCounter.getHumanCount());
+        verify(verdictStore, never()).countByIsMutant(anyBoolean());
+        // Rewritten as not clean, so a crash before the next shutdown leads to a recount
+        verify(dnaStatsSummaryRepository).save(argThat(summary -> !summary.isCleanShutdown()));
+    }
+
+    @Test
+    @DisplayName("Should recount the store when the summary row was not written by a clean shutdown")
+    void testRecountAfterCrash() {
+        when(verdictStore.sharesRollupDatabase()).thenReturn(true);
+        when(dnaStatsSummaryRepository.findById(VerificationCounter.SUMMARY_ID)).thenReturn(Optional.of(
+            new DnaStatsSummary(VerificationCounter.SUMMARY_ID, 1L, 1L, LocalDateTime.now(), false)));
+        when(verdictStore.countByIsMutant(true)).thenReturn(40L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(100L);
+
+        verificationCounter.rebuild();
+
+        assertEquals(40L, verificationCounter.getMutantCount());
+        assertEquals(100L, verificationCounter.getHumanCount());
+    }
+
+    @Test
+    @DisplayName("Should mark only the shutdown write clean and skip scheduled writes after it")
+    void testCleanShutdownWrite() {
+        verificationCounter.persist();
+        verificationCounter.close();
+        verificationCounter.persist();
+
+        InOrder inOrder = inOrder(dnaStatsSummaryRepository);
+        inOrder.verify(dnaStatsSummaryRepository).save(argThat(summary -> !summary.isCleanShutdown()));
+        inOrder.verify(dnaStatsSummaryRepository).save(argThat(DnaStatsSummary::isCleanShutdown));
+        inOrder.verifyNoMoreInteractions();
     }
 
     @Test
     @DisplayName("Should handle zero humans in statistics")
     void testGetStatsWithNoHumans() {
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(10L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(0L);
+        when(verdictStore.countByIsMutant(true)).thenReturn(10L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(0L);
+        verificationCounter.rebuild();
 
         StatsResponse stats = statsService.getVerificationStats();
 
@@ -56,8 +131,9 @@ class StatsServiceTest {
     @Test
     @DisplayName("Should handle zero mutants in statistics")
     void testGetStatsWithNoMutants() {
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(0L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(50L);
+        when(verdictStore.countByIsMutant(true)).thenReturn(0L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(50L);
+        verificationCounter.rebuild();
 
         StatsResponse stats = statsService.getVerificationStats();
 
@@ -69,8 +145,9 @@ class StatsServiceTest {
     @Test
     @DisplayName("Should handle empty database")
     void testGetStatsWithEmptyDatabase() {
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(0L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(0L);
+        when(verdictStore.countByIsMutant(true)).thenReturn(0L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(0L);
+        verificationCounter.rebuild();
 
         StatsResponse stats = statsService.getVerificationStats();
 
@@ -82,8 +159,9 @@ class StatsServiceTest {
     @Test
     @DisplayName("Should calculate ratio correctly with equal counts")
     void testGetStatsWithEqualCounts() {
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(50L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(50L);
+        when(verdictStore.countByIsMutant(true)).thenReturn(50L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(50L);
+        verificationCounter.rebuild();
 
         StatsResponse stats = statsService.getVerificationStats();
 
@@ -95,11 +173,123 @@ class StatsServiceTest {
     @Test
     @DisplayName("Should round ratio to 2 decimal places")
     void testRatioRounding() {
-        when(dnaRecordRepository.countByIsMutant(true)).thenReturn(1L);
-        when(dnaRecordRepository.countByIsMutant(false)).thenReturn(3L);
+        when(verdictStore.countByIsMutant(true)).thenReturn(1L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(3L);
+        verificationCounter.rebuild();
 
         StatsResponse stats = statsService.getVerificationStats();
 
         assertEquals(0.33, stats.getRatio(), 0.01);
     }
+
+    @Test
+    @DisplayName("Should expose verdict cache statistics")
+    void testGetCacheStats() {
+        when(verdictCache.stats()).thenReturn(new CacheStatsResponse(6L, 4L, 0L, 0.6, 4L));
+
+        CacheStatsResponse stats = statsService.getCacheStats();
+
+        assertEquals(6L, stats.getHitCount());
+        assertEquals(4L, stats.getMissCount());
+        assertEquals(0.6, stats.getHitRate(), 0.01);
+        verifyNoInteractions(verdictStore);
+    }
+
+    @Test
+    @DisplayName("Should serve statistics from counters without counting the table again")
+    void testGetStatsDoesNotScanTable() {
+        when(verdictStore.countByIsMutant(true)).thenReturn(4L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(10L);
+        verificationCounter.rebuild();
+
+        statsService.getVerificationStats();
+        statsService.getVerificationStats();
+
+        verify(verdictStore, times(1)).countByIsMutant(true);
+        verify(verdictStore, times(1)).countByIsMutant(false);
+    }
+
+    @Test
+    @DisplayName("Should include records counted after startup")
+    void testGetStatsIncludesNewRecords() {
+        when(verdictStore.countByIsMutant(true)).thenReturn(1L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(2L);
+        verificationCounter.rebuild();
+
+        verificationCounter.record(record(true));
+        verificationCounter.recordAll(List.of(record(true), record(true), record(false)));
+
+        StatsResponse stats = statsService.getVerificationStats();
+
+        assertEquals(4L, stats.getCountMutantDna());
+        assertEquals(3L, stats.getCountHumanDna());
+        assertEquals(1.33, stats.getRatio(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Should add new records to their stats rollup buckets")
+    void testRecordFeedsRollup() {
+        verificationCounter.recordAll(List.of(record(true), record(false)));
+
+        verify(statsRollup, times(1)).add(argThat(records -> records.size() == 2));
+    }
+
+    @Test
+    @DisplayName("Should return per-bucket statistics and range totals")
+    void testGetStatsSeries() {
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 5, 1, 12, 0);
+        when(statsRollup.buckets(StatsGranularity.HOUR, from, to)).thenReturn(List.of(
+            new DnaStatsRollup(StatsGranularity.HOUR, from, 2L, 4L),
+            new DnaStatsRollup(StatsGranularity.HOUR, from.plusHours(1), 3L, 0L)));
+
+        StatsSeriesResponse stats = statsService.getVerificationStats("HOUR", from, to);
+
+        assertEquals("hour", stats.getGranularity());
+        assertEquals(5L, stats.getCountMutantDna());
+        assertEquals(4L, stats.getCountHumanDna());
+        assertEquals(1.25, stats.getRatio(), 0.01);
+        assertEquals(2, stats.getBuckets().size());
+        assertEquals(0.5, stats.getBuckets().get(0).getRatio(), 0.01);
+        assertEquals(1.0, stats.getBuckets().get(1).getRatio(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown granularity, an empty range and too many buckets")
+    void testGetStatsSeriesInvalidQuery() {
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+        InvalidStatsQueryException granularity = assertThrows(InvalidStatsQueryException.class,
+            () -> statsService.getVerificationStats("week", from, from.plusDays(7)));
+        InvalidStatsQueryException range = assertThrows(InvalidStatsQueryException.class,
+            () -> statsService.getVerificationStats("hour", from, from));
+        InvalidStatsQueryException tooMany = assertThrows(InvalidStatsQueryException.class,
+            () -> statsService.getVerificationStats("minute", from, from.plusMinutes(StatsService.MAX_BUCKETS + 1)));
+
+        assertEquals("granularity", granularity.getField());
+        assertEquals("to", range.getField());
+        assertEquals("granularity", tooMany.getField());
+        verifyNoInteractions(statsRollup);
+    }
+
+    @Test
+    @DisplayName("Should persist the summary row when counters are rebuilt")
+    void testRebuildPersistsSummary() {
+        when(verdictStore.countByIsMutant(true)).thenReturn(7L);
+        when(verdictStore.countByIsMutant(false)).thenReturn(3L);
+
+        verificationCounter.rebuild();
+
+        verify(dnaStatsSummaryRepository).save(argThat(summary ->
+            summary.getId() == VerificationCounter.SUMMARY_ID
+                && summary.getMutantCount() == 7L
+                && summary.getHumanCount() == 3L));
+    }
+
+    private static DnaRecord record(boolean isMutant) {
+        DnaRecord record = new DnaRecord();
+        record.setIsMutant(isMutant);
+        record.setVerifiedAt(LocalDateTime.now());
+        return record;
+    }
 }
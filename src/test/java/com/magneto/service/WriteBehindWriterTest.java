@@ -0,0 +1,146 @@
+package com.magneto.service;
+
+import com.magneto.config.WriteBehindProperties;
+import com.magneto.config.WriteBehindProperties.BackpressurePolicy;
+import com.magneto.config.WriteBehindProperties.Durability;
+import com.magneto.entity.DnaRecord;
+import com.magneto.exception.DnaProcessingException;
+import com.magneto.repository.VerdictStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static com.magneto.entity.DnaRecordFixtures.hash;
+import static com.magneto.entity.DnaRecordFixtures.record;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the write-behind writer.
+ */
+@ExtendWith(MockitoExtension.class)
+class WriteBehindWriterTest {
+
+    @Mock
+    private VerdictStore verdictStore;
+
+    @Mock
+    private VerificationCounter verificationCounter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final VerdictCache verdictCache = new VerdictCache(100);
+
+    private WriteBehindProperties properties;
+    private WriteBehindWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setLingerMs(1000);
+        writer = new WriteBehindWriter(verdictStore, verificationCounter, verdictCache, transactionManager, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writer.close();
+    }
+
+    @Test
+    @DisplayName("Should coalesce queued duplicates and flush them in one batch on close")
+    void testCoalescesAndFlushesOnClose() throws InterruptedException {
+        when(verdictStore.insertAllIfAbsent(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        writer.start();
+
+        writer.submit(record('a', true));
+        writer.submitAll(List.of(record('a', true), record('b', false)));
+        writer.close();
+
+        verify(verdictStore, times(1)).insertAllIfAbsent(argThat(records -> records.size() == 2));
+        verify(verificationCounter, times(1)).recordAll(argThat(records -> records.size() == 2));
+        assertEquals(0, writer.getQueueSize());
+    }
+
+    @Test
+    @DisplayName("Should count only the records actually inserted")
+    void testCountsInsertedRecordsOnly() throws InterruptedException {
+        when(verdictStore.insertAllIfAbsent(anyList())).thenReturn(List.of(record('b', true)));
+        writer.start();
+
+        writer.submitAll(List.of(record('a', true), record('b', true)));
+        writer.close();
+
+        verify(verdictStore, times(1)).insertAllIfAbsent(argThat(records -> records.size() == 2));
+        verify(verificationCounter, times(1)).recordAll(argThat(records -> records.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Should drop records when the queue is full and the policy is DROP")
+    void testDropPolicy() {
+        properties.setQueueCapacity(1);
+        properties.setBackpressure(BackpressurePolicy.DROP);
+
+        verdictCache.put(hash('a'), true);
+        verdictCache.put(hash('b'), false);
+
+        writer.submitAll(List.of(record('a', true), record('b', false)));
+
+        assertEquals(1, writer.getQueueSize());
+        verify(verdictStore, never()).insertAllIfAbsent(anyList());
+        // The dropped record must be analyzed again, not answered from the cache
+        assertTrue(verdictCache.get(hash('a')));
+        assertNull(verdictCache.get(hash('b')));
+    }
+
+    @Test
+    @DisplayName("Should insert on the caller when the queue is full and the policy is CALLER_RUNS")
+    void testCallerRunsPolicy() {
+        properties.setQueueCapacity(1);
+        properties.setBackpressure(BackpressurePolicy.CALLER_RUNS);
+        when(verdictStore.insertAllIfAbsent(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        writer.submitAll(List.of(record('a', true), record('b', false)));
+
+        assertEquals(1, writer.getQueueSize());
+        verify(verdictStore, times(1)).insertAllIfAbsent(argThat(records ->
+            records.size() == 1 && records.get(0).getDnaHash().equals(hash('b'))));
+    }
+
+    @Test
+    @DisplayName("Should return only after the batch commits in group-commit mode")
+    void testGroupCommit() {
+        properties.setDurability(Durability.GROUP_COMMIT);
+        properties.setLingerMs(5);
+        when(verdictStore.insertAllIfAbsent(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        writer.start();
+
+        writer.submit(record('a', true));
+
+        verify(verdictStore, times(1)).insertAllIfAbsent(argThat(records -> records.size() == 1));
+        verify(verificationCounter, times(1)).recordAll(argThat(records -> records.size() == 1));
+    }
+
+    @Test
+    @DisplayName("Should fail the request when its batch fails in group-commit mode")
+    void testGroupCommitFailure() {
+        properties.setDurability(Durability.GROUP_COMMIT);
+        properties.setLingerMs(5);
+        when(verdictStore.insertAllIfAbsent(anyList())).thenThrow(new IllegalStateException("database down"));
+        writer.start();
+        verdictCache.put(hash('a'), true);
+
+        assertThrows(DnaProcessingException.class, () -> writer.submit(record('a', true)));
+        verifyNoInteractions(verificationCounter);
+        assertNull(verdictCache.get(hash('a')));
+    }
+}